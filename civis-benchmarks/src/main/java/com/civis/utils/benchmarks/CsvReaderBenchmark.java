@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.benchmarks;
+
+import com.civis.utils.csv.address.CSVAddressData;
+import com.civis.utils.csv.address.CSVAddressReader;
+import com.civis.utils.csv.common.CSVData;
+import com.civis.utils.csv.common.CSVReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark csv readers with default address data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvReaderBenchmark {
+
+    @Benchmark
+    public List<CSVData> csvReaderRead() {
+        return CSVReader.read(CSVAddressReader.DEFAULT_ADDRESS_CSV_RES, CSVAddressReader.CSV_COLUMN_SEPARATOR);
+    }
+
+    @Benchmark
+    public List<CSVAddressData> csvAddressReaderRead() {
+        return CSVAddressReader.read();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.benchmarks;
+
+import com.civis.utils.opennlp.features.AddressFeature;
+import com.civis.utils.opennlp.features.ContactPersonFeatureGenerator;
+import com.civis.utils.opennlp.features.FirstCapitalLetterFeature;
+import com.civis.utils.opennlp.features.FirstNameFeatureGenerator;
+import com.civis.utils.opennlp.features.NumberFeature;
+import com.civis.utils.opennlp.features.StreetNumberFeature;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.utils.Gazetteers;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import opennlp.tools.util.featuregen.AggregatedFeatureGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark custom feature generators, features are created for every token of a text fixture.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FeatureGeneratorBenchmark {
+
+    private static final String[] NO_OUTCOMES = {};
+
+    @Param({"AddressFeature", "ContactPersonFeatureGenerator", "FirstCapitalLetterFeature",
+            "FirstNameFeatureGenerator", "NumberFeature", "StreetNumberFeature"})
+    public String generatorName;
+
+    @Param({"bernerMattnerJob.txt", "randstad.txt"})
+    public String fileName;
+
+    private AdaptiveFeatureGenerator generator;
+    private String[] tokens;
+    private List<String> features;
+
+    @Setup
+    public void setup() {
+        generator = createGenerator(generatorName);
+        tokens = new TokenizerME(ModelFactory.getTokenizerModel()).tokenize(Fixtures.read("text/" + fileName));
+        features = new ArrayList<>();
+    }
+
+    @Benchmark
+    public int createFeatures() {
+        int featureCount = 0;
+        for (int index = 0; index < tokens.length; index++) {
+            features.clear();
+            generator.createFeatures(features, tokens, index, NO_OUTCOMES);
+            featureCount += features.size();
+        }
+        generator.clearAdaptiveData();
+        return featureCount;
+    }
+
+    private static AdaptiveFeatureGenerator createGenerator(String generatorName) {
+        switch (generatorName) {
+            case "AddressFeature":
+                return new AddressFeature();
+            case "ContactPersonFeatureGenerator":
+                return new ContactPersonFeatureGenerator();
+            case "FirstCapitalLetterFeature":
+                return new FirstCapitalLetterFeature();
+            case "FirstNameFeatureGenerator":
+                // first name feature depends on contact person features of the same token.
+                return new AggregatedFeatureGenerator(new ContactPersonFeatureGenerator(),
+                        new FirstNameFeatureGenerator(Gazetteers.getNameDictionary(), Collections.emptySet()));
+            case "NumberFeature":
+                return new NumberFeature();
+            case "StreetNumberFeature":
+                return new StreetNumberFeature();
+            default:
+                throw new IllegalArgumentException("Unknown feature generator " + generatorName);
+        }
+    }
+}
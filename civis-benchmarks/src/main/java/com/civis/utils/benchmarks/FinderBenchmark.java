@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.benchmarks;
+
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.address.AddressFinder;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinder;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+import opennlp.tools.tokenize.TokenizerModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark address and contact person finder with text fixtures.
+ * <p/>
+ * Models are loaded in setup, every thread uses own finders, adaptive data is cleared after every text.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FinderBenchmark {
+
+    @Param({"adeco.txt", "adoJob.txt", "bernerMattnerJob.txt", "dibag.txt", "ivu.txt", "mateco.txt",
+            "perlAmadeus.txt", "qufox.txt", "randstad.txt"})
+    public String fileName;
+
+    private String text;
+    private TokenizerModel tokenizerModel;
+    private AddressFinder addressFinder;
+    private ContactPersonFinder contactPersonFinder;
+
+    @Setup
+    public void setup() {
+        text = Fixtures.read("text/" + fileName);
+        tokenizerModel = ModelFactory.getTokenizerModel();
+        addressFinder = ModelFactory.getAddressFinder();
+        contactPersonFinder = ModelFactory.getContactPersonFinder();
+    }
+
+    @Benchmark
+    public List<AddressSpan> findAddress() {
+        List<AddressSpan> addressSpans = addressFinder.find(text, tokenizerModel);
+        addressFinder.clearAdaptiveData();
+        return addressSpans;
+    }
+
+    @Benchmark
+    public List<ContactPersonSpan> findContactPerson() {
+        List<ContactPersonSpan> contactPersonSpans = contactPersonFinder.find(text, tokenizerModel);
+        contactPersonFinder.clearAdaptiveData();
+        return contactPersonSpans;
+    }
+}
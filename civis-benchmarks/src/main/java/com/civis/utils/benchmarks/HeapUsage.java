@@ -0,0 +1,49 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Measure used heap after full garbage collection.
+ */
+public final class HeapUsage {
+
+    private static final int MAX_GC_COUNT = 10;
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private HeapUsage() {
+        // private constructor.
+    }
+
+    /**
+     * Run gc until used heap does not decrease any more and return used heap in bytes.
+     */
+    public static long usedAfterGc() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < MAX_GC_COUNT; i++) {
+            System.gc();
+            long currentUsed = MEMORY.getHeapMemoryUsage().getUsed();
+            if (currentUsed >= used) {
+                return currentUsed;
+            }
+            used = currentUsed;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.benchmarks;
+
+import com.civis.utils.opennlp.models.FindConfigData;
+import com.civis.utils.opennlp.models.HashedMaxentModel;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.ModelPath;
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinderMe;
+import opennlp.model.MaxentModel;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.tokenize.TokenizerModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark stock and hashed evaluator of the address and contact person model.
+ * <p/>
+ * Contexts are recorded in setup while both finders search all text fixtures, the eval benchmark evaluates all
+ * recorded contexts. The find benchmarks search all text fixtures with finders of the evaluator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MaxentEvalBenchmark {
+
+    private static final String[] FILE_NAMES = {"adeco.txt", "adoJob.txt", "bernerMattnerJob.txt", "dibag.txt",
+            "ivu.txt", "mateco.txt", "perlAmadeus.txt", "qufox.txt", "randstad.txt"};
+
+    @Param({"stock", "hashed"})
+    public String evaluator;
+
+    private List<String> texts;
+    private TokenizerModel tokenizerModel;
+    private MaxentModel addressModel;
+    private MaxentModel contactPersonModel;
+    private List<String[]> addressContexts;
+    private List<String[]> contactPersonContexts;
+    private AddressFinderMe addressFinder;
+    private ContactPersonFinderMe contactPersonFinder;
+
+    @Setup
+    public void setup() {
+        texts = new ArrayList<>();
+        for (String fileName : FILE_NAMES) {
+            texts.add(Fixtures.read("text/" + fileName));
+        }
+        tokenizerModel = ModelFactory.getTokenizerModel();
+        MaxentModel stockAddressModel = loadModel(ModelPath.DE_ADDRESS_BIN);
+        MaxentModel stockContactPersonModel = loadModel(ModelPath.DE_CONTACT_PERSON_BIN);
+        if ("hashed".equals(evaluator)) {
+            addressModel = ModelFactory.getHashedModel(ModelPath.DE_ADDRESS_BIN);
+            contactPersonModel = ModelFactory.getHashedModel(ModelPath.DE_CONTACT_PERSON_BIN);
+        } else {
+            addressModel = stockAddressModel;
+            contactPersonModel = stockContactPersonModel;
+        }
+
+        RecordingModel addressRecorder = new RecordingModel(stockAddressModel);
+        RecordingModel contactPersonRecorder = new RecordingModel(stockContactPersonModel);
+        AddressFinderMe recordingAddressFinder = new AddressFinderMe(addressRecorder, FindConfigData.defaultConfig());
+        ContactPersonFinderMe recordingContactPersonFinder =
+                new ContactPersonFinderMe(contactPersonRecorder, FindConfigData.defaultConfig());
+        for (String text : texts) {
+            recordingAddressFinder.find(text, tokenizerModel);
+            recordingAddressFinder.clearAdaptiveData();
+            recordingContactPersonFinder.find(text, tokenizerModel);
+            recordingContactPersonFinder.clearAdaptiveData();
+        }
+        addressContexts = addressRecorder.contexts;
+        contactPersonContexts = contactPersonRecorder.contexts;
+
+        addressFinder = new AddressFinderMe(addressModel, FindConfigData.defaultConfig());
+        contactPersonFinder = new ContactPersonFinderMe(contactPersonModel, FindConfigData.defaultConfig());
+    }
+
+    private static MaxentModel loadModel(String modelPath) {
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(modelPath)) {
+            return new TokenNameFinderModel(inputStream).getNameFinderModel();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public void evalAddress(Blackhole blackhole) {
+        for (String[] context : addressContexts) {
+            blackhole.consume(addressModel.eval(context));
+        }
+    }
+
+    @Benchmark
+    public void evalContactPerson(Blackhole blackhole) {
+        for (String[] context : contactPersonContexts) {
+            blackhole.consume(contactPersonModel.eval(context));
+        }
+    }
+
+    @Benchmark
+    public void findAddress(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(addressFinder.find(text, tokenizerModel));
+            addressFinder.clearAdaptiveData();
+        }
+    }
+
+    @Benchmark
+    public void findContactPerson(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(contactPersonFinder.find(text, tokenizerModel));
+            contactPersonFinder.clearAdaptiveData();
+        }
+    }
+
+    /**
+     * Model, which records every evaluated context.
+     */
+    private static final class RecordingModel implements MaxentModel {
+
+        private final MaxentModel model;
+        private final List<String[]> contexts = new ArrayList<>();
+
+        private RecordingModel(MaxentModel model) {
+            this.model = model;
+        }
+
+        @Override
+        public double[] eval(String[] context) {
+            contexts.add(context);
+            return model.eval(context);
+        }
+
+        @Override
+        public double[] eval(String[] context, double[] probs) {
+            contexts.add(context);
+            return model.eval(context, probs);
+        }
+
+        @Override
+        public double[] eval(String[] context, float[] values) {
+            contexts.add(context);
+            return model.eval(context, values);
+        }
+
+        @Override
+        public String getBestOutcome(double[] outcomes) {
+            return model.getBestOutcome(outcomes);
+        }
+
+        @Override
+        public String getAllOutcomes(double[] outcomes) {
+            return model.getAllOutcomes(outcomes);
+        }
+
+        @Override
+        public String getOutcome(int i) {
+            return model.getOutcome(i);
+        }
+
+        @Override
+        public int getIndex(String outcome) {
+            return model.getIndex(outcome);
+        }
+
+        @Override
+        public Object[] getDataStructures() {
+            return model.getDataStructures();
+        }
+
+        @Override
+        public int getNumOutcomes() {
+            return model.getNumOutcomes();
+        }
+    }
+}
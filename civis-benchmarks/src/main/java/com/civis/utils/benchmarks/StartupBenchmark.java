@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.benchmarks;
+
+import com.civis.utils.csv.address.CSVAddressData;
+import com.civis.utils.csv.address.CSVAddressReader;
+import com.civis.utils.csv.address.CountryReader;
+import com.civis.utils.csv.names.CSVNameData;
+import com.civis.utils.csv.names.CSVNamesReader;
+import com.civis.utils.csv.names.NameDictionary;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.address.AddressFinder;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinder;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single shot benchmarks of model construction and csv loads.
+ * <p/>
+ * Every fork is a fresh jvm, so models and gazetteers are loaded cold like on startup. Bytes allocated are reported
+ * by the gc profiler (gc.alloc.rate.norm). The <code>*RetainedHeap</code> benchmarks create two finders: the
+ * <code>startupBytes</code> counter is the heap retained by the first finder including models and gazetteers cached
+ * by ModelFactory, the <code>retainedBytes</code> counter is the heap retained by the second finder, which shares
+ * these caches. Their time includes two finders and full gc and should be ignored.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    private static final String TEXT = Fixtures.read("text/adoJob.txt");
+
+    @Benchmark
+    public AddressFinder addressFinder() {
+        return ModelFactory.getAddressFinder();
+    }
+
+    @Benchmark
+    public ContactPersonFinder contactPersonFinder() {
+        return ModelFactory.getContactPersonFinder();
+    }
+
+    @Benchmark
+    public List<AddressSpan> addressFinderFirstResult() {
+        return ModelFactory.getAddressFinder().find(TEXT);
+    }
+
+    @Benchmark
+    public List<ContactPersonSpan> contactPersonFinderFirstResult() {
+        return ModelFactory.getContactPersonFinder().find(TEXT);
+    }
+
+    @Benchmark
+    public Object[] addressFinderRetainedHeap(HeapCounters heapCounters) {
+        return heapCounters.retain(ModelFactory::getAddressFinder);
+    }
+
+    @Benchmark
+    public Object[] contactPersonFinderRetainedHeap(HeapCounters heapCounters) {
+        return heapCounters.retain(ModelFactory::getContactPersonFinder);
+    }
+
+    @Benchmark
+    public List<CSVAddressData> addressCsv() {
+        return CSVAddressReader.read();
+    }
+
+    @Benchmark
+    public Set<String> countryCsv() {
+        return CountryReader.read();
+    }
+
+    @Benchmark
+    public List<CSVNameData> namesCsv() {
+        return CSVNamesReader.read();
+    }
+
+    @Benchmark
+    public NameDictionary nameDictionary() {
+        return NameDictionary.read();
+    }
+
+    /**
+     * Heap retained by the first object of a supplier, which loads static caches, and by a second object.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+
+        public long startupBytes;
+        public long retainedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            startupBytes = 0;
+            retainedBytes = 0;
+        }
+
+        /**
+         * Returns both objects, so the first one is not collected while the second one is measured.
+         */
+        <T> Object[] retain(Supplier<T> supplier) {
+            long usedBefore = HeapUsage.usedAfterGc();
+            T first = supplier.get();
+            long usedAfterFirst = HeapUsage.usedAfterGc();
+            T second = supplier.get();
+            startupBytes += usedAfterFirst - usedBefore;
+            retainedBytes += HeapUsage.usedAfterGc() - usedAfterFirst;
+            return new Object[]{first, second};
+        }
+    }
+}
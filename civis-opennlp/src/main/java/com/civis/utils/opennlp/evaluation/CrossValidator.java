@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.evaluation;
+
+import com.civis.utils.opennlp.models.BaseModel;
+import com.civis.utils.opennlp.models.FindConfigData;
+import com.civis.utils.opennlp.models.TokenNameFinderAdapter;
+import com.civis.utils.opennlp.models.TrainConfigData;
+import com.civis.utils.opennlp.models.TrainConfigDataBuilder;
+import com.civis.utils.opennlp.models.TrainModel;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderEvaluator;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.TrainingParameters;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * K-fold cross validation of a model.
+ * <p/>
+ * Sample i belongs to test fold <code>i % k</code>, like opennlp <code>CrossValidationPartitioner</code>. Every fold
+ * model is trained with the other samples in one thread, folds are trained in parallel.
+ */
+public class CrossValidator {
+
+    private final ModelType modelType;
+    private final TrainingParameters trainingParameters;
+    private final FindConfigData findConfigData;
+    private final int folds;
+
+    /**
+     * @param modelType          model to train.
+     * @param trainingParameters parameters of every fold model, like cutoff, iterations and algorithm.
+     * @param findConfigData     config to find spans in test samples, like beam size.
+     * @param folds              count of folds, at least 2.
+     */
+    public CrossValidator(ModelType modelType, TrainingParameters trainingParameters, FindConfigData findConfigData,
+                          int folds) {
+        if (folds < 2) {
+            throw new IllegalArgumentException("folds must be at least 2 but is " + folds + "!");
+        }
+        this.modelType = modelType;
+        this.trainingParameters = trainingParameters;
+        this.findConfigData = findConfigData;
+        this.folds = folds;
+    }
+
+    /**
+     * Train and evaluate all folds in the given count of threads.
+     *
+     * @return result per fold in fold order.
+     */
+    public List<FoldResult> evaluate(List<NameSample> samples, int threads) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            return evaluate(samples, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Train and evaluate all folds in the given executor.
+     *
+     * @return result per fold in fold order.
+     */
+    public List<FoldResult> evaluate(List<NameSample> samples, ExecutorService executor) throws IOException {
+        List<Future<FoldResult>> futures = new ArrayList<>();
+        for (int fold = 0; fold < folds; fold++) {
+            int testFold = fold;
+            futures.add(executor.submit(() -> evaluateFold(samples, testFold)));
+        }
+
+        List<FoldResult> foldResults = new ArrayList<>();
+        try {
+            for (Future<FoldResult> future : futures) {
+                foldResults.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Cross validation was interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Cross validation failed!", e.getCause());
+        }
+        return foldResults;
+    }
+
+    /**
+     * Train a model with samples of all other folds and evaluate it with samples of the given fold.
+     */
+    public FoldResult evaluateFold(List<NameSample> samples, int testFold) throws IOException {
+        List<NameSample> trainSamples = new ArrayList<>();
+        List<NameSample> testSamples = new ArrayList<>();
+        split(samples, folds, testFold, trainSamples, testSamples);
+
+        long start = System.nanoTime();
+        TokenNameFinderModel model = train(modelType, trainingParameters, trainSamples);
+        long trainMillis = (System.nanoTime() - start) / 1000000;
+
+        BaseModel<?> finder = modelType.createFinder(model, findConfigData);
+        TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(new TokenNameFinderAdapter(finder));
+        evaluator.evaluate(new CollectionObjectStream<>(testSamples));
+        return new FoldResult(testFold, trainSamples.size(), testSamples.size(), evaluator.getFMeasure(),
+                trainMillis);
+    }
+
+    /**
+     * Split samples into train samples and test samples of the given fold.
+     */
+    static void split(List<NameSample> samples, int folds, int testFold, List<NameSample> trainSamples,
+                      List<NameSample> testSamples) {
+        for (int i = 0; i < samples.size(); i++) {
+            if (i % folds == testFold) {
+                testSamples.add(samples.get(i));
+            } else {
+                trainSamples.add(samples.get(i));
+            }
+        }
+    }
+
+    /**
+     * Train model in the current thread.
+     */
+    static TokenNameFinderModel train(ModelType modelType, TrainingParameters trainingParameters,
+                                      List<NameSample> trainSamples) throws IOException {
+        return createTrainModel(modelType, trainingParameters, trainSamples, null).train();
+    }
+
+    /**
+     * Create model to train, if event cache file exists, events are read from it instead of samples.
+     */
+    static TrainModel createTrainModel(ModelType modelType, TrainingParameters trainingParameters,
+                                       List<NameSample> trainSamples, Path eventCacheFile) {
+        TrainConfigData trainConfigData =
+                new TrainConfigDataBuilder().setLanguageCode("de").setType(modelType.getType())
+                        .setSamples(new CollectionObjectStream<>(trainSamples))
+                        .setTrainingParameters(trainingParameters).setEventCacheFile(eventCacheFile).build();
+        return modelType.createTrainModel(trainConfigData);
+    }
+}
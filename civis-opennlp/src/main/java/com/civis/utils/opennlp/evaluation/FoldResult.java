@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.evaluation;
+
+import opennlp.tools.util.eval.FMeasure;
+
+/**
+ * Evaluation result of one cross validation fold.
+ */
+public class FoldResult {
+
+    private final int fold;
+    private final int trainSampleCount;
+    private final int testSampleCount;
+    private final FMeasure fMeasure;
+    private final long trainMillis;
+
+    public FoldResult(int fold, int trainSampleCount, int testSampleCount, FMeasure fMeasure, long trainMillis) {
+        this.fold = fold;
+        this.trainSampleCount = trainSampleCount;
+        this.testSampleCount = testSampleCount;
+        this.fMeasure = fMeasure;
+        this.trainMillis = trainMillis;
+    }
+
+    public int getFold() {
+        return fold;
+    }
+
+    public int getTrainSampleCount() {
+        return trainSampleCount;
+    }
+
+    public int getTestSampleCount() {
+        return testSampleCount;
+    }
+
+    /**
+     * Returns span counts of the test samples, use <code>mergeInto</code> to sum folds.
+     */
+    public FMeasure getFMeasure() {
+        return fMeasure;
+    }
+
+    public double getPrecision() {
+        return fMeasure.getPrecisionScore();
+    }
+
+    public double getRecall() {
+        return fMeasure.getRecallScore();
+    }
+
+    public double getF1() {
+        return fMeasure.getFMeasure();
+    }
+
+    /**
+     * Returns training time of the fold model in milliseconds.
+     */
+    public long getTrainMillis() {
+        return trainMillis;
+    }
+}
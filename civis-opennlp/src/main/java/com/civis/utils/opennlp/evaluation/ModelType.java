@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.evaluation;
+
+import com.civis.utils.opennlp.models.BaseModel;
+import com.civis.utils.opennlp.models.FindConfigData;
+import com.civis.utils.opennlp.models.ModelPath;
+import com.civis.utils.opennlp.models.TrainConfigData;
+import com.civis.utils.opennlp.models.TrainModel;
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinderMe;
+import opennlp.model.MaxentModel;
+import opennlp.tools.namefind.TokenNameFinderModel;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Trainable models with their training data.
+ */
+public enum ModelType {
+
+    ADDRESS("address", "address-train.txt", ModelPath.DE_ADDRESS_BIN, AddressFinderMe::initializeTrainModel,
+            AddressFinderMe::new),
+
+    CONTACT_PERSON("contact-person", "contact-train.txt", ModelPath.DE_CONTACT_PERSON_BIN,
+            ContactPersonFinderMe::initializeTrainModel, ContactPersonFinderMe::new);
+
+    private final String type;
+    private final String trainFileName;
+    private final String modelPath;
+    private final Function<TrainConfigData, TrainModel> trainModelFactory;
+    private final BiFunction<MaxentModel, FindConfigData, BaseModel<?>> finderFactory;
+
+    ModelType(String type, String trainFileName, String modelPath,
+              Function<TrainConfigData, TrainModel> trainModelFactory,
+              BiFunction<MaxentModel, FindConfigData, BaseModel<?>> finderFactory) {
+        this.type = type;
+        this.trainFileName = trainFileName;
+        this.modelPath = modelPath;
+        this.trainModelFactory = trainModelFactory;
+        this.finderFactory = finderFactory;
+    }
+
+    /**
+     * Returns model type by name, like <code>address</code> or <code>contact-person</code>.
+     */
+    public static ModelType of(String type) {
+        for (ModelType modelType : values()) {
+            if (modelType.type.equals(type)) {
+                return modelType;
+            }
+        }
+        throw new IllegalArgumentException("Unknown model type " + type);
+    }
+
+    /**
+     * Returns model type, usually it's name of created model.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns name of train file in default 'train' folder.
+     */
+    public String getTrainFileName() {
+        return trainFileName;
+    }
+
+    /**
+     * Returns classpath of the trained model, see {@link ModelPath}.
+     */
+    public String getModelPath() {
+        return modelPath;
+    }
+
+    /**
+     * Create model to train.
+     */
+    public TrainModel createTrainModel(TrainConfigData trainConfigData) {
+        return trainModelFactory.apply(trainConfigData);
+    }
+
+    /**
+     * Create finder of a trained model.
+     */
+    public BaseModel<?> createFinder(TokenNameFinderModel model, FindConfigData findConfigData) {
+        return createFinder(model.getNameFinderModel(), findConfigData);
+    }
+
+    /**
+     * Create finder of a trained model, which is not loaded as TokenNameFinderModel.
+     */
+    public BaseModel<?> createFinder(MaxentModel nameFinderModel, FindConfigData findConfigData) {
+        return finderFactory.apply(nameFinderModel, findConfigData);
+    }
+}
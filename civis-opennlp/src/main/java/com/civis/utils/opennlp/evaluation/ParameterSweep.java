@@ -0,0 +1,263 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.evaluation;
+
+import com.civis.utils.opennlp.models.BaseModel;
+import com.civis.utils.opennlp.models.FindConfigDataBuilder;
+import com.civis.utils.opennlp.models.TokenNameFinderAdapter;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderEvaluator;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.eval.FMeasure;
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Grid search of training parameters and beam size.
+ * <p/>
+ * Every k-th sample is a test sample, the other samples are train samples. One model is trained per algorithm, cutoff
+ * and iterations, it is evaluated with every beam size. Models are trained and their F1 is evaluated in parallel,
+ * every thread keeps only the model it trains and writes it into a temporary file, so memory is bounded by the count
+ * of threads. When all models are trained, throughput is measured model by model in the calling thread, so no
+ * training runs on other threads during the measurement.
+ * <p/>
+ * Events of train samples are generated once into a temporary event cache file, all models are trained from it.
+ */
+public class ParameterSweep {
+
+    private static final int THROUGHPUT_PASSES = 3;
+
+    private final ModelType modelType;
+    private final List<String> algorithms;
+    private final List<Integer> cutoffs;
+    private final List<Integer> iterations;
+    private final List<Integer> beamSizes;
+    private final int testFolds;
+
+    /**
+     * @param modelType  model to train.
+     * @param algorithms MAXENT or PERCEPTRON.
+     * @param cutoffs    min. count of a feature.
+     * @param iterations training iterations.
+     * @param beamSizes  beam sizes to search test samples.
+     * @param testFolds  every k-th sample is a test sample.
+     */
+    public ParameterSweep(ModelType modelType, List<String> algorithms, List<Integer> cutoffs,
+                          List<Integer> iterations, List<Integer> beamSizes, int testFolds) {
+        this.modelType = modelType;
+        this.algorithms = algorithms;
+        this.cutoffs = cutoffs;
+        this.iterations = iterations;
+        this.beamSizes = beamSizes;
+        this.testFolds = testFolds;
+    }
+
+    /**
+     * Train and evaluate all combinations in the given count of threads.
+     *
+     * @return results ranked by F1, than by throughput.
+     */
+    public List<SweepResult> run(List<NameSample> samples, int threads) throws IOException {
+        List<NameSample> trainSamples = new ArrayList<>();
+        List<NameSample> testSamples = new ArrayList<>();
+        CrossValidator.split(samples, testFolds, 0, trainSamples, testSamples);
+
+        Path directory = Files.createTempDirectory("sweep-" + modelType.getType());
+        try {
+            Path eventCacheFile = directory.resolve("train.events");
+            CrossValidator.createTrainModel(modelType, TrainingParameters.defaultParams(), trainSamples, null)
+                    .writeEvents(eventCacheFile);
+            List<TrainedModel> trainedModels =
+                    trainAll(trainSamples, eventCacheFile, testSamples, directory, threads);
+            return measureAll(trainedModels, testSamples);
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    private List<TrainedModel> trainAll(List<NameSample> trainSamples, Path eventCacheFile,
+                                        List<NameSample> testSamples, Path directory, int threads)
+            throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<TrainedModel>> futures = new ArrayList<>();
+        for (String algorithm : algorithms) {
+            for (int cutoff : cutoffs) {
+                for (int iteration : iterations) {
+                    Path modelFile = directory.resolve("model-" + futures.size() + ".bin");
+                    futures.add(executor.submit(
+                            () -> trainAndEvaluate(algorithm, cutoff, iteration, trainSamples, eventCacheFile,
+                                    testSamples, modelFile)));
+                }
+            }
+        }
+
+        List<TrainedModel> trainedModels = new ArrayList<>();
+        try {
+            for (Future<TrainedModel> future : futures) {
+                trainedModels.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parameter sweep was interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Parameter sweep failed!", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return trainedModels;
+    }
+
+    /**
+     * Measure throughput of all trained models with every beam size, one model after the other.
+     */
+    private List<SweepResult> measureAll(List<TrainedModel> trainedModels, List<NameSample> testSamples)
+            throws IOException {
+        List<SweepResult> results = new ArrayList<>();
+        for (TrainedModel trainedModel : trainedModels) {
+            TokenNameFinderModel model;
+            try (InputStream input = Files.newInputStream(trainedModel.modelFile)) {
+                model = new TokenNameFinderModel(input);
+            }
+
+            for (int i = 0; i < beamSizes.size(); i++) {
+                TokenNameFinderAdapter nameFinder = createNameFinder(model, beamSizes.get(i));
+                double tokensPerSecond = measureThroughput(nameFinder, testSamples);
+                results.add(new SweepResult(trainedModel.algorithm, trainedModel.cutoff, trainedModel.iteration,
+                        beamSizes.get(i), trainedModel.fMeasures.get(i), trainedModel.trainMillis,
+                        tokensPerSecond));
+            }
+        }
+
+        markParetoOptimal(results);
+        results.sort(Comparator.comparingDouble(SweepResult::getF1).reversed()
+                .thenComparing(Comparator.comparingDouble(SweepResult::getTokensPerSecond).reversed()));
+        return results;
+    }
+
+    private TrainedModel trainAndEvaluate(String algorithm, int cutoff, int iteration, List<NameSample> trainSamples,
+                                          Path eventCacheFile, List<NameSample> testSamples, Path modelFile)
+            throws IOException {
+        TrainingParameters trainingParameters = TrainingParameters.defaultParams();
+        trainingParameters.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
+        trainingParameters.put(TrainingParameters.CUTOFF_PARAM, String.valueOf(cutoff));
+        trainingParameters.put(TrainingParameters.ITERATIONS_PARAM, String.valueOf(iteration));
+
+        long start = System.nanoTime();
+        TokenNameFinderModel model =
+                CrossValidator.createTrainModel(modelType, trainingParameters, trainSamples, eventCacheFile).train();
+        long trainMillis = (System.nanoTime() - start) / 1000000;
+
+        List<FMeasure> fMeasures = new ArrayList<>();
+        for (int beamSize : beamSizes) {
+            TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(createNameFinder(model, beamSize));
+            evaluator.evaluate(new CollectionObjectStream<>(testSamples));
+            fMeasures.add(evaluator.getFMeasure());
+        }
+
+        try (OutputStream output = Files.newOutputStream(modelFile)) {
+            model.serialize(output);
+        }
+        return new TrainedModel(algorithm, cutoff, iteration, trainMillis, fMeasures, modelFile);
+    }
+
+    private TokenNameFinderAdapter createNameFinder(TokenNameFinderModel model, int beamSize) {
+        BaseModel<?> finder = modelType.createFinder(model, new FindConfigDataBuilder().setBeamSize(beamSize).build());
+        return new TokenNameFinderAdapter(finder);
+    }
+
+    private double measureThroughput(TokenNameFinderAdapter nameFinder, List<NameSample> testSamples) {
+        // warm up
+        search(nameFinder, testSamples);
+        long tokenCount = 0;
+        long start = System.nanoTime();
+        for (int pass = 0; pass < THROUGHPUT_PASSES; pass++) {
+            tokenCount += search(nameFinder, testSamples);
+        }
+        return tokenCount / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private long search(TokenNameFinderAdapter nameFinder, List<NameSample> testSamples) {
+        long tokenCount = 0;
+        for (NameSample testSample : testSamples) {
+            nameFinder.find(testSample.getSentence());
+            tokenCount += testSample.getSentence().length;
+        }
+        nameFinder.clearAdaptiveData();
+        return tokenCount;
+    }
+
+    private void markParetoOptimal(List<SweepResult> results) {
+        for (SweepResult result : results) {
+            boolean dominated = false;
+            for (SweepResult other : results) {
+                if (dominates(other, result)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            result.setParetoOptimal(!dominated);
+        }
+    }
+
+    /**
+     * Returns true, if other is at least as accurate and as fast as result and better in one of them.
+     */
+    private boolean dominates(SweepResult other, SweepResult result) {
+        boolean notWorse =
+                other.getF1() >= result.getF1() && other.getTokensPerSecond() >= result.getTokensPerSecond();
+        boolean better = other.getF1() > result.getF1() || other.getTokensPerSecond() > result.getTokensPerSecond();
+        return notWorse && better;
+    }
+
+    /**
+     * Trained model of one combination with F1 per beam size, the model is kept in a file until its throughput is
+     * measured.
+     */
+    private static class TrainedModel {
+
+        private final String algorithm;
+        private final int cutoff;
+        private final int iteration;
+        private final long trainMillis;
+        private final List<FMeasure> fMeasures;
+        private final Path modelFile;
+
+        private TrainedModel(String algorithm, int cutoff, int iteration, long trainMillis, List<FMeasure> fMeasures,
+                             Path modelFile) {
+            this.algorithm = algorithm;
+            this.cutoff = cutoff;
+            this.iteration = iteration;
+            this.trainMillis = trainMillis;
+            this.fMeasures = fMeasures;
+            this.modelFile = modelFile;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.evaluation;
+
+import opennlp.tools.util.eval.FMeasure;
+
+/**
+ * Accuracy and inference throughput of one parameter combination.
+ */
+public class SweepResult {
+
+    private final String algorithm;
+    private final int cutoff;
+    private final int iterations;
+    private final int beamSize;
+    private final FMeasure fMeasure;
+    private final long trainMillis;
+    private final double tokensPerSecond;
+    private boolean paretoOptimal;
+
+    public SweepResult(String algorithm, int cutoff, int iterations, int beamSize, FMeasure fMeasure,
+                       long trainMillis, double tokensPerSecond) {
+        this.algorithm = algorithm;
+        this.cutoff = cutoff;
+        this.iterations = iterations;
+        this.beamSize = beamSize;
+        this.fMeasure = fMeasure;
+        this.trainMillis = trainMillis;
+        this.tokensPerSecond = tokensPerSecond;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getCutoff() {
+        return cutoff;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getBeamSize() {
+        return beamSize;
+    }
+
+    public FMeasure getFMeasure() {
+        return fMeasure;
+    }
+
+    /**
+     * Returns F1 of the test samples, 0 if nothing is found.
+     */
+    public double getF1() {
+        return Math.max(0, fMeasure.getFMeasure());
+    }
+
+    public long getTrainMillis() {
+        return trainMillis;
+    }
+
+    /**
+     * Returns count of test tokens searched per second by one thread.
+     */
+    public double getTokensPerSecond() {
+        return tokensPerSecond;
+    }
+
+    /**
+     * Returns true, if no other combination is more accurate and faster.
+     */
+    public boolean isParetoOptimal() {
+        return paretoOptimal;
+    }
+
+    void setParetoOptimal(boolean paretoOptimal) {
+        this.paretoOptimal = paretoOptimal;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.extraction;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy source of documents, only one document is held in memory.
+ * <p/>
+ * Source is a directory (every regular file is a document, *.html and *.htm files are html) or a newline delimited
+ * json file. Every json line is an object with field "id" and field "html" or "text".
+ */
+public abstract class DocumentSource implements Iterator<ExtractionDocument>, Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private ExtractionDocument next;
+
+    /**
+     * Open directory or newline delimited json file.
+     */
+    public static DocumentSource open(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            return new DirectorySource(path);
+        }
+        return new JsonLinesSource(path);
+    }
+
+    /**
+     * Returns next document or null, if no more documents.
+     */
+    protected abstract ExtractionDocument read() throws IOException;
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public ExtractionDocument next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ExtractionDocument document = next;
+        next = null;
+        return document;
+    }
+
+    private static final class DirectorySource extends DocumentSource {
+
+        private final DirectoryStream<Path> directoryStream;
+        private final Iterator<Path> paths;
+
+        private DirectorySource(Path directory) throws IOException {
+            this.directoryStream = Files.newDirectoryStream(directory, Files::isRegularFile);
+            this.paths = directoryStream.iterator();
+        }
+
+        @Override
+        protected ExtractionDocument read() {
+            if (!paths.hasNext()) {
+                return null;
+            }
+
+            Path path = paths.next();
+            String fileName = path.getFileName().toString();
+            try {
+                String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+                String lowerCaseFileName = fileName.toLowerCase();
+                boolean html = lowerCaseFileName.endsWith(".html") || lowerCaseFileName.endsWith(".htm");
+                return new ExtractionDocument(fileName, content, html);
+            } catch (IOException e) {
+                return ExtractionDocument.error(fileName, e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            directoryStream.close();
+        }
+    }
+
+    private static final class JsonLinesSource extends DocumentSource {
+
+        private final BufferedReader reader;
+        private int lineNumber;
+
+        private JsonLinesSource(Path path) throws IOException {
+            this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected ExtractionDocument read() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.trim().isEmpty());
+
+            if (line == null) {
+                return null;
+            }
+
+            String defaultId = "line-" + lineNumber;
+            try {
+                return parse(line, defaultId);
+            } catch (IOException e) {
+                return ExtractionDocument.error(defaultId, e.getMessage());
+            }
+        }
+
+        private ExtractionDocument parse(String line, String defaultId) throws IOException {
+            String id = defaultId;
+            String content = null;
+            boolean html = false;
+            try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return ExtractionDocument.error(defaultId, "Line is not a json object!");
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("id".equals(fieldName)) {
+                        id = parser.getValueAsString(defaultId);
+                    } else if ("html".equals(fieldName)) {
+                        content = parser.getValueAsString();
+                        html = true;
+                    } else if ("text".equals(fieldName)) {
+                        content = parser.getValueAsString();
+                        html = false;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+
+            if (content == null) {
+                return ExtractionDocument.error(id, "Field html or text is missing!");
+            }
+            return new ExtractionDocument(id, content, html);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
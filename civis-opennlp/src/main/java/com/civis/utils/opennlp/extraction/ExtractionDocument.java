@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.extraction;
+
+/**
+ * Document to extract addresses and contact persons from.
+ */
+public class ExtractionDocument {
+
+    private final String id;
+    private final String content;
+    private final boolean html;
+    private final String error;
+
+    public ExtractionDocument(String id, String content, boolean html) {
+        this(id, content, html, null);
+    }
+
+    private ExtractionDocument(String id, String content, boolean html, String error) {
+        this.id = id;
+        this.content = content;
+        this.html = html;
+        this.error = error;
+    }
+
+    /**
+     * Document, which could not be read.
+     */
+    public static ExtractionDocument error(String id, String error) {
+        return new ExtractionDocument(id, null, false, error);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Returns true, if content is html and has to be parsed to plain text.
+     */
+    public boolean isHtml() {
+        return html;
+    }
+
+    /**
+     * Returns read error or null.
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.extraction;
+
+import com.civis.utils.html.parser.HtmlParser;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.address.AddressFinder;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinder;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Extract addresses and contact persons of documents: html to text, address finder, contact person finder.
+ * <p/>
+ * Documents are read by the calling thread into a bounded queue and processed by N worker threads, every worker
+ * has own finders. Results are written immediately, so memory does not depend on count of documents.
+ * <p/>
+ * Finders are created before workers start, so a model which can not be loaded fails the run at once. If a worker
+ * fails or documents can not be read anymore, the run stops and fails too, so a partly processed input is never
+ * reported as a finished run.
+ * <p/>
+ * Every run has own statistics, which start after finders are created.
+ */
+public class ExtractionPipeline {
+
+    private final static Logger LOG = LoggerFactory.getLogger(ExtractionPipeline.class);
+
+    private static final ExtractionDocument END = new ExtractionDocument(null, null, false);
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final int workerCount;
+    private final Supplier<AddressFinder> addressFinderFactory;
+    private final Supplier<ContactPersonFinder> contactPersonFinderFactory;
+
+    public ExtractionPipeline(int workerCount) {
+        this(workerCount, ModelFactory::getAddressFinder, ModelFactory::getContactPersonFinder);
+    }
+
+    /**
+     * @param addressFinderFactory       creates address finder of one worker.
+     * @param contactPersonFinderFactory creates contact person finder of one worker.
+     */
+    public ExtractionPipeline(int workerCount, Supplier<AddressFinder> addressFinderFactory,
+                              Supplier<ContactPersonFinder> contactPersonFinderFactory) {
+        this.workerCount = workerCount;
+        this.addressFinderFactory = addressFinderFactory;
+        this.contactPersonFinderFactory = contactPersonFinderFactory;
+    }
+
+    /**
+     * Process all documents and write results, returns statistics of the run.
+     *
+     * @throws ExecutionException if a worker failed, cause is the failure of the worker.
+     * @throws RuntimeException   if documents can not be read, e.g. an {@link java.io.UncheckedIOException}.
+     */
+    public ExtractionStats run(Iterator<ExtractionDocument> documents, JsonLinesWriter writer)
+            throws InterruptedException, ExecutionException {
+        List<AddressFinder> addressFinders = new ArrayList<>();
+        List<ContactPersonFinder> contactPersonFinders = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            addressFinders.add(addressFinderFactory.get());
+            contactPersonFinders.add(contactPersonFinderFactory.get());
+        }
+
+        ExtractionStats stats = new ExtractionStats();
+        BlockingQueue<ExtractionDocument> queue = new ArrayBlockingQueue<>(workerCount * 4);
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                AddressFinder addressFinder = addressFinders.get(i);
+                ContactPersonFinder contactPersonFinder = contactPersonFinders.get(i);
+                workers.add(executor.submit(() -> {
+                    work(queue, addressFinder, contactPersonFinder, writer, stats);
+                    return null;
+                }));
+            }
+
+            while (hasNext(documents, stats)) {
+                put(queue, documents.next(), workers);
+            }
+            for (int i = 0; i < workerCount; i++) {
+                put(queue, END, workers);
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            LOG.error("Worker failed, extraction is stopped!", e.getCause());
+            throw e;
+        } finally {
+            // interrupts workers waiting for documents, if the run failed
+            executor.shutdownNow();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        stats.finish();
+        return stats;
+    }
+
+    /**
+     * Put document into the queue, while the queue is full, workers are checked for failures.
+     * <p/>
+     * A worker returns only after the end document, so a done worker before has failed and may be the last one
+     * taking documents.
+     */
+    private static void put(BlockingQueue<ExtractionDocument> queue, ExtractionDocument document,
+                            List<Future<?>> workers) throws InterruptedException, ExecutionException {
+        while (!queue.offer(document, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            for (Future<?> worker : workers) {
+                if (worker.isDone()) {
+                    worker.get();
+                }
+            }
+        }
+    }
+
+    private static boolean hasNext(Iterator<ExtractionDocument> documents, ExtractionStats stats) {
+        long start = System.nanoTime();
+        try {
+            return documents.hasNext();
+        } catch (RuntimeException e) {
+            LOG.error("Documents can not be read, extraction is stopped!", e);
+            stats.addError(ExtractionStats.STAGE_READ);
+            throw e;
+        } finally {
+            stats.addLatency(ExtractionStats.STAGE_READ, System.nanoTime() - start);
+        }
+    }
+
+    private static void work(BlockingQueue<ExtractionDocument> queue, AddressFinder addressFinder,
+                             ContactPersonFinder contactPersonFinder, JsonLinesWriter writer, ExtractionStats stats)
+            throws InterruptedException {
+        ExtractionDocument document;
+        while ((document = queue.take()) != END) {
+            long start = System.nanoTime();
+            process(document, addressFinder, contactPersonFinder, writer, stats);
+            stats.addLatency(ExtractionStats.STAGE_DOCUMENT, System.nanoTime() - start);
+            stats.addDocument();
+        }
+    }
+
+    private static void process(ExtractionDocument document, AddressFinder addressFinder,
+                                ContactPersonFinder contactPersonFinder, JsonLinesWriter writer,
+                                ExtractionStats stats) {
+        List<AddressSpan> addressSpans = Collections.emptyList();
+        List<ContactPersonSpan> contactPersonSpans = Collections.emptyList();
+        String error = document.getError();
+        if (error != null) {
+            stats.addError(ExtractionStats.STAGE_READ);
+        } else {
+            String text = null;
+            long start = System.nanoTime();
+            try {
+                text = document.isHtml() ? new HtmlParser(document.getContent()).toPlainText().getContent() :
+                        document.getContent();
+                stats.addLatency(ExtractionStats.STAGE_HTML, System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                error = stageError(ExtractionStats.STAGE_HTML, document, e, stats);
+            }
+
+            if (text != null) {
+                start = System.nanoTime();
+                try {
+                    addressSpans = addressFinder.find(text);
+                    stats.addLatency(ExtractionStats.STAGE_ADDRESS, System.nanoTime() - start);
+                } catch (RuntimeException e) {
+                    error = stageError(ExtractionStats.STAGE_ADDRESS, document, e, stats);
+                } finally {
+                    addressFinder.clearAdaptiveData();
+                }
+
+                start = System.nanoTime();
+                try {
+                    contactPersonSpans = contactPersonFinder.find(text);
+                    stats.addLatency(ExtractionStats.STAGE_CONTACT_PERSON, System.nanoTime() - start);
+                } catch (RuntimeException e) {
+                    error = stageError(ExtractionStats.STAGE_CONTACT_PERSON, document, e, stats);
+                } finally {
+                    contactPersonFinder.clearAdaptiveData();
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            writer.write(document.getId(), addressSpans, contactPersonSpans, error);
+            stats.addLatency(ExtractionStats.STAGE_WRITE, System.nanoTime() - start);
+        } catch (IOException e) {
+            stageError(ExtractionStats.STAGE_WRITE, document, e, stats);
+        }
+    }
+
+    private static String stageError(String stage, ExtractionDocument document, Exception e, ExtractionStats stats) {
+        LOG.error("Stage " + stage + " failed for document " + document.getId(), e);
+        stats.addError(stage);
+        return stage + ": " + e.getMessage();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.extraction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe statistics of an extraction run: documents, latency and errors per stage.
+ */
+public class ExtractionStats {
+
+    public static final String STAGE_READ = "read";
+    public static final String STAGE_HTML = "html";
+    public static final String STAGE_ADDRESS = "address";
+    public static final String STAGE_CONTACT_PERSON = "contactPerson";
+    public static final String STAGE_WRITE = "write";
+    public static final String STAGE_DOCUMENT = "document";
+
+    private final static Logger LOG = LoggerFactory.getLogger(ExtractionStats.class);
+
+    private static final List<String> STAGES =
+            Arrays.asList(STAGE_READ, STAGE_HTML, STAGE_ADDRESS, STAGE_CONTACT_PERSON, STAGE_WRITE, STAGE_DOCUMENT);
+
+    private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder documents = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    public void addLatency(String stage, long nanos) {
+        latencies.computeIfAbsent(stage, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    public void addError(String stage) {
+        errors.computeIfAbsent(stage, key -> new LongAdder()).increment();
+    }
+
+    public void addDocument() {
+        documents.increment();
+    }
+
+    public void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    public long getDocuments() {
+        return documents.sum();
+    }
+
+    public long getErrors(String stage) {
+        LongAdder stageErrors = errors.get(stage);
+        return stageErrors == null ? 0 : stageErrors.sum();
+    }
+
+    public LatencyHistogram getLatency(String stage) {
+        return latencies.getOrDefault(stage, new LatencyHistogram());
+    }
+
+    /**
+     * Returns processed documents per second.
+     */
+    public double getDocumentsPerSecond() {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        double seconds = (end - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : getDocuments() / seconds;
+    }
+
+    /**
+     * Log docs/sec, p50/p99 latency per stage and errors per stage.
+     */
+    public void log() {
+        LOG.info(String.format("Documents: %d, %.1f docs/sec", getDocuments(), getDocumentsPerSecond()));
+        for (String stage : STAGES) {
+            LatencyHistogram histogram = getLatency(stage);
+            LOG.info(String.format("Stage %-14s count %8d, p50 %10.3f ms, p99 %10.3f ms, errors %d", stage,
+                    histogram.getCount(), histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6,
+                    getErrors(stage)));
+        }
+    }
+}
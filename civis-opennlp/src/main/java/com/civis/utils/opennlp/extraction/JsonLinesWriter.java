@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.extraction;
+
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Write one json object per document and line. Thread safe, every result is written immediately.
+ */
+public class JsonLinesWriter implements Closeable {
+
+    private final JsonGenerator generator;
+
+    public JsonLinesWriter(Writer writer) throws IOException {
+        JsonFactory jsonFactory = new JsonFactory();
+        jsonFactory.setRootValueSeparator(null);
+        this.generator = jsonFactory.createGenerator(writer);
+    }
+
+    public synchronized void write(String id, List<AddressSpan> addressSpans,
+                                   List<ContactPersonSpan> contactPersonSpans, String error) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", id);
+        if (error != null) {
+            generator.writeStringField("error", error);
+        }
+
+        generator.writeArrayFieldStart("addresses");
+        for (AddressSpan addressSpan : addressSpans) {
+            generator.writeStartObject();
+            writeStringField("street", addressSpan.getStreet());
+            writeStringField("streetNumber", addressSpan.getStreetNumber());
+            writeStringField("zip", addressSpan.getZip());
+            writeStringField("city", addressSpan.getCity());
+            writeStringField("country", addressSpan.getCountry());
+            writeProbability(addressSpan.getProbability());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("contactPersons");
+        for (ContactPersonSpan contactPersonSpan : contactPersonSpans) {
+            generator.writeStartObject();
+            writeStringField("firstName", contactPersonSpan.getFirstName());
+            writeStringField("secondName", contactPersonSpan.getSecondName());
+            writeStringField("sex", contactPersonSpan.getSex());
+            writeProbability(contactPersonSpan.getProbability());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeStringField(String fieldName, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(fieldName, value);
+        }
+    }
+
+    private void writeProbability(Double probability) throws IOException {
+        if (probability != null) {
+            generator.writeNumberField("probability", probability);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        generator.close();
+    }
+}
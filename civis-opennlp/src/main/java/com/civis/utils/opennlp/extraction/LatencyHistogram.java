@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.extraction;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe histogram of latencies with constant memory.
+ * <p/>
+ * Bucket bounds grow by 5 percent, so a percentile is exact within 5 percent.
+ */
+public class LatencyHistogram {
+
+    private static final double BUCKET_GROWTH = 1.05;
+    private static final double LOG_BUCKET_GROWTH = Math.log(BUCKET_GROWTH);
+    // 1.05^660 nanos is about 1.1 days, longer latencies are counted in the last bucket.
+    private static final int BUCKET_COUNT = 660;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketIndex(nanos));
+    }
+
+    private int bucketIndex(long nanos) {
+        if (nanos <= 1) {
+            return 0;
+        }
+        int index = (int) (Math.log(nanos) / LOG_BUCKET_GROWTH);
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Returns count of recorded latencies.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns upper bound of the bucket containing the percentile in nanos.
+     *
+     * @param percentile 0 - 100, like 50 or 99.
+     */
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(percentile / 100 * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= Math.max(rank, 1)) {
+                return (long) Math.pow(BUCKET_GROWTH, i + 1);
+            }
+        }
+        return (long) Math.pow(BUCKET_GROWTH, BUCKET_COUNT);
+    }
+}
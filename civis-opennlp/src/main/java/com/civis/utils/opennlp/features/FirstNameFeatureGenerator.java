@@ -16,41 +16,58 @@
 
 package com.civis.utils.opennlp.features;
 
+import com.civis.utils.csv.names.NameDictionary;
 import opennlp.tools.util.featuregen.FeatureGeneratorAdapter;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
- * This generator check token value in set of names.
+ * This generator check token value in dictionary of names.
  * <p/>
- * If token value exists in the set of names than add feature.
+ * If token value exists in the dictionary of names and is not excluded than add feature.
+ * <p/>
+ * The dictionary of names is immutable and is never cleared, only the founded names and indexes are document data.
  */
 public class FirstNameFeatureGenerator extends FeatureGeneratorAdapter {
 
     public static final String FIRSTNAME_PREFIX = "fn";
 
-    private Set<String> names;
-    private Set<Integer> indexes;
-    private Set<String> foundedNames;
+    private static final ContactPersonFeatureGenerator CONTACT_PERSON_FEATURE = new ContactPersonFeatureGenerator();
+
+    private final NameDictionary names;
+    private final Set<String> excludeNames;
+    private final Set<Integer> indexes;
+    private final Set<String> foundedNames;
 
     public FirstNameFeatureGenerator(Set<String> names, Set<String> excludeNames) {
-        this.names = names;
-        this.names.removeAll(excludeNames);
-        init();
+        this(NameDictionary.of(names.stream().collect(Collectors.toMap(name -> name, name -> "N"))),
+                excludeNames);
     }
 
-    private void init() {
+    public FirstNameFeatureGenerator(NameDictionary names, Set<String> excludeNames) {
+        this.names = names;
+        this.excludeNames = Collections.unmodifiableSet(new HashSet<>(excludeNames));
         this.indexes = new HashSet<>();
         this.foundedNames = new HashSet<>();
     }
 
+    /**
+     * Create a new generator with empty document data, the immutable names are shared.
+     */
+    public FirstNameFeatureGenerator copy() {
+        return new FirstNameFeatureGenerator(names, excludeNames);
+    }
+
 
     @Override
     public void createFeatures(List<String> features, String[] tokens, int index, String[] previousOutcomes) {
         String token = tokens[index];
-        if (names.contains(token)) {
+        if (isName(token)) {
             if (checkContactPersonFeatures(features)) {
                 if(!foundedNames.contains(token)){
                     foundedNames.add(token);
@@ -61,6 +78,10 @@ public class FirstNameFeatureGenerator extends FeatureGeneratorAdapter {
         }
     }
 
+    private boolean isName(String token) {
+        return names.contains(token) && !excludeNames.contains(token);
+    }
+
     /**
      * List features should include two ContactPersonFeature with name and next name prefix (np=token and nnp=token).
      * It means, that this and next token should be matched with name pattern.
@@ -79,10 +100,13 @@ public class FirstNameFeatureGenerator extends FeatureGeneratorAdapter {
         return Boolean.FALSE;
     }
 
+    /**
+     * Clear document data (founded names and indexes), the set of names is kept.
+     */
     @Override
     public void clearAdaptiveData() {
-        names.clear();
         foundedNames.clear();
+        indexes.clear();
     }
 
     /**
@@ -92,8 +116,34 @@ public class FirstNameFeatureGenerator extends FeatureGeneratorAdapter {
         return indexes;
     }
 
+    /**
+     * Return token indexes of the first occurrence of every first name, which is followed by a name.
+     * <p/>
+     * Same indexes as <code>getIndexes</code> after features of all tokens are created, but without document data.
+     */
+    public Set<Integer> findIndexes(String[] tokens) {
+        Set<Integer> result = new HashSet<>();
+        Set<String> foundNames = new HashSet<>();
+        List<String> features = new ArrayList<>();
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (isName(token) && !foundNames.contains(token)) {
+                features.clear();
+                CONTACT_PERSON_FEATURE.createFeatures(features, tokens, i, null);
+                if (checkContactPersonFeatures(features)) {
+                    foundNames.add(token);
+                    result.add(i);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reset generator to process the next document.
+     */
     public void clear() {
         clearAdaptiveData();
-        indexes.clear();
     }
 }
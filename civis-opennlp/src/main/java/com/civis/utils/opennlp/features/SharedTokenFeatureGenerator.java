@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.features;
+
+import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import opennlp.tools.util.featuregen.FeatureGeneratorAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This generator computes the features of a token generator once per text and shares them between finders.
+ * <p/>
+ * Only generators, which features depend on the tokens only (not on previous outcomes), can be shared,
+ * like <code>FirstCapitalLetterFeature</code>.
+ * <p/>
+ * Call <code>prepare</code> with the tokens before the finders run. Features of prepared tokens are read only,
+ * so prepared features can be used by finders in different threads. Other tokens are delegated to the generator.
+ */
+public class SharedTokenFeatureGenerator extends FeatureGeneratorAdapter {
+
+    private final AdaptiveFeatureGenerator generator;
+    private volatile PreparedFeatures preparedFeatures;
+
+    public SharedTokenFeatureGenerator(AdaptiveFeatureGenerator generator) {
+        this.generator = generator;
+        this.preparedFeatures = new PreparedFeatures(null, Collections.emptyList());
+    }
+
+    /**
+     * Compute the features of all tokens.
+     */
+    public void prepare(String[] tokens) {
+        List<List<String>> featuresPerToken = new ArrayList<>(tokens.length);
+        String[] previousOutcomes = {};
+        for (int i = 0; i < tokens.length; i++) {
+            List<String> features = new ArrayList<>(1);
+            generator.createFeatures(features, tokens, i, previousOutcomes);
+            featuresPerToken.add(features);
+        }
+        preparedFeatures = new PreparedFeatures(tokens, featuresPerToken);
+    }
+
+    @Override
+    public void createFeatures(List<String> features, String[] tokens, int index, String[] previousOutcomes) {
+        PreparedFeatures prepared = preparedFeatures;
+        if (prepared.tokens == tokens) {
+            features.addAll(prepared.featuresPerToken.get(index));
+        } else {
+            generator.createFeatures(features, tokens, index, previousOutcomes);
+        }
+    }
+
+    /**
+     * Prepared features depend only on tokens, they are kept until the next <code>prepare</code> call.
+     */
+    @Override
+    public void clearAdaptiveData() {
+    }
+
+    private static final class PreparedFeatures {
+
+        private final String[] tokens;
+        private final List<List<String>> featuresPerToken;
+
+        private PreparedFeatures(String[] tokens, List<List<String>> featuresPerToken) {
+            this.tokens = tokens;
+            this.featuresPerToken = featuresPerToken;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.model.Context;
+import opennlp.model.IndexHashTable;
+import opennlp.model.MaxentModel;
+
+import java.util.Arrays;
+
+/**
+ * Base of maxent and perceptron models, which store parameters in arrays of primitives.
+ * <p/>
+ * Subclasses look predicates up and add their parameters, this class computes probabilities the same way as GISModel
+ * and PerceptronModel and handles outcome names.
+ */
+abstract class ArrayMaxentModel implements MaxentModel {
+
+    private final boolean perceptron;
+    private final String[] outcomeNames;
+    private final int numOutcomes;
+    private final double correctionConstant;
+    private final double correctionParam;
+    private final double constantInverse;
+    private final double logUniformPrior;
+
+    ArrayMaxentModel(boolean perceptron, String[] outcomeNames, double correctionConstant, double correctionParam) {
+        this.perceptron = perceptron;
+        this.outcomeNames = outcomeNames;
+        this.numOutcomes = outcomeNames.length;
+        this.correctionConstant = correctionConstant;
+        this.correctionParam = correctionParam;
+        this.constantInverse = 1.0 / correctionConstant;
+        this.logUniformPrior = Math.log(1.0 / numOutcomes);
+    }
+
+    /**
+     * Spread higher bits of the string hash code to the lower bits, which select the slot of the hash table.
+     */
+    static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns index of the predicate or -1 if the model does not know it.
+     */
+    abstract int indexOf(String predicate);
+
+    /**
+     * Add parameters of the predicate multiplied by value to outsums.
+     *
+     * @param numFeatures count of parameters per outcome, null if not needed.
+     */
+    abstract void addParams(int predicate, double value, double[] outsums, int[] numFeatures);
+
+    /**
+     * Returns all predicates in index order.
+     */
+    abstract String[] getPredicates();
+
+    /**
+     * Returns parameters of the predicate.
+     */
+    abstract Context getContext(int predicate);
+
+    @Override
+    public double[] eval(String[] context) {
+        return eval(context, null, new double[numOutcomes]);
+    }
+
+    @Override
+    public double[] eval(String[] context, double[] probs) {
+        return eval(context, null, probs);
+    }
+
+    @Override
+    public double[] eval(String[] context, float[] values) {
+        return eval(context, values, new double[numOutcomes]);
+    }
+
+    /**
+     * Predicates are looked up while they are evaluated, no index array is created.
+     */
+    private double[] eval(String[] context, float[] values, double[] outsums) {
+        int[] numFeatures = startEval(outsums);
+        for (int i = 0; i < context.length; i++) {
+            int predicate = indexOf(context[i]);
+            if (predicate >= 0) {
+                addParams(predicate, values == null ? 1 : values[i], outsums, numFeatures);
+            }
+        }
+        return normalize(outsums, numFeatures);
+    }
+
+    /**
+     * Set prior of all outcomes, returns array to count parameters per outcome or null if not needed.
+     */
+    int[] startEval(double[] outsums) {
+        Arrays.fill(outsums, perceptron ? 0 : logUniformPrior);
+        return correctionParam != 0 ? new int[numOutcomes] : null;
+    }
+
+    /**
+     * Turn summed parameters into probabilities, same computation as GISModel and PerceptronModel.
+     */
+    double[] normalize(double[] outsums, int[] numFeatures) {
+        return perceptron ? normalizePerceptron(outsums) : normalizeMaxent(outsums, numFeatures);
+    }
+
+    private double[] normalizeMaxent(double[] outsums, int[] numFeatures) {
+        double normal = 0.0;
+        for (int oid = 0; oid < numOutcomes; oid++) {
+            if (numFeatures != null) {
+                outsums[oid] = Math.exp(outsums[oid] * constantInverse
+                        + ((1.0 - (numFeatures[oid] / correctionConstant)) * correctionParam));
+            } else {
+                outsums[oid] = Math.exp(outsums[oid] * constantInverse);
+            }
+            normal += outsums[oid];
+        }
+
+        for (int oid = 0; oid < numOutcomes; oid++) {
+            outsums[oid] /= normal;
+        }
+        return outsums;
+    }
+
+    private double[] normalizePerceptron(double[] outsums) {
+        double maxPrior = 1;
+        for (int oid = 0; oid < numOutcomes; oid++) {
+            maxPrior = Math.max(maxPrior, Math.abs(outsums[oid]));
+        }
+
+        double normal = 0.0;
+        for (int oid = 0; oid < numOutcomes; oid++) {
+            outsums[oid] = Math.exp(outsums[oid] / maxPrior);
+            normal += outsums[oid];
+        }
+
+        for (int oid = 0; oid < numOutcomes; oid++) {
+            outsums[oid] /= normal;
+        }
+        return outsums;
+    }
+
+    @Override
+    public String getBestOutcome(double[] outcomes) {
+        int best = 0;
+        for (int i = 1; i < outcomes.length; i++) {
+            if (outcomes[i] > outcomes[best]) {
+                best = i;
+            }
+        }
+        return outcomeNames[best];
+    }
+
+    @Override
+    public String getAllOutcomes(double[] outcomes) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < outcomes.length; i++) {
+            if (i > 0) {
+                builder.append("  ");
+            }
+            builder.append(outcomeNames[i]).append(String.format("[%.4f]", outcomes[i]));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String getOutcome(int i) {
+        return outcomeNames[i];
+    }
+
+    @Override
+    public int getIndex(String outcome) {
+        for (int i = 0; i < numOutcomes; i++) {
+            if (outcomeNames[i].equals(outcome)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a copy of the parameters in the layout of AbstractModel: contexts, predicate index, outcome names,
+     * correction constant and correction parameter, see {@link ModelParameters}.
+     * <p/>
+     * The copy is built on every call, the model itself does not keep these objects.
+     */
+    @Override
+    public Object[] getDataStructures() {
+        String[] predicates = getPredicates();
+        Context[] contexts = new Context[predicates.length];
+        for (int predicate = 0; predicate < predicates.length; predicate++) {
+            contexts[predicate] = getContext(predicate);
+        }
+        return new Object[]{contexts, new IndexHashTable<>(predicates, 0.7), outcomeNames.clone(),
+                (int) correctionConstant, correctionParam};
+    }
+
+    @Override
+    public int getNumOutcomes() {
+        return numOutcomes;
+    }
+}
@@ -16,43 +16,86 @@
 
 package com.civis.utils.opennlp.models;
 
+import com.civis.utils.metrics.NoopMetricsRegistry;
+import com.civis.utils.metrics.Timer;
+import com.civis.utils.opennlp.utils.EventCache;
 import opennlp.model.AbstractModel;
+import opennlp.model.Event;
+import opennlp.model.EventStream;
 import opennlp.model.MaxentModel;
 import opennlp.model.TrainUtil;
 import opennlp.tools.namefind.DefaultNameContextGenerator;
 import opennlp.tools.namefind.NameFinderEventStream;
+import opennlp.tools.namefind.NameSample;
 import opennlp.tools.namefind.NameSampleSequenceStream;
 import opennlp.tools.namefind.TokenNameFinderModel;
-import opennlp.tools.util.BeamSearch;
+import opennlp.tools.sentdetect.SentenceDetectorME;
+import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.tools.tokenize.Tokenizer;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.FilterObjectStream;
+import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Base Model for all model finder classes.
  */
 public abstract class BaseModel<T> {
 
-    protected static final int DEFAULT_BEAM_SIZE = 3;
+    /**
+     * Training parameter of maxent trainer (GIS) to compute model parameters in parallel.
+     */
+    public static final String THREADS_PARAM = "Threads";
+
     protected TrainConfigData trainConfigData;
+    protected FindConfigData findConfigData;
     protected MaxentModel nameFinderModel;
-    protected Sequence bestSequence;
-    protected BeamSearch<String> beam;
+    protected BeamTagger tagger;
+    protected FinderMetrics metrics;
+    private ThreadLocal<BeamTagger> taggers;
+    private double[] outcomeProbs;
+    private boolean defaultFeatureGenerator;
 
 
     public BaseModel(MaxentModel nameFinderModel) {
-        this.nameFinderModel = nameFinderModel ;
+        this(nameFinderModel, FindConfigData.defaultConfig());
+    }
+
+    public BaseModel(MaxentModel nameFinderModel, FindConfigData findConfigData) {
+        this.nameFinderModel = nameFinderModel;
+        this.findConfigData = findConfigData;
+        this.metrics = new FinderMetrics(findConfigData.getMetricsRegistry(), getFinderName());
+        this.taggers = ThreadLocal.withInitial(this::createTagger);
     }
 
     public BaseModel(TrainConfigData trainConfigData) {
         this.trainConfigData = trainConfigData;
+        this.metrics = new FinderMetrics(NoopMetricsRegistry.INSTANCE, getFinderName());
         //exception if language null or empty.
         trainConfigData.ensureLanguageNotBlank();
         setFeaturesIfNull();
@@ -64,9 +107,22 @@ public abstract class BaseModel<T> {
      */
     public abstract AdaptiveFeatureGenerator createDefaultFeatureGenerator();
 
+    /**
+     * Create a new tagger with own context generator.
+     * <p/>
+     * Every thread, which searches sentences in parallel, uses its own tagger.
+     */
+    protected abstract BeamTagger createTagger();
+
+    /**
+     * Returns finder name, it is the prefix of all finder metrics.
+     */
+    protected abstract String getFinderName();
+
     private void setFeaturesIfNull() {
         if (trainConfigData.getFeatureGenerator() == null) {
             trainConfigData.setFeatureGenerator(createDefaultFeatureGenerator());
+            defaultFeatureGenerator = true;
         }
     }
 
@@ -86,30 +142,359 @@ public abstract class BaseModel<T> {
 
     protected TokenNameFinderModel train() throws IOException {
         HashMap<String, String> manifestInfoEntries = new HashMap<>();
-        TrainingParameters trainingParameters = trainConfigData.getTrainingParameters();
+        Map<String, String> settings = createTrainSettings();
         AbstractModel nameFinderModel;
-        if (!TrainUtil.isSequenceTraining(trainingParameters.getSettings())) {
-            NameFinderEventStream ss =
-                    new NameFinderEventStream(trainConfigData.getSamples(), trainConfigData.getType(),
-                            new DefaultNameContextGenerator(trainConfigData.getFeatureGenerator()));
-            nameFinderModel = TrainUtil.train(ss, trainingParameters.getSettings(), manifestInfoEntries);
+        if (!TrainUtil.isSequenceTraining(settings)) {
+            EventStream events = createEventStream();
+            try {
+                nameFinderModel = TrainUtil.train(events, settings, manifestInfoEntries);
+            } finally {
+                if (events instanceof Closeable) {
+                    ((Closeable) events).close();
+                }
+            }
         } else {
             NameSampleSequenceStream ss1 =
                     new NameSampleSequenceStream(trainConfigData.getSamples(), trainConfigData.getFeatureGenerator());
-            nameFinderModel = TrainUtil.train(ss1, trainingParameters.getSettings(), manifestInfoEntries);
+            nameFinderModel = TrainUtil.train(ss1, settings, manifestInfoEntries);
         }
 
         return new TokenNameFinderModel(trainConfigData.getLanguageCode(), nameFinderModel,
                 trainConfigData.getResources(), manifestInfoEntries);
     }
 
+    /**
+     * Returns copy of training parameters, threads are added if not set.
+     */
+    private Map<String, String> createTrainSettings() {
+        Map<String, String> settings = new HashMap<>(trainConfigData.getTrainingParameters().getSettings());
+        settings.putIfAbsent(THREADS_PARAM, String.valueOf(trainConfigData.getThreads()));
+        return settings;
+    }
+
+    /**
+     * Returns training events, from event cache file if it is set.
+     * <p/>
+     * If event cache file does not exist, events of samples are written into it first. If it exists, samples are read
+     * and hashed one by one to check the fingerprint of the file, but no features are generated.
+     *
+     * @throws IOException if event cache file contains events of other samples or features.
+     * @see FingerprintStream
+     */
+    private EventStream createEventStream() throws IOException {
+        Path eventCacheFile = trainConfigData.getEventCacheFile();
+        if (eventCacheFile == null) {
+            return generateEvents(trainConfigData.getSamples());
+        }
+
+        String fingerprint;
+        if (Files.exists(eventCacheFile)) {
+            FingerprintStream samples = new FingerprintStream(trainConfigData.getSamples());
+            while (samples.read() != null) {
+                // every read sample is added to the fingerprint
+            }
+            fingerprint = samples.getFingerprint();
+        } else {
+            fingerprint = writeEvents(trainConfigData.getSamples(), eventCacheFile);
+        }
+        return EventCache.read(eventCacheFile, trainConfigData.getType(), fingerprint);
+    }
+
+    /**
+     * Write training events of samples into the event cache file.
+     */
+    public void writeEvents(Path eventCacheFile) throws IOException {
+        writeEvents(trainConfigData.getSamples(), eventCacheFile);
+    }
+
+    /**
+     * Write events of samples into the file, returns fingerprint of the samples and features.
+     */
+    private String writeEvents(ObjectStream<NameSample> sampleStream, Path eventCacheFile) throws IOException {
+        FingerprintStream samples = new FingerprintStream(sampleStream);
+        EventStream events = generateEvents(samples);
+        try {
+            EventCache.write(events, trainConfigData.getType(), samples::getFingerprint, eventCacheFile);
+        } finally {
+            if (events instanceof Closeable) {
+                ((Closeable) events).close();
+            }
+        }
+        return samples.getFingerprint();
+    }
+
+    /**
+     * Returns version of default features, it is a part of the event cache fingerprint.
+     * <p/>
+     * Increment it whenever default features change, otherwise event cache files of old features are used.
+     */
+    protected abstract int getFeatureVersion();
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Update the trained model with samples, for example with new annotated samples.
+     * <p/>
+     * Model parameters are updated with events of the samples only, the trained samples are not needed. Training
+     * parameters iterations, cutoff, learning rate and prior weight control the update.
+     *
+     * @return new model, the given model is not changed.
+     * @see ModelUpdater
+     */
+    public TokenNameFinderModel update(TokenNameFinderModel model) throws IOException {
+        List<Event> events = new ArrayList<>();
+        EventStream eventStream = generateEvents(trainConfigData.getSamples());
+        while (eventStream.hasNext()) {
+            events.add(eventStream.next());
+        }
+
+        AbstractModel nameFinderModel = ModelUpdater.update(model.getNameFinderModel(), events,
+                trainConfigData.getTrainingParameters().getSettings());
+        return new TokenNameFinderModel(model.getLanguage(), nameFinderModel, trainConfigData.getResources(),
+                Collections.emptyMap());
+    }
+
+    /**
+     * Returns training events of samples.
+     * <p/>
+     * Events are collected in parallel, if more than one thread is configured and the model uses default features.
+     * Default features do not depend on previous samples, so every thread collects events of a chunk of samples with
+     * own feature generator. Samples are read in chunks while events are consumed, see
+     * {@link ChunkedSampleProcessor}. Events keep the sample order, the trained model is the same as with one thread.
+     */
+    private EventStream generateEvents(ObjectStream<NameSample> sampleStream) {
+        int threads = trainConfigData.getThreads();
+        if (threads < 2 || !defaultFeatureGenerator) {
+            return new NameFinderEventStream(sampleStream, trainConfigData.getType(),
+                    new DefaultNameContextGenerator(trainConfigData.getFeatureGenerator()));
+        }
+
+        return new ChunkEventStream(new ChunkedSampleProcessor<>(sampleStream, threads,
+                (chunk, first) -> collectEvents(chunk, createDefaultFeatureGenerator())));
+    }
+
+    /**
+     * Collect statistics of samples and their training events, without training a model.
+     * <p/>
+     * Statistics are collected in parallel chunks like training events, if more than one thread is configured and the
+     * model uses default features.
+     */
+    public TrainDataStats collectStats() throws IOException {
+        int threads = trainConfigData.getThreads();
+        if (threads < 2 || !defaultFeatureGenerator) {
+            return collectStats(trainConfigData.getSamples(), trainConfigData.getFeatureGenerator(), true);
+        }
+
+        TrainDataStats stats = new TrainDataStats();
+        try (ChunkedSampleProcessor<TrainDataStats> chunks = new ChunkedSampleProcessor<>(trainConfigData.getSamples(),
+                threads, (chunk, first) -> collectStats(new CollectionObjectStream<>(chunk),
+                createDefaultFeatureGenerator(), first))) {
+            while (chunks.hasNext()) {
+                stats.merge(chunks.next());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * @param first false for chunks after the first one, their first sample does not start a document.
+     */
+    private TrainDataStats collectStats(ObjectStream<NameSample> sampleStream,
+                                        AdaptiveFeatureGenerator featureGenerator, boolean first) throws IOException {
+        TrainDataStats stats = new TrainDataStats(!first);
+        // samples are counted when the event stream reads them
+        ObjectStream<NameSample> countingStream = new FilterObjectStream<NameSample, NameSample>(sampleStream) {
+            @Override
+            public NameSample read() throws IOException {
+                NameSample sample = samples.read();
+                if (sample != null) {
+                    stats.addSample(sample, trainConfigData.getType());
+                }
+                return sample;
+            }
+        };
+        EventStream eventStream = new NameFinderEventStream(countingStream, trainConfigData.getType(),
+                new DefaultNameContextGenerator(featureGenerator));
+        while (eventStream.hasNext()) {
+            stats.addEvent(eventStream.next());
+        }
+        return stats;
+    }
+
+    private List<Event> collectEvents(List<NameSample> samples, AdaptiveFeatureGenerator featureGenerator)
+            throws IOException {
+        EventStream eventStream = new NameFinderEventStream(new CollectionObjectStream<>(samples),
+                trainConfigData.getType(), new DefaultNameContextGenerator(featureGenerator));
+        List<Event> events = new ArrayList<>();
+        while (eventStream.hasNext()) {
+            events.add(eventStream.next());
+        }
+        return events;
+    }
+
     protected List<T> removeDuplicated(List<T> spans) {
         return spans.parallelStream().distinct().collect(Collectors.toList());
     }
 
+    //-------------------------------------------------------------------------------------------------------
+    //------------------------- Find Logic ------------------------------------------------------------------
+    //-------------------------------------------------------------------------------------------------------
+
+    /**
+     * Tokenize the text.
+     * <p/>
+     * If FindConfigData.sentenceModel is set, the text is split into sentences and every sentence is tokenized,
+     * otherwise the whole text is one sentence.
+     *
+     * @return tokens per sentence.
+     */
+    protected String[][] tokenize(String text, TokenizerModel tokenizerModel) {
+        Timer timer = metrics.getTokenize();
+        long start = timer.start();
+        String[][] sentenceTokens = tokenizeSentences(text, tokenizerModel);
+        timer.stop(start);
+        return sentenceTokens;
+    }
+
+    private String[][] tokenizeSentences(String text, TokenizerModel tokenizerModel) {
+        Tokenizer tokenizer = new TokenizerME(tokenizerModel);
+        SentenceModel sentenceModel = findConfigData.getSentenceModel();
+        if (sentenceModel == null) {
+            return new String[][]{tokenizer.tokenize(text)};
+        }
+
+        String[] sentences = new SentenceDetectorME(sentenceModel).sentDetect(text);
+        String[][] sentenceTokens = new String[sentences.length][];
+        for (int i = 0; i < sentences.length; i++) {
+            sentenceTokens[i] = tokenizer.tokenize(sentences[i]);
+        }
+        return sentenceTokens;
+    }
+
+    /**
+     * Join tokens of all sentences to tokens of the whole text.
+     */
+    protected String[] join(String[][] sentences) {
+        if (sentences.length == 1) {
+            return sentences[0];
+        }
+
+        List<String> tokens = new ArrayList<>();
+        for (String[] sentence : sentences) {
+            Collections.addAll(tokens, sentence);
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    /**
+     * Search every sentence and returns founded spans.
+     * <p/>
+     * Span offsets are token indexes of the whole text, see <code>join</code>.
+     */
+    protected Span[] findSpans(String[][] sentences) {
+        Timer timer = metrics.getBeamSearch();
+        long start = timer.start();
+        Sequence[] sequences = tagSentences(sentences);
+        timer.stop(start);
+        List<Span> spans = new ArrayList<>();
+        int tokenCount = 0;
+        for (String[] sentence : sentences) {
+            tokenCount += sentence.length;
+        }
+
+        double[] probs = new double[tokenCount];
+        int offset = 0;
+        for (int i = 0; i < sentences.length; i++) {
+            addSpans(sequences[i].getOutcomes(), offset, spans);
+            double[] sentenceProbs = sequences[i].getProbs();
+            System.arraycopy(sentenceProbs, 0, probs, offset, sentenceProbs.length);
+            offset += sentences[i].length;
+        }
+
+        this.outcomeProbs = probs;
+        return spans.toArray(new Span[spans.size()]);
+    }
+
+    /**
+     * Returns span type of the given outcome.
+     */
+    protected String getSpanType(String outcome) {
+        return outcome;
+    }
+
+    private void addSpans(List<String> c, int offset, List<Span> spans) {
+        int start = -1;
+        int end = -1;
+        for (int li = 0; li < c.size(); ++li) {
+            String chunkTag = c.get(li);
+            if (chunkTag.endsWith("start")) {
+                if (start != -1) {
+                    spans.add(new Span(offset + start, offset + end, getSpanType(c.get(li - 1))));
+                }
+
+                start = li;
+                end = li + 1;
+            } else if (chunkTag.endsWith("cont")) {
+                end = li + 1;
+            } else if (chunkTag.endsWith("other") && start != -1) {
+                spans.add(new Span(offset + start, offset + end, getSpanType(c.get(li - 1))));
+                start = -1;
+                end = -1;
+            }
+        }
+
+        if (start != -1) {
+            spans.add(new Span(offset + start, offset + end, getSpanType(c.get(c.size() - 1))));
+        }
+    }
+
+    private Sequence[] tagSentences(String[][] sentences) {
+        if (isParallel(sentences)) {
+            try {
+                return findConfigData.getPool().submit(() -> IntStream.range(0, sentences.length).parallel()
+                        .mapToObj(i -> tag(taggers.get(), sentences[i])).toArray(Sequence[]::new)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Sentence search was interrupted!", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Sentence search failed!", e.getCause());
+            }
+        }
+
+        Sequence[] sequences = new Sequence[sentences.length];
+        for (int i = 0; i < sentences.length; i++) {
+            sequences[i] = tag(tagger, sentences[i]);
+        }
+        return sequences;
+    }
+
+    private boolean isParallel(String[][] sentences) {
+        ForkJoinPool pool = findConfigData.getPool();
+        if (pool == null || sentences.length < 2) {
+            return false;
+        }
+
+        int tokenCount = 0;
+        for (String[] sentence : sentences) {
+            tokenCount += sentence.length;
+        }
+        return tokenCount >= findConfigData.getParallelThreshold();
+    }
+
+    /**
+     * Every sentence is searched independent of other sentences, so the result does not depend on the thread.
+     */
+    private Sequence tag(BeamTagger beamTagger, String[] sentence) {
+        beamTagger.clearAdaptiveData();
+        return beamTagger.tag(sentence);
+    }
+
     protected double[] probs(Span[] spans) {
         double[] sprobs = new double[spans.length];
-        double[] probs = this.bestSequence.getProbs();
+        double[] probs = this.outcomeProbs;
         for (int i = 0; i < spans.length; ++i) {
             double p = 0.0D;
 
@@ -127,4 +512,84 @@ public abstract class BaseModel<T> {
     protected double[] probs(List<Span> spans) {
         return probs(spans.toArray(new Span[spans.size()]));
     }
+
+    /**
+     * Samples, which are added to a fingerprint while they are read, an event cache file is only used with the same
+     * fingerprint.
+     * <p/>
+     * The fingerprint covers the finder class, the feature generator class, the feature version of default features
+     * and every sample with its document start. It does not cover configuration of a custom feature generator, only
+     * its class, nor resources used by features, like gazetteers, nor changed default features without a new
+     * {@link #getFeatureVersion() feature version}. Delete the event cache file after changing any of these.
+     */
+    private class FingerprintStream extends FilterObjectStream<NameSample, NameSample> {
+
+        private final MessageDigest digest;
+        private String fingerprint;
+
+        private FingerprintStream(ObjectStream<NameSample> samples) {
+            super(samples);
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not supported!", e);
+            }
+            update(digest, BaseModel.this.getClass().getName());
+            update(digest, trainConfigData.getFeatureGenerator().getClass().getName());
+            update(digest, defaultFeatureGenerator ? String.valueOf(getFeatureVersion()) : "custom");
+        }
+
+        @Override
+        public NameSample read() throws IOException {
+            NameSample sample = samples.read();
+            if (sample != null) {
+                update(digest, sample.isClearAdaptiveDataSet() + sample.toString());
+            }
+            return sample;
+        }
+
+        /**
+         * Returns fingerprint of all samples read so far, no sample must be read afterwards.
+         */
+        private String getFingerprint() {
+            if (fingerprint == null) {
+                fingerprint = String.format("%064x", new BigInteger(1, digest.digest()));
+            }
+            return fingerprint;
+        }
+    }
+
+    /**
+     * Events of chunks processed in parallel, in sample order.
+     */
+    private static class ChunkEventStream implements EventStream, Closeable {
+
+        private final ChunkedSampleProcessor<List<Event>> chunks;
+        private Iterator<Event> events = Collections.emptyIterator();
+
+        private ChunkEventStream(ChunkedSampleProcessor<List<Event>> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public Event next() throws IOException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more events!");
+            }
+            return events.next();
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            while (!events.hasNext() && chunks.hasNext()) {
+                events = chunks.next().iterator();
+            }
+            return events.hasNext();
+        }
+
+        @Override
+        public void close() {
+            chunks.close();
+        }
+    }
 }
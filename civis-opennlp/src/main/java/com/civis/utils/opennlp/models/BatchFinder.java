@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.tools.tokenize.Tokenizer;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Finder to process many documents in parallel.
+ * <p/>
+ * Finders are not thread safe, so every worker thread of the pool gets its own finder created by the given factory.
+ * Models and gazetteers are shared by all finders (see <code>ModelFactory</code>), the tokenizer model is loaded
+ * only once.
+ * <p/>
+ * Example:
+ * <pre>
+ * BatchFinder&lt;AddressSpan&gt; batchFinder = new BatchFinder&lt;&gt;(ModelFactory::getAddressFinder, pool);
+ * List&lt;List&lt;AddressSpan&gt;&gt; addresses = batchFinder.findAll(texts);
+ * </pre>
+ */
+public class BatchFinder<T> {
+
+    private final ForkJoinPool pool;
+    private final TokenizerModel tokenizerModel;
+    private final ThreadLocal<DefaultFinder<T>> finders;
+    private final ThreadLocal<Tokenizer> tokenizers;
+
+    /**
+     * Batch finder with common fork join pool and default tokenizer model.
+     *
+     * @param finderFactory factory to create a finder per thread.
+     */
+    public BatchFinder(Supplier<? extends DefaultFinder<T>> finderFactory) {
+        this(finderFactory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Batch finder with given fork join pool and default tokenizer model.
+     *
+     * @param finderFactory factory to create a finder per thread.
+     * @param pool          pool to run the documents, the parallelism of the pool is the count of used finders.
+     */
+    public BatchFinder(Supplier<? extends DefaultFinder<T>> finderFactory, ForkJoinPool pool) {
+        this(finderFactory, pool, ModelFactory.getTokenizerModel());
+    }
+
+    /**
+     * Batch finder with given fork join pool and tokenizer model.
+     *
+     * @param finderFactory  factory to create a finder per thread.
+     * @param pool           pool to run the documents, the parallelism of the pool is the count of used finders.
+     * @param tokenizerModel model to tokenize the given texts.
+     */
+    public BatchFinder(Supplier<? extends DefaultFinder<T>> finderFactory, ForkJoinPool pool,
+                       TokenizerModel tokenizerModel) {
+        this.pool = pool;
+        this.tokenizerModel = tokenizerModel;
+        this.finders = ThreadLocal.withInitial(finderFactory);
+        this.tokenizers = ThreadLocal.withInitial(() -> new TokenizerME(this.tokenizerModel));
+    }
+
+    /**
+     * Find all affected items in every text.
+     *
+     * @param texts plain texts.
+     *
+     * @return list of founded items per text, in order of given texts.
+     */
+    public List<List<T>> findAll(List<String> texts) {
+        return run(texts, text -> find(tokenizers.get().tokenize(text)));
+    }
+
+    /**
+     * Find all affected items in every tokenized text.
+     *
+     * @param tokensList tokenized texts.
+     *
+     * @return list of founded items per text, in order of given texts.
+     */
+    public List<List<T>> findAllTokens(List<String[]> tokensList) {
+        return run(tokensList, this::find);
+    }
+
+    private List<T> find(String[] tokens) {
+        DefaultFinder<T> finder = finders.get();
+        try {
+            return finder.find(tokens);
+        } finally {
+            finder.clearAdaptiveData();
+        }
+    }
+
+    private <D> List<List<T>> run(List<D> documents, Function<D, List<T>> findFunction) {
+        try {
+            return pool.submit(() -> documents.parallelStream().map(findFunction).collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch find was interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch find failed!", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.model.MaxentModel;
+import opennlp.tools.namefind.NameContextGenerator;
+import opennlp.tools.util.BeamSearch;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+import java.util.List;
+
+/**
+ * Beam search with own context generator to tag a sequence of tokens.
+ * <p/>
+ * Tagger is not thread safe, the model is shared and read only.
+ */
+public class BeamTagger {
+
+    private static final String[][] EMPTY = new String[0][0];
+
+    private final NameContextGenerator contextGenerator;
+    private final BeamSearch<String> beam;
+    private final BeamSearch<String> greedyBeam;
+    private final double minProbability;
+
+    /**
+     * Tagger with search mode, beam size and min. probability of the given config.
+     */
+    public BeamTagger(NameContextGenerator contextGenerator, MaxentModel model,
+                      SequenceValidator<String> sequenceValidator, FindConfigData findConfigData) {
+        this.contextGenerator = contextGenerator;
+        int beamSize = findConfigData.getSearchMode() == SearchMode.GREEDY ? 1 : findConfigData.getBeamSize();
+        this.beam = new BeamSearch<>(beamSize, contextGenerator, model, sequenceValidator, beamSize);
+        if (findConfigData.getSearchMode() == SearchMode.ADAPTIVE) {
+            this.greedyBeam = new BeamSearch<>(1, contextGenerator, model, sequenceValidator, beamSize);
+        } else {
+            this.greedyBeam = null;
+        }
+        this.minProbability = findConfigData.getMinProbability();
+    }
+
+    /**
+     * Find best sequence of outcomes and update adaptive data.
+     * <p/>
+     * In adaptive mode the tokens are searched greedy first, only low confidence sequence is searched with beam.
+     */
+    public Sequence tag(String[] tokens) {
+        Sequence bestSequence;
+        if (greedyBeam == null) {
+            bestSequence = beam.bestSequence(tokens, EMPTY);
+        } else {
+            bestSequence = greedyBeam.bestSequence(tokens, EMPTY);
+            if (isLowConfidence(bestSequence)) {
+                bestSequence = beam.bestSequence(tokens, EMPTY);
+            }
+        }
+
+        List<String> outcomes = bestSequence.getOutcomes();
+        contextGenerator.updateAdaptiveData(tokens, outcomes.toArray(new String[outcomes.size()]));
+        return bestSequence;
+    }
+
+    private boolean isLowConfidence(Sequence sequence) {
+        for (double probability : sequence.getProbs()) {
+            if (probability < minProbability) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clearAdaptiveData() {
+        contextGenerator.clearAdaptiveData();
+    }
+}
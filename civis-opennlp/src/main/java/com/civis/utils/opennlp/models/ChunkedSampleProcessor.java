@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.util.ObjectStream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Processes chunks of a sample stream in parallel, results are returned in sample order.
+ * <p/>
+ * Samples are read by the calling thread in chunks of fixed size. At most two chunks per thread are read ahead of
+ * the returned results, so memory depends on chunk size and threads and not on count of samples.
+ */
+final class ChunkedSampleProcessor<R> implements Closeable {
+
+    /**
+     * Count of samples per chunk.
+     */
+    static final int CHUNK_SIZE = 1000;
+
+    private final ObjectStream<NameSample> samples;
+    private final int chunkSize;
+    private final int maxPending;
+    private final ChunkProcessor<R> chunkProcessor;
+    private final ExecutorService executor;
+    private final Deque<Future<R>> pending = new ArrayDeque<>();
+    private boolean endOfSamples;
+    private boolean firstChunk = true;
+
+    ChunkedSampleProcessor(ObjectStream<NameSample> samples, int threads, ChunkProcessor<R> chunkProcessor) {
+        this(samples, threads, CHUNK_SIZE, chunkProcessor);
+    }
+
+    ChunkedSampleProcessor(ObjectStream<NameSample> samples, int threads, int chunkSize,
+                           ChunkProcessor<R> chunkProcessor) {
+        this.samples = samples;
+        this.chunkSize = chunkSize;
+        this.maxPending = threads * 2;
+        this.chunkProcessor = chunkProcessor;
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    public boolean hasNext() throws IOException {
+        readAhead();
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Returns result of the next chunk, waits until it is processed.
+     *
+     * @throws IOException if samples can not be read or processing of the chunk failed.
+     */
+    public R next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more chunks!");
+        }
+
+        try {
+            R result = pending.poll().get();
+            readAhead();
+            return result;
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new IOException("Sample processing was interrupted!", e);
+        } catch (ExecutionException e) {
+            close();
+            throw new IOException("Sample processing failed!", e.getCause());
+        }
+    }
+
+    private void readAhead() throws IOException {
+        while (!endOfSamples && pending.size() < maxPending) {
+            List<NameSample> chunk = readChunk();
+            if (chunk.isEmpty()) {
+                endOfSamples = true;
+                // running chunks are completed, threads end afterwards.
+                executor.shutdown();
+            } else {
+                boolean first = firstChunk;
+                firstChunk = false;
+                pending.add(executor.submit(() -> chunkProcessor.process(chunk, first)));
+            }
+        }
+    }
+
+    private List<NameSample> readChunk() throws IOException {
+        List<NameSample> chunk = new ArrayList<>(chunkSize);
+        try {
+            NameSample sample;
+            while (chunk.size() < chunkSize && (sample = samples.read()) != null) {
+                chunk.add(sample);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        return chunk;
+    }
+
+    /**
+     * Stops processing of pending chunks, the sample stream is not closed.
+     */
+    @Override
+    public void close() {
+        endOfSamples = true;
+        pending.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Process a chunk of samples.
+     */
+    @FunctionalInterface
+    interface ChunkProcessor<R> {
+
+        /**
+         * @param first true for the first chunk of the stream.
+         */
+        R process(List<NameSample> chunk, boolean first) throws IOException;
+    }
+}
@@ -18,6 +18,7 @@ package com.civis.utils.opennlp.models;
 
 import opennlp.tools.tokenize.TokenizerModel;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -54,4 +55,44 @@ public interface DefaultFinder<T> {
      * @return list of founded items.
      */
     List<T> find(String text);
+
+    /**
+     * Find all affected items in every text.
+     * <p/>
+     * Texts are processed one after another by this finder, adaptive data is cleared after each text.
+     * Use <code>BatchFinder</code> to process texts in parallel.
+     *
+     * @param texts plain texts.
+     *
+     * @return list of founded items per text, in order of given texts.
+     */
+    default List<List<T>> findAll(List<String> texts) {
+        List<List<T>> result = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            result.add(find(text));
+            clearAdaptiveData();
+        }
+        return result;
+    }
+
+    /**
+     * Find all affected items in every tokenized text.
+     *
+     * @param tokensList tokenized texts.
+     *
+     * @return list of founded items per text, in order of given texts.
+     */
+    default List<List<T>> findAllTokens(List<String[]> tokensList) {
+        List<List<T>> result = new ArrayList<>(tokensList.size());
+        for (String[] tokens : tokensList) {
+            result.add(find(tokens));
+            clearAdaptiveData();
+        }
+        return result;
+    }
+
+    /**
+     * Clear adaptive data, should be called after each document.
+     */
+    void clearAdaptiveData();
 }
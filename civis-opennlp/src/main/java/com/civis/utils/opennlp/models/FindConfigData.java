@@ -0,0 +1,204 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.metrics.MetricsRegistry;
+import com.civis.utils.metrics.NoopMetricsRegistry;
+import opennlp.tools.sentdetect.SentenceModel;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Model include all params for find methods.
+ */
+public class FindConfigData {
+
+    /**
+     * Default min. count of tokens to search sentences in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1000;
+
+    /**
+     * Default beam size.
+     */
+    public static final int DEFAULT_BEAM_SIZE = 3;
+
+    /**
+     * Default min. token probability of a sentence in adaptive search mode.
+     */
+    public static final double DEFAULT_MIN_PROBABILITY = 0.8;
+
+    /**
+     * Model to split the text into sentences, if null the whole text is searched at once.
+     */
+    private SentenceModel sentenceModel;
+
+    /**
+     * Pool to search sentences in parallel, if null sentences are searched in the current thread.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Min. count of tokens in a text to search sentences in parallel.
+     */
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * Count of sequences kept by beam search.
+     */
+    private int beamSize = DEFAULT_BEAM_SIZE;
+
+    /**
+     * Search strategy, default is beam search.
+     */
+    private SearchMode searchMode = SearchMode.BEAM;
+
+    /**
+     * Adaptive search mode only. If a token probability of the greedy searched sentence is lower, the sentence is
+     * searched again with beam size.
+     */
+    private double minProbability = DEFAULT_MIN_PROBABILITY;
+
+    /**
+     * Address finder only. If true, documents without zip or street suffix token are not searched.
+     */
+    private boolean prefilter = true;
+
+    /**
+     * Registry to record stage timers and span counters, default nothing is recorded.
+     */
+    private MetricsRegistry metricsRegistry = NoopMetricsRegistry.INSTANCE;
+
+    /**
+     * Returns default config, the whole text is searched at once.
+     */
+    public static FindConfigData defaultConfig() {
+        return new FindConfigData();
+    }
+
+    /**
+     * Returns Model to split the text into sentences, if null the whole text is searched at once.
+     */
+    public SentenceModel getSentenceModel() {
+        return sentenceModel;
+    }
+
+    /**
+     * Sets Model to split the text into sentences, if null the whole text is searched at once.
+     */
+    public void setSentenceModel(SentenceModel sentenceModel) {
+        this.sentenceModel = sentenceModel;
+    }
+
+    /**
+     * Returns Pool to search sentences in parallel, if null sentences are searched in the current thread.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Sets Pool to search sentences in parallel, if null sentences are searched in the current thread.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns Min. count of tokens in a text to search sentences in parallel.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets Min. count of tokens in a text to search sentences in parallel.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns Count of sequences kept by beam search.
+     */
+    public int getBeamSize() {
+        return beamSize;
+    }
+
+    /**
+     * Sets Count of sequences kept by beam search.
+     */
+    public void setBeamSize(int beamSize) {
+        this.beamSize = beamSize;
+    }
+
+    /**
+     * Returns Search strategy, default is beam search.
+     */
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    /**
+     * Sets Search strategy, default is beam search.
+     */
+    public void setSearchMode(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    /**
+     * Returns Min. token probability of a greedy searched sentence in adaptive search mode.
+     */
+    public double getMinProbability() {
+        return minProbability;
+    }
+
+    /**
+     * Sets Min. token probability of a greedy searched sentence in adaptive search mode.
+     */
+    public void setMinProbability(double minProbability) {
+        this.minProbability = minProbability;
+    }
+
+    /**
+     * Returns true, if address finder does not search documents without zip or street suffix token.
+     */
+    public boolean isPrefilter() {
+        return prefilter;
+    }
+
+    /**
+     * Sets true, if address finder does not search documents without zip or street suffix token.
+     */
+    public void setPrefilter(boolean prefilter) {
+        this.prefilter = prefilter;
+    }
+
+    /**
+     * Returns Registry to record stage timers and span counters, default nothing is recorded.
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Sets Registry to record stage timers and span counters, default nothing is recorded.
+     */
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.metrics.MetricsRegistry;
+import com.civis.utils.metrics.NoopMetricsRegistry;
+import opennlp.tools.sentdetect.SentenceModel;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Helper to build FindConfigData object.
+ */
+public class FindConfigDataBuilder {
+
+    private SentenceModel sentenceModel;
+
+    private ForkJoinPool pool;
+
+    private int parallelThreshold = FindConfigData.DEFAULT_PARALLEL_THRESHOLD;
+
+    private int beamSize = FindConfigData.DEFAULT_BEAM_SIZE;
+
+    private SearchMode searchMode = SearchMode.BEAM;
+
+    private double minProbability = FindConfigData.DEFAULT_MIN_PROBABILITY;
+
+    private boolean prefilter = true;
+
+    private MetricsRegistry metricsRegistry = NoopMetricsRegistry.INSTANCE;
+
+    /**
+     * Model to split the text into sentences, if null the whole text is searched at once.
+     */
+    public FindConfigDataBuilder setSentenceModel(SentenceModel sentenceModel) {
+        this.sentenceModel = sentenceModel;
+        return this;
+    }
+
+    /**
+     * Pool to search sentences in parallel, if null sentences are searched in the current thread.
+     */
+    public FindConfigDataBuilder setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Min. count of tokens in a text to search sentences in parallel.
+     */
+    public FindConfigDataBuilder setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
+    /**
+     * Count of sequences kept by beam search.
+     */
+    public FindConfigDataBuilder setBeamSize(int beamSize) {
+        this.beamSize = beamSize;
+        return this;
+    }
+
+    /**
+     * Search strategy, default is beam search.
+     */
+    public FindConfigDataBuilder setSearchMode(SearchMode searchMode) {
+        this.searchMode = searchMode;
+        return this;
+    }
+
+    /**
+     * Min. token probability of a greedy searched sentence in adaptive search mode.
+     */
+    public FindConfigDataBuilder setMinProbability(double minProbability) {
+        this.minProbability = minProbability;
+        return this;
+    }
+
+    /**
+     * Address finder only. If true, documents without zip or street suffix token are not searched.
+     */
+    public FindConfigDataBuilder setPrefilter(boolean prefilter) {
+        this.prefilter = prefilter;
+        return this;
+    }
+
+    /**
+     * Registry to record stage timers and span counters, default nothing is recorded.
+     */
+    public FindConfigDataBuilder setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        return this;
+    }
+
+    public FindConfigData build() {
+        FindConfigData findConfigData = new FindConfigData();
+        findConfigData.setSentenceModel(sentenceModel);
+        findConfigData.setPool(pool);
+        findConfigData.setParallelThreshold(parallelThreshold);
+        findConfigData.setBeamSize(beamSize);
+        findConfigData.setSearchMode(searchMode);
+        findConfigData.setMinProbability(minProbability);
+        findConfigData.setPrefilter(prefilter);
+        findConfigData.setMetricsRegistry(metricsRegistry);
+        return findConfigData;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.metrics.Counter;
+import com.civis.utils.metrics.HitRatio;
+import com.civis.utils.metrics.MetricsRegistry;
+import com.civis.utils.metrics.Timer;
+
+import java.util.List;
+
+/**
+ * Stage timers and span counters of a finder.
+ * <p/>
+ * Metric names are prefixed with the finder name, like <code>address.beamSearch</code> or
+ * <code>contactPerson.spans.PATTERN</code>.
+ */
+public class FinderMetrics {
+
+    public static final String TOKENIZE = ".tokenize";
+    public static final String BEAM_SEARCH = ".beamSearch";
+    public static final String SPAN_BUILDING = ".spanBuilding";
+    public static final String PATTERN_FALLBACK = ".patternFallback";
+    public static final String SPANS = ".spans.";
+    public static final String GAZETTEER = ".gazetteer.";
+
+    private final MetricsRegistry metricsRegistry;
+    private final String finderName;
+    private final Timer tokenize;
+    private final Timer beamSearch;
+    private final Timer spanBuilding;
+    private final Timer patternFallback;
+    private final Counter nlpSpans;
+    private final Counter patternSpans;
+
+    public FinderMetrics(MetricsRegistry metricsRegistry, String finderName) {
+        this.metricsRegistry = metricsRegistry;
+        this.finderName = finderName;
+        this.tokenize = metricsRegistry.timer(finderName + TOKENIZE);
+        this.beamSearch = metricsRegistry.timer(finderName + BEAM_SEARCH);
+        this.spanBuilding = metricsRegistry.timer(finderName + SPAN_BUILDING);
+        this.patternFallback = metricsRegistry.timer(finderName + PATTERN_FALLBACK);
+        this.nlpSpans = metricsRegistry.counter(finderName + SPANS + FindType.NLP);
+        this.patternSpans = metricsRegistry.counter(finderName + SPANS + FindType.PATTERN);
+    }
+
+    /**
+     * Returns lookup and hit counters of the gazetteer with the given name.
+     */
+    public HitRatio gazetteer(String gazetteerName) {
+        return new HitRatio(metricsRegistry, finderName + GAZETTEER + gazetteerName);
+    }
+
+    /**
+     * Returns false, if nothing is recorded.
+     */
+    public boolean isEnabled() {
+        return metricsRegistry.isEnabled();
+    }
+
+    public Timer getTokenize() {
+        return tokenize;
+    }
+
+    public Timer getBeamSearch() {
+        return beamSearch;
+    }
+
+    public Timer getSpanBuilding() {
+        return spanBuilding;
+    }
+
+    public Timer getPatternFallback() {
+        return patternFallback;
+    }
+
+    /**
+     * Count found spans by find type.
+     */
+    public void countSpans(List<? extends BaseSpan> spans) {
+        for (BaseSpan span : spans) {
+            if (span.getFindType() == FindType.PATTERN) {
+                patternSpans.increment();
+            } else {
+                nlpSpans.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.model.AbstractModel;
+import opennlp.model.Context;
+
+import java.util.Arrays;
+
+/**
+ * Maxent or perceptron model, which evaluates contexts with primitive arrays.
+ * <p/>
+ * Feature strings are hashed into an open addressing table of predicate indexes once per context, the string hash
+ * code is cached by the string itself. Parameters of all predicates are stored in compressed sparse rows: outcome
+ * indexes and values of predicate i are between row offsets i and i + 1. Nothing is boxed while a context is
+ * evaluated. Probabilities are the same as of the original model.
+ * <p/>
+ * {@link #getDataStructures()} builds a copy of the parameters on every call. Model is thread safe.
+ */
+public final class HashedMaxentModel extends ArrayMaxentModel {
+
+    private final int mask;
+    private final String[] slotKeys;
+    private final int[] slotHashes;
+    private final int[] slotPredicates;
+
+    private final int[] rowOffsets;
+    private final int[] paramOutcomes;
+    private final double[] params;
+
+    private HashedMaxentModel(ModelParameters parameters) {
+        super(parameters.isPerceptron(), parameters.getOutcomes().clone(), parameters.getCorrectionConstant(),
+                parameters.getCorrectionParam());
+        Context[] contexts = parameters.getContexts();
+        String[] predicates = parameters.getPredicates();
+
+        int capacity = Integer.highestOneBit(Math.max(1, predicates.length) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.slotKeys = new String[capacity];
+        this.slotHashes = new int[capacity];
+        this.slotPredicates = new int[capacity];
+        for (int p = 0; p < predicates.length; p++) {
+            int hash = predicates[p].hashCode();
+            int slot = spread(hash) & mask;
+            while (slotKeys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            slotKeys[slot] = predicates[p];
+            slotHashes[slot] = hash;
+            slotPredicates[slot] = p;
+        }
+
+        this.rowOffsets = new int[contexts.length + 1];
+        for (int p = 0; p < contexts.length; p++) {
+            rowOffsets[p + 1] = rowOffsets[p] + contexts[p].getOutcomes().length;
+        }
+        this.paramOutcomes = new int[rowOffsets[contexts.length]];
+        this.params = new double[rowOffsets[contexts.length]];
+        for (int p = 0; p < contexts.length; p++) {
+            int[] activeOutcomes = contexts[p].getOutcomes();
+            System.arraycopy(activeOutcomes, 0, paramOutcomes, rowOffsets[p], activeOutcomes.length);
+            System.arraycopy(contexts[p].getParameters(), 0, params, rowOffsets[p], activeOutcomes.length);
+        }
+    }
+
+    /**
+     * Returns hashed copy of maxent or perceptron model, the model itself is not needed anymore.
+     *
+     * @throws IllegalArgumentException if model is neither maxent nor perceptron model.
+     */
+    public static HashedMaxentModel of(AbstractModel model) {
+        return new HashedMaxentModel(ModelParameters.of(model));
+    }
+
+    /**
+     * Returns predicate indexes of the context, -1 for predicates unknown to the model.
+     */
+    public int[] index(String[] context) {
+        int[] predicates = new int[context.length];
+        for (int i = 0; i < context.length; i++) {
+            predicates[i] = indexOf(context[i]);
+        }
+        return predicates;
+    }
+
+    @Override
+    int indexOf(String predicate) {
+        int hash = predicate.hashCode();
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            String key = slotKeys[slot];
+            if (key == null) {
+                return -1;
+            }
+            if (slotHashes[slot] == hash && (key == predicate || key.equals(predicate))) {
+                return slotPredicates[slot];
+            }
+        }
+    }
+
+    /**
+     * Evaluate indexed context, same computation as GISModel and PerceptronModel.
+     *
+     * @param predicates predicate indexes of {@link #index(String[])}.
+     * @param values     feature values or null if all values are 1.
+     * @param outsums    array for probabilities of all outcomes.
+     */
+    public double[] eval(int[] predicates, float[] values, double[] outsums) {
+        int[] numFeatures = startEval(outsums);
+        for (int i = 0; i < predicates.length; i++) {
+            if (predicates[i] >= 0) {
+                addParams(predicates[i], values == null ? 1 : values[i], outsums, numFeatures);
+            }
+        }
+        return normalize(outsums, numFeatures);
+    }
+
+    @Override
+    void addParams(int predicate, double value, double[] outsums, int[] numFeatures) {
+        for (int p = rowOffsets[predicate], to = rowOffsets[predicate + 1]; p < to; p++) {
+            outsums[paramOutcomes[p]] += params[p] * value;
+            if (numFeatures != null) {
+                numFeatures[paramOutcomes[p]]++;
+            }
+        }
+    }
+
+    @Override
+    String[] getPredicates() {
+        String[] predicates = new String[rowOffsets.length - 1];
+        for (int slot = 0; slot < slotKeys.length; slot++) {
+            if (slotKeys[slot] != null) {
+                predicates[slotPredicates[slot]] = slotKeys[slot];
+            }
+        }
+        return predicates;
+    }
+
+    @Override
+    Context getContext(int predicate) {
+        int from = rowOffsets[predicate];
+        int to = rowOffsets[predicate + 1];
+        return new Context(Arrays.copyOfRange(paramOutcomes, from, to), Arrays.copyOfRange(params, from, to));
+    }
+}
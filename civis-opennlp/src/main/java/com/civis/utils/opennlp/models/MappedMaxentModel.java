@@ -0,0 +1,308 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.model.AbstractModel;
+import opennlp.model.Context;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Maxent or perceptron model, which evaluates contexts directly from a memory mapped file.
+ * <p/>
+ * The file contains an open addressing hash table of predicates, predicate chars and parameters in arrays of
+ * primitives, nothing is deserialised on open. The operating system loads pages on first access and shares them
+ * between processes, which map the same file. Probabilities are the same as of the written model.
+ * <p/>
+ * {@link #getDataStructures()} copies all parameters on every call. Model is thread safe, the file must not be changed
+ * while it is mapped. Files are limited to 2 GB.
+ */
+public final class MappedMaxentModel extends ArrayMaxentModel {
+
+    private static final int MAGIC = 0x434D4D58;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+
+    private final int numPredicates;
+    private final int capacity;
+
+    private final DoubleBuffer params;
+    private final IntBuffer hashes;
+    private final IntBuffer slots;
+    private final IntBuffer keyOffsets;
+    private final IntBuffer paramOffsets;
+    private final IntBuffer paramOutcomes;
+    private final CharBuffer keys;
+
+    private MappedMaxentModel(ByteBuffer buffer, Layout layout, String[] outcomeNames) {
+        super(buffer.getInt(8) == 1, outcomeNames, buffer.getDouble(32), buffer.getDouble(40));
+        this.numPredicates = layout.numPredicates;
+        this.capacity = layout.capacity;
+        this.params = slice(buffer, layout.paramsOffset, layout.numParams * 8).asDoubleBuffer();
+        this.hashes = slice(buffer, layout.hashesOffset, layout.numPredicates * 4).asIntBuffer();
+        this.slots = slice(buffer, layout.slotsOffset, layout.capacity * 4).asIntBuffer();
+        this.keyOffsets = slice(buffer, layout.keyOffsetsOffset, (layout.numPredicates + 1) * 4).asIntBuffer();
+        this.paramOffsets = slice(buffer, layout.paramOffsetsOffset, (layout.numPredicates + 1) * 4).asIntBuffer();
+        this.paramOutcomes = slice(buffer, layout.paramOutcomesOffset, layout.numParams * 4).asIntBuffer();
+        this.keys = slice(buffer, layout.keysOffset, keyOffsets.get(layout.numPredicates) * 2).asCharBuffer();
+    }
+
+    private static MappedMaxentModel of(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("File is not a mapped maxent model!");
+        }
+
+        Layout layout = new Layout(buffer.getInt(12), buffer.getInt(16), buffer.getInt(20), buffer.getInt(24));
+        // outcome names follow the predicate chars, the end of predicate chars is the last key offset.
+        long keyChars = buffer.getInt((int) layout.keyOffsetsOffset + layout.numPredicates * 4);
+        ByteBuffer outcomes = slice(buffer, layout.keysOffset + keyChars * 2L, buffer.capacity()
+                - (int) (layout.keysOffset + keyChars * 2L));
+        String[] outcomeNames = new String[layout.numOutcomes];
+        for (int i = 0; i < outcomeNames.length; i++) {
+            char[] chars = new char[outcomes.getInt()];
+            outcomes.asCharBuffer().get(chars);
+            outcomes.position(outcomes.position() + chars.length * 2);
+            outcomeNames[i] = new String(chars);
+        }
+        return new MappedMaxentModel(buffer, layout, outcomeNames);
+    }
+
+    /**
+     * Map the model file.
+     *
+     * @throws IOException if file is not a mapped model.
+     */
+    public static MappedMaxentModel open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // mapping stays valid after the channel is closed.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return of(buffer);
+        }
+    }
+
+    /**
+     * Write maxent or perceptron model into the file, which can be mapped by {@link #open(Path)}.
+     *
+     * @throws IllegalArgumentException if model is neither maxent nor perceptron model.
+     */
+    public static void write(AbstractModel model, Path file) throws IOException {
+        ModelParameters parameters = ModelParameters.of(model);
+        Context[] contexts = parameters.getContexts();
+        String[] predicates = parameters.getPredicates();
+        String[] outcomes = parameters.getOutcomes();
+        int numParams = parameters.getNumParams();
+        int capacity = Integer.highestOneBit(Math.max(1, predicates.length) * 2 - 1) << 1;
+        Layout layout = new Layout(outcomes.length, predicates.length, numParams, capacity);
+
+        int[] slots = new int[capacity];
+        for (int p = 0; p < predicates.length; p++) {
+            int slot = spread(predicates[p].hashCode()) & (capacity - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slots[slot] = p + 1;
+        }
+
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream output =
+                         new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(parameters.isPerceptron() ? 1 : 0);
+                output.writeInt(outcomes.length);
+                output.writeInt(predicates.length);
+                output.writeInt(numParams);
+                output.writeInt(capacity);
+                output.writeInt(0);
+                output.writeDouble(parameters.getCorrectionConstant());
+                output.writeDouble(parameters.getCorrectionParam());
+
+                pad(output, layout.paramsOffset);
+                for (Context context : contexts) {
+                    for (double param : context.getParameters()) {
+                        output.writeDouble(param);
+                    }
+                }
+                pad(output, layout.hashesOffset);
+                for (String predicate : predicates) {
+                    output.writeInt(predicate.hashCode());
+                }
+                pad(output, layout.slotsOffset);
+                for (int slot : slots) {
+                    output.writeInt(slot);
+                }
+                pad(output, layout.keyOffsetsOffset);
+                int keyOffset = 0;
+                output.writeInt(keyOffset);
+                for (String predicate : predicates) {
+                    keyOffset += predicate.length();
+                    output.writeInt(keyOffset);
+                }
+                pad(output, layout.paramOffsetsOffset);
+                int paramOffset = 0;
+                output.writeInt(paramOffset);
+                for (Context context : contexts) {
+                    paramOffset += context.getOutcomes().length;
+                    output.writeInt(paramOffset);
+                }
+                pad(output, layout.paramOutcomesOffset);
+                for (Context context : contexts) {
+                    for (int outcome : context.getOutcomes()) {
+                        output.writeInt(outcome);
+                    }
+                }
+                pad(output, layout.keysOffset);
+                for (String predicate : predicates) {
+                    output.writeChars(predicate);
+                }
+                for (String outcome : outcomes) {
+                    output.writeInt(outcome.length());
+                    output.writeChars(outcome);
+                }
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    private static void pad(DataOutputStream output, long offset) throws IOException {
+        while (output.size() < offset) {
+            output.writeByte(0);
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, long offset, long length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position((int) offset);
+        duplicate.limit((int) (offset + length));
+        return duplicate.slice();
+    }
+
+    @Override
+    int indexOf(String predicate) {
+        int hash = predicate.hashCode();
+        int mask = capacity - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int index = slots.get(slot) - 1;
+            if (index < 0) {
+                return -1;
+            }
+            if (hashes.get(index) == hash && keyEquals(index, predicate)) {
+                return index;
+            }
+        }
+    }
+
+    private boolean keyEquals(int index, String predicate) {
+        int from = keyOffsets.get(index);
+        if (keyOffsets.get(index + 1) - from != predicate.length()) {
+            return false;
+        }
+        for (int i = 0; i < predicate.length(); i++) {
+            if (keys.get(from + i) != predicate.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    void addParams(int predicate, double value, double[] outsums, int[] numFeatures) {
+        for (int p = paramOffsets.get(predicate), to = paramOffsets.get(predicate + 1); p < to; p++) {
+            int outcome = paramOutcomes.get(p);
+            outsums[outcome] += params.get(p) * value;
+            if (numFeatures != null) {
+                numFeatures[outcome]++;
+            }
+        }
+    }
+
+    @Override
+    String[] getPredicates() {
+        String[] predicates = new String[numPredicates];
+        for (int predicate = 0; predicate < numPredicates; predicate++) {
+            char[] chars = new char[keyOffsets.get(predicate + 1) - keyOffsets.get(predicate)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = keys.get(keyOffsets.get(predicate) + i);
+            }
+            predicates[predicate] = new String(chars);
+        }
+        return predicates;
+    }
+
+    @Override
+    Context getContext(int predicate) {
+        int from = paramOffsets.get(predicate);
+        int[] outcomes = new int[paramOffsets.get(predicate + 1) - from];
+        double[] parameters = new double[outcomes.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = paramOutcomes.get(from + i);
+            parameters[i] = params.get(from + i);
+        }
+        return new Context(outcomes, parameters);
+    }
+
+    /**
+     * Offsets of the arrays in the file, every array starts at a multiple of 8.
+     */
+    private static final class Layout {
+
+        private final int numOutcomes;
+        private final int numPredicates;
+        private final int numParams;
+        private final int capacity;
+        private final long paramsOffset;
+        private final long hashesOffset;
+        private final long slotsOffset;
+        private final long keyOffsetsOffset;
+        private final long paramOffsetsOffset;
+        private final long paramOutcomesOffset;
+        private final long keysOffset;
+
+        private Layout(int numOutcomes, int numPredicates, int numParams, int capacity) {
+            this.numOutcomes = numOutcomes;
+            this.numPredicates = numPredicates;
+            this.numParams = numParams;
+            this.capacity = capacity;
+            this.paramsOffset = HEADER_SIZE;
+            this.hashesOffset = align(paramsOffset + numParams * 8L);
+            this.slotsOffset = align(hashesOffset + numPredicates * 4L);
+            this.keyOffsetsOffset = align(slotsOffset + capacity * 4L);
+            this.paramOffsetsOffset = align(keyOffsetsOffset + (numPredicates + 1) * 4L);
+            this.paramOutcomesOffset = align(paramOffsetsOffset + (numPredicates + 1) * 4L);
+            this.keysOffset = align(paramOutcomesOffset + numParams * 4L);
+        }
+
+        private static long align(long offset) {
+            return (offset + 7) & ~7L;
+        }
+    }
+}
@@ -18,20 +18,33 @@ package com.civis.utils.opennlp.models;
 
 import com.civis.utils.opennlp.models.address.AddressFinder;
 import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.models.combined.CombinedFinder;
+import com.civis.utils.opennlp.models.combined.CombinedFinderMe;
 import com.civis.utils.opennlp.models.contactperson.ContactPersonFinder;
 import com.civis.utils.opennlp.models.contactperson.ContactPersonFinderMe;
 import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.tools.tokenize.TokenizerModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Facade to access NLP-Api.
+ * <p/>
+ * Models are loaded once and shared by all finders, the models are read only.
  */
 public final class ModelFactory {
 
     private final static Logger LOG = LoggerFactory.getLogger(ModelFactory.class);
+    private final static Map<String, Object> MODELS = new ConcurrentHashMap<>();
+    private final static String HASHED_MODEL_PREFIX = "hashed:";
 
     private ModelFactory() {
         // private constructor.
@@ -43,26 +56,142 @@ public final class ModelFactory {
      * @return ContactPersonFinder object or null if model could not be loaded!
      */
     public static ContactPersonFinder getContactPersonFinder() {
-        try (InputStream tokenNameFinderModelInputStream = Thread.currentThread().getContextClassLoader()
-                .getResourceAsStream(ModelPath.DE_CONTACT_PERSON_BIN)) {
-            TokenNameFinderModel tokenNameFinderModel = new TokenNameFinderModel(tokenNameFinderModelInputStream);
-            return new ContactPersonFinderMe(tokenNameFinderModel);
-        } catch (Exception e) {
-            LOG.error("Models can not be loaded successfully!", e);
-        }
+        TokenNameFinderModel tokenNameFinderModel = getModel(ModelPath.DE_CONTACT_PERSON_BIN, TokenNameFinderModel::new);
+        return new ContactPersonFinderMe(tokenNameFinderModel);
+    }
 
-        throw new ModelLoadException(ModelPath.DE_CONTACT_PERSON_BIN);
+    /**
+     * Init and returns model to find contact persons.
+     *
+     * @param findConfigData sentence model and pool to search sentences in parallel.
+     */
+    public static ContactPersonFinder getContactPersonFinder(FindConfigData findConfigData) {
+        TokenNameFinderModel tokenNameFinderModel = getModel(ModelPath.DE_CONTACT_PERSON_BIN, TokenNameFinderModel::new);
+        return new ContactPersonFinderMe(tokenNameFinderModel, findConfigData);
+    }
+
+    /**
+     * Init and returns model to find contact persons with a memory mapped model.
+     *
+     * @param mappedModelFile file written by <code>MappedMaxentModel.write</code>.
+     * @param findConfigData  sentence model and pool to search sentences in parallel.
+     */
+    public static ContactPersonFinder getContactPersonFinder(Path mappedModelFile, FindConfigData findConfigData) {
+        return new ContactPersonFinderMe(getMappedModel(mappedModelFile), findConfigData);
     }
 
     public static AddressFinder getAddressFinder() {
-        try (InputStream tokenNameFinderModelInputStream = Thread.currentThread().getContextClassLoader()
-                .getResourceAsStream(ModelPath.DE_ADDRESS_BIN)) {
-            TokenNameFinderModel tokenNameFinderModel = new TokenNameFinderModel(tokenNameFinderModelInputStream);
-            return new AddressFinderMe(tokenNameFinderModel);
+        TokenNameFinderModel tokenNameFinderModel = getModel(ModelPath.DE_ADDRESS_BIN, TokenNameFinderModel::new);
+        return new AddressFinderMe(tokenNameFinderModel);
+    }
+
+    /**
+     * Init and returns model to find addresses.
+     *
+     * @param findConfigData sentence model and pool to search sentences in parallel.
+     */
+    public static AddressFinder getAddressFinder(FindConfigData findConfigData) {
+        TokenNameFinderModel tokenNameFinderModel = getModel(ModelPath.DE_ADDRESS_BIN, TokenNameFinderModel::new);
+        return new AddressFinderMe(tokenNameFinderModel, findConfigData);
+    }
+
+    /**
+     * Init and returns model to find addresses with a memory mapped model.
+     *
+     * @param mappedModelFile file written by <code>MappedMaxentModel.write</code>.
+     * @param findConfigData  sentence model and pool to search sentences in parallel.
+     */
+    public static AddressFinder getAddressFinder(Path mappedModelFile, FindConfigData findConfigData) {
+        return new AddressFinderMe(getMappedModel(mappedModelFile), findConfigData);
+    }
+
+    /**
+     * Init and returns finder to find addresses and contact persons in one pass.
+     */
+    public static CombinedFinder getCombinedFinder() {
+        return getCombinedFinder(null);
+    }
+
+    /**
+     * Init and returns finder to find addresses and contact persons in one pass.
+     *
+     * @param pool pool to run address and contact person model in parallel, null to run in the current thread.
+     */
+    public static CombinedFinder getCombinedFinder(ForkJoinPool pool) {
+        TokenNameFinderModel addressModel = getModel(ModelPath.DE_ADDRESS_BIN, TokenNameFinderModel::new);
+        TokenNameFinderModel contactPersonModel =
+                getModel(ModelPath.DE_CONTACT_PERSON_BIN, TokenNameFinderModel::new);
+        return new CombinedFinderMe(addressModel, contactPersonModel, pool);
+    }
+
+    /**
+     * Returns default tokenizer model <code>ModelPath.DE_TOKEN_BIN</code>.
+     * <p/>
+     * Model is loaded only once, every call returns the same instance.
+     */
+    public static TokenizerModel getTokenizerModel() {
+        return getModel(ModelPath.DE_TOKEN_BIN, TokenizerModel::new);
+    }
+
+    /**
+     * Returns default sentence model <code>ModelPath.DE_SENT_BIN</code>.
+     * <p/>
+     * Model is loaded only once, every call returns the same instance.
+     */
+    public static SentenceModel getSentenceModel() {
+        return getModel(ModelPath.DE_SENT_BIN, SentenceModel::new);
+    }
+
+    /**
+     * Returns memory mapped model of the file, written by <code>MappedMaxentModel.write</code>.
+     * <p/>
+     * File is mapped only once, every call returns the same instance.
+     */
+    public static MappedMaxentModel getMappedModel(Path modelFile) {
+        String key = modelFile.toAbsolutePath().toString();
+        return (MappedMaxentModel) MODELS.computeIfAbsent(key, path -> {
+            try {
+                return MappedMaxentModel.open(modelFile);
+            } catch (IOException e) {
+                LOG.error("Mapped model can not be loaded successfully!", e);
+                throw new ModelLoadException(path);
+            }
+        });
+    }
+
+    /**
+     * Returns name finder model of the bin file, like <code>ModelPath.DE_ADDRESS_BIN</code>, as hashed model.
+     * <p/>
+     * Model is loaded and hashed only once, every call returns the same instance.
+     */
+    public static HashedMaxentModel getHashedModel(String modelPath) {
+        TokenNameFinderModel tokenNameFinderModel = getModel(modelPath, TokenNameFinderModel::new);
+        return (HashedMaxentModel) MODELS.computeIfAbsent(HASHED_MODEL_PREFIX + modelPath,
+                key -> HashedMaxentModel.of(tokenNameFinderModel.getNameFinderModel()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <M> M getModel(String modelPath, ModelLoader<M> modelLoader) {
+        return (M) MODELS.computeIfAbsent(modelPath, path -> loadModel(path, modelLoader));
+    }
+
+    private static <M> M loadModel(String modelPath, ModelLoader<M> modelLoader) {
+        try (InputStream modelInputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(modelPath)) {
+            return modelLoader.load(modelInputStream);
         } catch (Exception e) {
             LOG.error("Models can not be loaded successfully!", e);
         }
 
-        throw new ModelLoadException(ModelPath.DE_ADDRESS_BIN);
+        throw new ModelLoadException(modelPath);
+    }
+
+    /**
+     * Create model from input stream.
+     */
+    @FunctionalInterface
+    private interface ModelLoader<M> {
+
+        M load(InputStream inputStream) throws IOException;
     }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.model.AbstractModel;
+import opennlp.model.Context;
+import opennlp.model.IndexHashTable;
+
+/**
+ * Parameters of a maxent or perceptron model, unpacked from {@link AbstractModel#getDataStructures()}.
+ * <p/>
+ * Arrays are shared with the model, they must not be changed.
+ */
+public final class ModelParameters {
+
+    private final boolean perceptron;
+    private final Context[] contexts;
+    private final IndexHashTable<String> predicateIndex;
+    private final String[] outcomes;
+    private final int correctionConstant;
+    private final double correctionParam;
+
+    @SuppressWarnings("unchecked")
+    private ModelParameters(AbstractModel model) {
+        Object[] dataStructures = model.getDataStructures();
+        this.perceptron = model.getModelType() == AbstractModel.ModelType.Perceptron;
+        this.contexts = (Context[]) dataStructures[0];
+        this.predicateIndex = (IndexHashTable<String>) dataStructures[1];
+        this.outcomes = (String[]) dataStructures[2];
+        this.correctionConstant = (Integer) dataStructures[3];
+        this.correctionParam = (Double) dataStructures[4];
+    }
+
+    /**
+     * Returns parameters of the model.
+     *
+     * @throws IllegalArgumentException if model is neither maxent nor perceptron model.
+     */
+    public static ModelParameters of(AbstractModel model) {
+        AbstractModel.ModelType modelType = model.getModelType();
+        if (modelType != AbstractModel.ModelType.Maxent && modelType != AbstractModel.ModelType.Perceptron) {
+            throw new IllegalArgumentException("Model type " + modelType + " is neither maxent nor perceptron!");
+        }
+        return new ModelParameters(model);
+    }
+
+    public boolean isPerceptron() {
+        return perceptron;
+    }
+
+    public AbstractModel.ModelType getModelType() {
+        return perceptron ? AbstractModel.ModelType.Perceptron : AbstractModel.ModelType.Maxent;
+    }
+
+    /**
+     * Returns parameters of every predicate, outcomes without parameter are not contained.
+     */
+    public Context[] getContexts() {
+        return contexts;
+    }
+
+    public IndexHashTable<String> getPredicateIndex() {
+        return predicateIndex;
+    }
+
+    /**
+     * Returns predicates in order of their contexts.
+     */
+    public String[] getPredicates() {
+        return predicateIndex.toArray(new String[contexts.length]);
+    }
+
+    public String[] getOutcomes() {
+        return outcomes;
+    }
+
+    public int getCorrectionConstant() {
+        return correctionConstant;
+    }
+
+    public double getCorrectionParam() {
+        return correctionParam;
+    }
+
+    /**
+     * Returns count of parameters of all predicates.
+     */
+    public int getNumParams() {
+        int numParams = 0;
+        for (Context context : contexts) {
+            numParams += context.getOutcomes().length;
+        }
+        return numParams;
+    }
+}
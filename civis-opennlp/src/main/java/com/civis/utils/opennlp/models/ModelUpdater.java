@@ -0,0 +1,371 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.maxent.GISModel;
+import opennlp.model.AbstractModel;
+import opennlp.model.Context;
+import opennlp.model.Event;
+import opennlp.model.IndexHashTable;
+import opennlp.perceptron.PerceptronModel;
+import opennlp.tools.util.TrainingParameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Updates parameters of a trained model with events of new samples.
+ * <p/>
+ * Perceptron models are updated with passive aggressive steps, the smallest change which scores the outcome of an
+ * event {@value #PERCEPTRON_MARGIN} above all other outcomes. Maxent models are updated with stochastic gradient
+ * ascent of the log likelihood. Both start with the parameters of the trained model. Only the new events are visited,
+ * so the update time is proportional to the new samples and not to the whole corpus. Unknown outcomes are added,
+ * unknown features are added if they occur at least cutoff times in new events.
+ * <p/>
+ * The trained samples are not visited, so every update step also pulls the changed parameters back to the trained
+ * ones by the prior weight, otherwise many passes over the new events would forget the trained samples.
+ */
+final class ModelUpdater {
+
+    /**
+     * Step size of maxent updates.
+     */
+    static final String LEARNING_RATE_PARAM = "LearningRate";
+
+    static final double DEFAULT_LEARNING_RATE = 0.1;
+
+    /**
+     * Weight of the distance to trained parameters, 0 to update without pulling back to trained parameters.
+     */
+    static final String PRIOR_WEIGHT_PARAM = "PriorWeight";
+
+    static final double DEFAULT_PRIOR_WEIGHT = 0.1;
+
+    /**
+     * Score difference of the event outcome to other outcomes after a perceptron update. Trained perceptron
+     * parameters are averaged, so scores of events are small, but a smaller margin is not enough to decode the
+     * sequence of outcomes right.
+     */
+    static final double PERCEPTRON_MARGIN = 5;
+
+    private final AbstractModel model;
+    private final Context[] params;
+    private final IndexHashTable<String> predicateIndex;
+    private final double constantInverse;
+    private final double correctionConstant;
+    private final double correctionParam;
+
+    private final List<String> outcomes;
+    private final Map<String, Integer> outcomeIndex = new HashMap<>();
+    private final List<String> newPredicates = new ArrayList<>();
+    private final Map<String, Integer> newPredicateIndex = new HashMap<>();
+    /**
+     * Dense parameters of updated predicates, other predicates keep parameters of the model.
+     */
+    private final Map<Integer, double[]> updatedParams = new HashMap<>();
+    /**
+     * Dense parameters of updated predicates in the trained model.
+     */
+    private final Map<Integer, double[]> trainedParams = new HashMap<>();
+
+    private ModelUpdater(AbstractModel model, ModelParameters parameters) {
+        this.model = model;
+        this.params = parameters.getContexts();
+        this.predicateIndex = parameters.getPredicateIndex();
+        this.outcomes = new ArrayList<>(Arrays.asList(parameters.getOutcomes()));
+        this.correctionConstant = parameters.getCorrectionConstant();
+        this.correctionParam = parameters.getCorrectionParam();
+        this.constantInverse = 1.0 / correctionConstant;
+        for (int i = 0; i < outcomes.size(); i++) {
+            outcomeIndex.put(outcomes.get(i), i);
+        }
+    }
+
+    /**
+     * Returns new model with parameters of the given model updated by the events.
+     * <p/>
+     * The given model is not changed.
+     *
+     * @param settings training parameters, iterations, cutoff and learning rate are used.
+     * @throws IllegalArgumentException if model is neither maxent nor perceptron model.
+     */
+    static AbstractModel update(AbstractModel model, List<Event> events, Map<String, String> settings) {
+        ModelParameters parameters = ModelParameters.of(model);
+
+        int iterations = getInt(settings, TrainingParameters.ITERATIONS_PARAM, 100);
+        int cutoff = getInt(settings, TrainingParameters.CUTOFF_PARAM, 5);
+        double learningRate = getDouble(settings, LEARNING_RATE_PARAM, DEFAULT_LEARNING_RATE);
+        double priorWeight = getDouble(settings, PRIOR_WEIGHT_PARAM, DEFAULT_PRIOR_WEIGHT);
+
+        ModelUpdater updater = new ModelUpdater(model, parameters);
+        List<int[]> contexts = updater.indexEvents(events, cutoff);
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int i = 0; i < events.size(); i++) {
+                Event event = events.get(i);
+                int outcome = updater.outcomeIndex.get(event.getOutcome());
+                if (parameters.isPerceptron()) {
+                    updater.updatePerceptron(contexts.get(i), event.getValues(), outcome, priorWeight);
+                } else {
+                    updater.updateMaxent(contexts.get(i), event.getValues(), outcome, learningRate,
+                            learningRate * priorWeight);
+                }
+            }
+        }
+        return updater.build();
+    }
+
+    private static int getInt(Map<String, String> settings, String key, int defaultValue) {
+        return settings.containsKey(key) ? Integer.parseInt(settings.get(key)) : defaultValue;
+    }
+
+    private static double getDouble(Map<String, String> settings, String key, double defaultValue) {
+        return settings.containsKey(key) ? Double.parseDouble(settings.get(key)) : defaultValue;
+    }
+
+    /**
+     * Adds unknown outcomes and frequent unknown features, returns feature indexes of every event.
+     */
+    private List<int[]> indexEvents(List<Event> events, int cutoff) {
+        Map<String, Integer> unknownCounts = new HashMap<>();
+        for (Event event : events) {
+            if (!outcomeIndex.containsKey(event.getOutcome())) {
+                outcomeIndex.put(event.getOutcome(), outcomes.size());
+                outcomes.add(event.getOutcome());
+            }
+            for (String predicate : event.getContext()) {
+                if (predicateIndex.get(predicate) < 0) {
+                    unknownCounts.merge(predicate, 1, Integer::sum);
+                }
+            }
+        }
+
+        for (Event event : events) {
+            for (String predicate : event.getContext()) {
+                Integer count = unknownCounts.get(predicate);
+                if (count != null && count >= cutoff && !newPredicateIndex.containsKey(predicate)) {
+                    newPredicateIndex.put(predicate, params.length + newPredicates.size());
+                    newPredicates.add(predicate);
+                }
+            }
+        }
+
+        List<int[]> contexts = new ArrayList<>(events.size());
+        for (Event event : events) {
+            String[] context = event.getContext();
+            int[] indexes = new int[context.length];
+            for (int i = 0; i < context.length; i++) {
+                int index = predicateIndex.get(context[i]);
+                indexes[i] = index >= 0 ? index : newPredicateIndex.getOrDefault(context[i], -1);
+            }
+            contexts.add(indexes);
+        }
+        return contexts;
+    }
+
+    /**
+     * Passive aggressive step: parameters of the event outcome and of the best other outcome are changed by the same
+     * amount tau per feature value, the score difference changes by tau * 2 * sum of squared feature values.
+     */
+    private void updatePerceptron(int[] context, float[] values, int outcome, double priorWeight) {
+        double[] scores = score(context, values);
+        int best = -1;
+        for (int i = 0; i < scores.length; i++) {
+            if (i != outcome && (best < 0 || scores[i] > scores[best])) {
+                best = i;
+            }
+        }
+
+        double loss = PERCEPTRON_MARGIN - (scores[outcome] - scores[best]);
+        double norm = 0;
+        for (int i = 0; i < context.length; i++) {
+            if (context[i] >= 0) {
+                double value = values == null ? 1 : values[i];
+                norm += 2 * value * value;
+            }
+        }
+        if (loss <= 0 || norm == 0) {
+            return;
+        }
+
+        double tau = loss / norm;
+        for (int i = 0; i < context.length; i++) {
+            if (context[i] >= 0) {
+                double value = values == null ? 1 : values[i];
+                double[] predicateParams = getUpdatedParams(context[i]);
+                predicateParams[outcome] += tau * value;
+                predicateParams[best] -= tau * value;
+                pullToTrained(context[i], predicateParams, priorWeight);
+            }
+        }
+    }
+
+    /**
+     * Gradient of log likelihood of a feature and outcome is feature value * (expected - predicted probability).
+     */
+    private void updateMaxent(int[] context, float[] values, int outcome, double learningRate, double pull) {
+        double[] probabilities = score(context, values);
+        int[] numFeatures = new int[probabilities.length];
+        for (int predicate : context) {
+            if (predicate >= 0) {
+                for (int activeOutcome : getActiveOutcomes(predicate)) {
+                    numFeatures[activeOutcome]++;
+                }
+            }
+        }
+
+        double normal = 0;
+        for (int i = 0; i < probabilities.length; i++) {
+            double correction = correctionParam == 0 ? 0 :
+                    (1.0 - numFeatures[i] / correctionConstant) * correctionParam;
+            probabilities[i] = Math.exp(probabilities[i] * constantInverse + correction);
+            normal += probabilities[i];
+        }
+
+        for (int i = 0; i < context.length; i++) {
+            if (context[i] >= 0) {
+                double step = learningRate * constantInverse * (values == null ? 1 : values[i]);
+                double[] predicateParams = getUpdatedParams(context[i]);
+                for (int o = 0; o < predicateParams.length; o++) {
+                    double expected = o == outcome ? 1 : 0;
+                    predicateParams[o] += step * (expected - probabilities[o] / normal);
+                }
+                pullToTrained(context[i], predicateParams, pull);
+            }
+        }
+    }
+
+    /**
+     * Moves parameters of the predicate by the given part of the distance back to its trained parameters.
+     */
+    private void pullToTrained(int predicate, double[] predicateParams, double pull) {
+        double[] trained = trainedParams.get(predicate);
+        for (int o = 0; o < predicateParams.length; o++) {
+            predicateParams[o] -= pull * (predicateParams[o] - trained[o]);
+        }
+    }
+
+    /**
+     * Returns sum of parameters per outcome.
+     */
+    private double[] score(int[] context, float[] values) {
+        double[] scores = new double[outcomes.size()];
+        for (int i = 0; i < context.length; i++) {
+            int predicate = context[i];
+            if (predicate < 0) {
+                continue;
+            }
+
+            double value = values == null ? 1 : values[i];
+            double[] predicateParams = updatedParams.get(predicate);
+            if (predicateParams != null) {
+                for (int o = 0; o < predicateParams.length; o++) {
+                    scores[o] += predicateParams[o] * value;
+                }
+            } else if (predicate < params.length) {
+                int[] activeOutcomes = params[predicate].getOutcomes();
+                double[] activeParams = params[predicate].getParameters();
+                for (int a = 0; a < activeOutcomes.length; a++) {
+                    scores[activeOutcomes[a]] += activeParams[a] * value;
+                }
+            }
+        }
+        return scores;
+    }
+
+    private int[] getActiveOutcomes(int predicate) {
+        if (updatedParams.containsKey(predicate) || predicate >= params.length) {
+            // updated predicates have parameters for all outcomes.
+            int[] allOutcomes = new int[outcomes.size()];
+            for (int i = 0; i < allOutcomes.length; i++) {
+                allOutcomes[i] = i;
+            }
+            return allOutcomes;
+        }
+        return params[predicate].getOutcomes();
+    }
+
+    /**
+     * Returns dense parameters of the predicate, copied from the model on first update.
+     */
+    private double[] getUpdatedParams(int predicate) {
+        double[] predicateParams = updatedParams.get(predicate);
+        if (predicateParams == null) {
+            predicateParams = new double[outcomes.size()];
+            if (predicate < params.length) {
+                int[] activeOutcomes = params[predicate].getOutcomes();
+                double[] activeParams = params[predicate].getParameters();
+                for (int a = 0; a < activeOutcomes.length; a++) {
+                    predicateParams[activeOutcomes[a]] = activeParams[a];
+                }
+            }
+            updatedParams.put(predicate, predicateParams);
+            trainedParams.put(predicate, predicateParams.clone());
+        }
+        return predicateParams;
+    }
+
+    private AbstractModel build() {
+        String[] predicates = new String[params.length + newPredicates.size()];
+        predicateIndex.toArray(predicates);
+        for (int i = 0; i < newPredicates.size(); i++) {
+            predicates[params.length + i] = newPredicates.get(i);
+        }
+
+        // params of trained models are mutable contexts, new array accepts both.
+        Context[] newParams = new Context[predicates.length];
+        System.arraycopy(params, 0, newParams, 0, params.length);
+        for (int predicate = params.length; predicate < newParams.length; predicate++) {
+            newParams[predicate] = new Context(new int[0], new double[0]);
+        }
+        for (Map.Entry<Integer, double[]> entry : updatedParams.entrySet()) {
+            newParams[entry.getKey()] = toContext(entry.getValue());
+        }
+
+        String[] outcomeNames = outcomes.toArray(new String[outcomes.size()]);
+        if (model.getModelType() == AbstractModel.ModelType.Perceptron) {
+            return new PerceptronModel(newParams, predicates, outcomeNames);
+        }
+        return new GISModel(newParams, predicates, outcomeNames, (int) correctionConstant, correctionParam);
+    }
+
+    /**
+     * Sparse parameters, outcomes with parameter 0 are dropped.
+     */
+    private static Context toContext(double[] denseParams) {
+        int count = 0;
+        for (double param : denseParams) {
+            if (param != 0) {
+                count++;
+            }
+        }
+
+        int[] activeOutcomes = new int[count];
+        double[] activeParams = new double[count];
+        int a = 0;
+        for (int o = 0; o < denseParams.length; o++) {
+            if (denseParams[o] != 0) {
+                activeOutcomes[a] = o;
+                activeParams[a] = denseParams[o];
+                a++;
+            }
+        }
+        return new Context(activeOutcomes, activeParams);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+/**
+ * Search strategy of a finder, trade-off between throughput and quality.
+ */
+public enum SearchMode {
+
+    /**
+     * Beam search with configured beam size.
+     */
+    BEAM,
+
+    /**
+     * Beam size 1, only the best outcome of every token is kept. Fastest mode.
+     */
+    GREEDY,
+
+    /**
+     * Greedy search first, sentences with a token probability lower than the configured min. probability are
+     * searched again with configured beam size.
+     */
+    ADAPTIVE
+}
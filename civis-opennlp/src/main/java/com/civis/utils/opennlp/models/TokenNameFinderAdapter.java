@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.tools.namefind.TokenNameFinder;
+import opennlp.tools.util.Span;
+
+/**
+ * Adapter to evaluate the name finder model of a finder with opennlp evaluation tools.
+ * <p/>
+ * Returns the spans found by beam search, before spans are built to address or contact person. Span type is the
+ * outcome type without <code>-start</code> or <code>-cont</code> suffix, the same type as in training data.
+ */
+public class TokenNameFinderAdapter implements TokenNameFinder {
+
+    private final BaseModel<?> finder;
+
+    public TokenNameFinderAdapter(BaseModel<?> finder) {
+        this.finder = finder;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Span[] find(String[] tokens) {
+        Span[] spans = finder.findSpans(new String[][]{tokens});
+        for (int i = 0; i < spans.length; i++) {
+            spans[i] = new Span(spans[i].getStart(), spans[i].getEnd(), toSampleType(spans[i].getType()));
+        }
+        return spans;
+    }
+
+    private String toSampleType(String spanType) {
+        if (spanType == null) {
+            return null;
+        }
+
+        int suffixIndex = spanType.lastIndexOf('-');
+        return suffixIndex < 0 ? spanType : spanType.substring(0, suffixIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clearAdaptiveData() {
+        finder.tagger.clearAdaptiveData();
+    }
+}
@@ -21,6 +21,7 @@ import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 
+import java.nio.file.Path;
 import java.util.Map;
 
 /**
@@ -28,6 +29,11 @@ import java.util.Map;
  */
 public class TrainConfigData {
 
+    /**
+     * Default count of training threads.
+     */
+    public static final int DEFAULT_THREADS = 1;
+
     /**
      * Language code - en, de, rus ;
      */
@@ -50,6 +56,16 @@ public class TrainConfigData {
 
     private Map<String, Object> resources;
 
+    /**
+     * Count of threads to collect training events and to train maxent model, default 1.
+     */
+    private int threads = DEFAULT_THREADS;
+
+    /**
+     * File of cached training events. If it exists, model is trained with its events, otherwise it is created.
+     */
+    private Path eventCacheFile;
+
 
     /**
      * Returns Language code - en, de, rus ;
@@ -117,6 +133,38 @@ public class TrainConfigData {
         this.resources = resources;
     }
 
+    /**
+     * Returns Count of threads to collect training events and to train maxent model, default 1.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets Count of threads to collect training events and to train maxent model, default 1.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Returns File of cached training events. If it exists, model is trained with its events, otherwise it is created.
+     * A file of other samples or features is rejected, configuration of a custom feature generator and resources of
+     * features are not checked.
+     */
+    public Path getEventCacheFile() {
+        return eventCacheFile;
+    }
+
+    /**
+     * Sets File of cached training events. If it exists, model is trained with its events, otherwise it is created.
+     * A file of other samples or features is rejected, configuration of a custom feature generator and resources of
+     * features are not checked.
+     */
+    public void setEventCacheFile(Path eventCacheFile) {
+        this.eventCacheFile = eventCacheFile;
+    }
+
     /**
      * If language code is null or empty throws <code>IllegalArgumentException.java</code>.
      */
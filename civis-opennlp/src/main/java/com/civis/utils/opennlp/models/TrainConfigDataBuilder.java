@@ -21,6 +21,7 @@ import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 
+import java.nio.file.Path;
 import java.util.Map;
 
 /**
@@ -50,6 +51,9 @@ public class TrainConfigDataBuilder {
 
     private Map<String, Object> resources;
 
+    private int threads = TrainConfigData.DEFAULT_THREADS;
+
+    private Path eventCacheFile;
 
     /**
      * Language code - en, de, rus ;
@@ -90,6 +94,46 @@ public class TrainConfigDataBuilder {
         return this;
     }
 
+    /**
+     * Put iterations into trainingParameters.
+     * If trainingParameters is null, than create default trainingParameters and put iterations value.
+     */
+    public TrainConfigDataBuilder putIterationsIntoTrainingParameters(String iterations) {
+        createDefaultTrainingsParameterIfNull();
+        trainingParameters.put(TrainingParameters.ITERATIONS_PARAM, iterations);
+        return this;
+    }
+
+    /**
+     * Put algorithm (MAXENT or PERCEPTRON) into trainingParameters.
+     * If trainingParameters is null, than create default trainingParameters and put algorithm value.
+     */
+    public TrainConfigDataBuilder putAlgorithmIntoTrainingParameters(String algorithm) {
+        createDefaultTrainingsParameterIfNull();
+        trainingParameters.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
+        return this;
+    }
+
+    /**
+     * Put learning rate of model update into trainingParameters.
+     * If trainingParameters is null, than create default trainingParameters and put learning rate value.
+     */
+    public TrainConfigDataBuilder putLearningRateIntoTrainingParameters(String learningRate) {
+        createDefaultTrainingsParameterIfNull();
+        trainingParameters.put(ModelUpdater.LEARNING_RATE_PARAM, learningRate);
+        return this;
+    }
+
+    /**
+     * Put prior weight of model update into trainingParameters, it pulls updated parameters back to the trained ones.
+     * If trainingParameters is null, than create default trainingParameters and put prior weight value.
+     */
+    public TrainConfigDataBuilder putPriorWeightIntoTrainingParameters(String priorWeight) {
+        createDefaultTrainingsParameterIfNull();
+        trainingParameters.put(ModelUpdater.PRIOR_WEIGHT_PARAM, priorWeight);
+        return this;
+    }
+
     private void createDefaultTrainingsParameterIfNull() {
         if(trainingParameters == null){
             trainingParameters = TrainingParameters.defaultParams();
@@ -108,6 +152,29 @@ public class TrainConfigDataBuilder {
 
 
 
+    /**
+     * Count of threads to collect training events and to train maxent model, default 1.
+     * <p/>
+     * With more than one thread, samples are read in chunks of {@value ChunkedSampleProcessor#CHUNK_SIZE} and up to
+     * two chunks per thread with their events are kept in memory ahead of the trainer, independent of the count of
+     * samples. The maxent trainer itself keeps the indexed events of all samples in memory with any count of threads.
+     */
+    public TrainConfigDataBuilder setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * File of cached training events. If it exists, model is trained with its events and no features are generated,
+     * otherwise events of samples are written into it. A file of other samples or features is rejected, samples are
+     * still read to check it. Configuration of a custom feature generator and resources of features, like gazetteers,
+     * are not checked, delete the file after changing them.
+     */
+    public TrainConfigDataBuilder setEventCacheFile(Path eventCacheFile) {
+        this.eventCacheFile = eventCacheFile;
+        return this;
+    }
+
     public TrainConfigData build() {
         TrainConfigData trainConfigData = new TrainConfigData();
         trainConfigData.setLanguageCode(languageCode);
@@ -116,6 +183,8 @@ public class TrainConfigDataBuilder {
         trainConfigData.setTrainingParameters(trainingParameters);
         trainConfigData.setFeatureGenerator(featureGenerator);
         trainConfigData.setResources(resources);
+        trainConfigData.setThreads(threads);
+        trainConfigData.setEventCacheFile(eventCacheFile);
         return trainConfigData;
     }
 }
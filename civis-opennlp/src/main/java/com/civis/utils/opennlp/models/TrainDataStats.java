@@ -0,0 +1,312 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.civis.utils.opennlp.models;
+
+import opennlp.model.Event;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.util.Span;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Statistics of train samples and their training events, collected without training a model.
+ * <p/>
+ * Unique features are counted per feature prefix, the text before <code>=</code>, every feature generator uses own
+ * prefixes. Model estimates assume a maxent model, which has one parameter for every predicate and outcome seen
+ * together, predicates occurring less than cutoff times are dropped like in training.
+ */
+public class TrainDataStats {
+
+    // In memory model: predicate string with char array, index hash table slots and context with two arrays.
+    private static final int PREDICATE_BYTES = 40 + 12 + 64;
+    private static final int PARAMETER_BYTES = 4 + 8;
+    // Model file: predicate as modified UTF-8 with 2 bytes length, every parameter as double.
+    private static final int PREDICATE_FILE_BYTES = 2;
+    private static final int PARAMETER_FILE_BYTES = 8;
+
+    private final boolean continued;
+    private int samples;
+    private int documents;
+    private long events;
+    private long features;
+    private final Map<String, Integer> spansPerType = new TreeMap<>();
+    private final Map<Integer, Integer> tokensPerSample = new TreeMap<>();
+    private final Map<Integer, Integer> tokensPerSpan = new TreeMap<>();
+    private final List<String> outcomes = new ArrayList<>();
+    private final Map<String, PredicateStats> predicates = new HashMap<>();
+
+    public TrainDataStats() {
+        this(false);
+    }
+
+    /**
+     * @param continued true if samples continue samples of other statistics, like every chunk after the first one,
+     *                  then the first sample does not start a document.
+     */
+    TrainDataStats(boolean continued) {
+        this.continued = continued;
+    }
+
+    /**
+     * Add sample, spans without type are counted as default type.
+     */
+    public void addSample(NameSample sample, String defaultType) {
+        if (sample.isClearAdaptiveDataSet() || (samples == 0 && !continued)) {
+            documents++;
+        }
+        samples++;
+        increment(tokensPerSample, sample.getSentence().length, 1);
+        for (Span span : sample.getNames()) {
+            increment(spansPerType, span.getType() != null ? span.getType() : defaultType, 1);
+            increment(tokensPerSpan, span.length(), 1);
+        }
+    }
+
+    /**
+     * Add training event of a sample token.
+     */
+    public void addEvent(Event event) {
+        events++;
+        features += event.getContext().length;
+        int outcome = outcomeIndex(event.getOutcome());
+        for (String predicate : event.getContext()) {
+            PredicateStats predicateStats = predicates.computeIfAbsent(predicate, key -> new PredicateStats());
+            predicateStats.count++;
+            predicateStats.outcomes.set(outcome);
+        }
+    }
+
+    /**
+     * Add statistics of other samples, like of another chunk.
+     */
+    public void merge(TrainDataStats other) {
+        samples += other.samples;
+        documents += other.documents;
+        events += other.events;
+        features += other.features;
+        other.spansPerType.forEach((type, count) -> increment(spansPerType, type, count));
+        other.tokensPerSample.forEach((tokens, count) -> increment(tokensPerSample, tokens, count));
+        other.tokensPerSpan.forEach((tokens, count) -> increment(tokensPerSpan, tokens, count));
+
+        int[] outcomeIndexes = new int[other.outcomes.size()];
+        for (int i = 0; i < outcomeIndexes.length; i++) {
+            outcomeIndexes[i] = outcomeIndex(other.outcomes.get(i));
+        }
+        other.predicates.forEach((predicate, otherStats) -> {
+            PredicateStats predicateStats = predicates.computeIfAbsent(predicate, key -> new PredicateStats());
+            predicateStats.count += otherStats.count;
+            for (int i = otherStats.outcomes.nextSetBit(0); i >= 0; i = otherStats.outcomes.nextSetBit(i + 1)) {
+                predicateStats.outcomes.set(outcomeIndexes[i]);
+            }
+        });
+    }
+
+    private int outcomeIndex(String outcome) {
+        int index = outcomes.indexOf(outcome);
+        if (index < 0) {
+            outcomes.add(outcome);
+            index = outcomes.size() - 1;
+        }
+        return index;
+    }
+
+    private static <K> void increment(Map<K, Integer> counts, K key, int count) {
+        counts.merge(key, count, Integer::sum);
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns count of documents, the first sample and every sample clearing adaptive data start a document.
+     */
+    public int getDocuments() {
+        return documents;
+    }
+
+    /**
+     * Returns count of training events, one per token.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns count of all features of all events.
+     */
+    public long getFeatures() {
+        return features;
+    }
+
+    public Map<String, Integer> getSpansPerType() {
+        return spansPerType;
+    }
+
+    public List<String> getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Returns percentile of tokens per sample.
+     *
+     * @param percentile 0 - 100, like 50 or 99.
+     */
+    public int getTokensPerSample(double percentile) {
+        return percentile(tokensPerSample, percentile);
+    }
+
+    /**
+     * Returns percentile of tokens per span.
+     *
+     * @param percentile 0 - 100, like 50 or 99.
+     */
+    public int getTokensPerSpan(double percentile) {
+        return percentile(tokensPerSpan, percentile);
+    }
+
+    private static int percentile(Map<Integer, Integer> counts, double percentile) {
+        long count = 0;
+        for (int valueCount : counts.values()) {
+            count += valueCount;
+        }
+
+        long rank = Math.max((long) Math.ceil(percentile / 100 * count), 1);
+        long seen = 0;
+        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) {
+                return entry.getKey();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns count of unique features.
+     */
+    public int getUniqueFeatures() {
+        return predicates.size();
+    }
+
+    /**
+     * Returns count of unique features per feature prefix, sorted by prefix.
+     */
+    public Map<String, Integer> getUniqueFeaturesPerPrefix() {
+        Map<String, Integer> uniqueFeatures = new TreeMap<>();
+        for (String predicate : predicates.keySet()) {
+            int prefixEnd = predicate.indexOf('=');
+            increment(uniqueFeatures, prefixEnd < 0 ? predicate : predicate.substring(0, prefixEnd), 1);
+        }
+        return uniqueFeatures;
+    }
+
+    /**
+     * Returns count of predicates of the trained model.
+     */
+    public int getPredicates(int cutoff) {
+        int count = 0;
+        for (PredicateStats predicateStats : predicates.values()) {
+            if (predicateStats.count >= cutoff) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns count of parameters of the trained model.
+     */
+    public long getParameters(int cutoff) {
+        long count = 0;
+        for (PredicateStats predicateStats : predicates.values()) {
+            if (predicateStats.count >= cutoff) {
+                count += predicateStats.outcomes.cardinality();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns count of features of all events, which are predicates of the trained model.
+     * <p/>
+     * Every training iteration evaluates these features, so training time grows with it and with iterations.
+     */
+    public long getTrainedFeatures(int cutoff) {
+        long count = 0;
+        for (PredicateStats predicateStats : predicates.values()) {
+            if (predicateStats.count >= cutoff) {
+                count += predicateStats.count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns estimated heap size of the trained model in bytes.
+     */
+    public long estimateModelBytes(int cutoff) {
+        long bytes = 0;
+        for (Map.Entry<String, PredicateStats> entry : predicates.entrySet()) {
+            PredicateStats predicateStats = entry.getValue();
+            if (predicateStats.count >= cutoff) {
+                bytes += PREDICATE_BYTES + 2L * entry.getKey().length()
+                        + PARAMETER_BYTES * predicateStats.outcomes.cardinality();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns estimated size of the trained model file in bytes, before the model file is zipped.
+     */
+    public long estimateFileBytes(int cutoff) {
+        long bytes = 0;
+        for (Map.Entry<String, PredicateStats> entry : predicates.entrySet()) {
+            PredicateStats predicateStats = entry.getValue();
+            if (predicateStats.count >= cutoff) {
+                bytes += PREDICATE_FILE_BYTES + utfLength(entry.getKey())
+                        + PARAMETER_FILE_BYTES * predicateStats.outcomes.cardinality();
+            }
+        }
+        return bytes;
+    }
+
+    private static int utfLength(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            length += c > 0 && c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        return length;
+    }
+
+    /**
+     * Occurrences of a predicate and outcomes seen with it.
+     */
+    private static final class PredicateStats {
+
+        private int count;
+        private final BitSet outcomes = new BitSet();
+    }
+}
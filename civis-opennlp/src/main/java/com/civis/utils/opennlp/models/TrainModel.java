@@ -19,6 +19,7 @@ package com.civis.utils.opennlp.models;
 import opennlp.tools.namefind.TokenNameFinderModel;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Interface with train services.
@@ -29,4 +30,21 @@ public interface TrainModel {
      * Train model.
      */
     TokenNameFinderModel train() throws IOException;
+
+    /**
+     * Write training events into the file, to train next models with the same events faster.
+     *
+     * @see TrainConfigDataBuilder#setEventCacheFile(Path)
+     */
+    void writeEvents(Path eventCacheFile) throws IOException;
+
+    /**
+     * Update the trained model with samples of train config, in time proportional to the samples.
+     */
+    TokenNameFinderModel update(TokenNameFinderModel model) throws IOException;
+
+    /**
+     * Collect statistics of samples of train config and their training events, without training a model.
+     */
+    TrainDataStats collectStats() throws IOException;
 }
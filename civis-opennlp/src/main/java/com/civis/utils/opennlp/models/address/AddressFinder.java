@@ -22,9 +22,4 @@ import com.civis.utils.opennlp.models.DefaultFinder;
  * This interface include methods to find address.
  */
 public interface AddressFinder extends DefaultFinder<AddressSpan> {
-
-    /**
-     * Clear Data.
-     */
-    void clearAdaptiveData();
 }
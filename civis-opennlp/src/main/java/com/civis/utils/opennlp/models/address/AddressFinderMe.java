@@ -17,30 +17,32 @@
 package com.civis.utils.opennlp.models.address;
 
 import com.civis.utils.csv.address.CSVAddressData;
-import com.civis.utils.csv.address.CSVAddressReader;
-import com.civis.utils.csv.address.CountryReader;
+import com.civis.utils.gazetteer.TokenGazetteer;
+import com.civis.utils.metrics.HitRatio;
+import com.civis.utils.metrics.Timer;
 import com.civis.utils.opennlp.features.AddressFeature;
 import com.civis.utils.opennlp.features.FirstCapitalLetterFeature;
 import com.civis.utils.opennlp.features.NumberFeature;
 import com.civis.utils.opennlp.features.StreetNumberFeature;
 import com.civis.utils.opennlp.models.BaseModel;
+import com.civis.utils.opennlp.models.BeamTagger;
+import com.civis.utils.opennlp.models.FindConfigData;
 import com.civis.utils.opennlp.models.FindType;
-import com.civis.utils.opennlp.models.ModelPath;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.ModelLoadException;
 import com.civis.utils.opennlp.models.TrainConfigData;
 import com.civis.utils.opennlp.models.TrainModel;
 import com.civis.utils.opennlp.utils.Constants;
+import com.civis.utils.opennlp.utils.Gazetteers;
 import com.civis.utils.opennlp.validators.AddressFinderSequenceValidator;
+import opennlp.model.MaxentModel;
 import opennlp.tools.namefind.DefaultNameContextGenerator;
 import opennlp.tools.namefind.NameContextGenerator;
 import opennlp.tools.namefind.TokenNameFinderModel;
-import opennlp.tools.tokenize.Tokenizer;
-import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
-import opennlp.tools.util.BeamSearch;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
-import opennlp.tools.util.featuregen.AdditionalContextFeatureGenerator;
 import opennlp.tools.util.featuregen.CachedFeatureGenerator;
 import opennlp.tools.util.featuregen.StringPattern;
 import org.apache.commons.lang3.StringUtils;
@@ -48,12 +50,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * This is a address model.
@@ -62,25 +62,86 @@ import java.util.stream.Collectors;
  */
 public class AddressFinderMe extends BaseModel<AddressSpan> implements AddressFinder, TrainModel {
 
+    public static final String FINDER_NAME = "address";
+
+    /**
+     * Version of default features, increment it whenever default features change to reject old event cache files.
+     */
+    public static final int FEATURE_VERSION = 1;
+
     private static final Logger LOG = LoggerFactory.getLogger(AddressFinderMe.class);
 
-    private static String[][] EMPTY = new String[0][0];
-    private final Set<String> countries;
-    protected NameContextGenerator contextGenerator;
-    private AdditionalContextFeatureGenerator additionalContextFeatureGenerator;
-    private List<CSVAddressData> csvAddressDataList;
+    private AdaptiveFeatureGenerator firstCapitalLetterFeature;
+    private final AddressSpanBuilder addressSpanBuilder;
+    private Set<String> zips;
+    private TokenGazetteer<List<CSVAddressData>> cityGazetteer;
+    private AddressPrefilter prefilter;
+    private HitRatio zipHitRatio;
+    private HitRatio cityHitRatio;
 
 
     public AddressFinderMe(TokenNameFinderModel model) {
-        super(model.getNameFinderModel());
-        additionalContextFeatureGenerator = new AdditionalContextFeatureGenerator();
-        AdaptiveFeatureGenerator featureGenerator = createDefaultFeatureGenerator();
-        contextGenerator = new DefaultNameContextGenerator(featureGenerator);
-        SequenceValidator<String> sequenceValidator = new AddressFinderSequenceValidator();
-        beam = new BeamSearch<>(DEFAULT_BEAM_SIZE, contextGenerator, nameFinderModel, sequenceValidator,
-                DEFAULT_BEAM_SIZE);
-        this.csvAddressDataList = CSVAddressReader.read();
-        this.countries = CountryReader.read();
+        this(model, new FirstCapitalLetterFeature());
+    }
+
+    /**
+     * Constructor to share the first capital letter feature with other finders.
+     *
+     * @param model                     address model.
+     * @param firstCapitalLetterFeature generator, which creates the same features as
+     *                                  <code>FirstCapitalLetterFeature</code>.
+     */
+    public AddressFinderMe(TokenNameFinderModel model, AdaptiveFeatureGenerator firstCapitalLetterFeature) {
+        this(model, firstCapitalLetterFeature, FindConfigData.defaultConfig());
+    }
+
+    public AddressFinderMe(TokenNameFinderModel model, FindConfigData findConfigData) {
+        this(model, new FirstCapitalLetterFeature(), findConfigData);
+    }
+
+    /**
+     * Constructor to share the first capital letter feature with other finders.
+     *
+     * @param model                     address model.
+     * @param firstCapitalLetterFeature generator, which creates the same features as
+     *                                  <code>FirstCapitalLetterFeature</code>.
+     * @param findConfigData            sentence model and pool to search sentences in parallel.
+     */
+    public AddressFinderMe(TokenNameFinderModel model, AdaptiveFeatureGenerator firstCapitalLetterFeature,
+                           FindConfigData findConfigData) {
+        this(model.getNameFinderModel(), firstCapitalLetterFeature, findConfigData);
+    }
+
+    /**
+     * Constructor for a model, which is not loaded as TokenNameFinderModel, like <code>MappedMaxentModel</code>.
+     *
+     * @param nameFinderModel address model.
+     * @param findConfigData  sentence model and pool to search sentences in parallel.
+     */
+    public AddressFinderMe(MaxentModel nameFinderModel, FindConfigData findConfigData) {
+        this(nameFinderModel, new FirstCapitalLetterFeature(), findConfigData);
+    }
+
+    /**
+     * Constructor to share the first capital letter feature with other finders.
+     *
+     * @param nameFinderModel           address model.
+     * @param firstCapitalLetterFeature generator, which creates the same features as
+     *                                  <code>FirstCapitalLetterFeature</code>.
+     * @param findConfigData            sentence model and pool to search sentences in parallel.
+     */
+    public AddressFinderMe(MaxentModel nameFinderModel, AdaptiveFeatureGenerator firstCapitalLetterFeature,
+                           FindConfigData findConfigData) {
+        super(nameFinderModel, findConfigData);
+        this.firstCapitalLetterFeature = firstCapitalLetterFeature;
+        this.tagger = createTagger();
+        this.addressSpanBuilder = new AddressSpanBuilder().setCountryTrie(Gazetteers.getCountryTrie())
+                .setAddressDataByZip(Gazetteers.getAddressDataByZip());
+        this.zips = Gazetteers.getZips();
+        this.cityGazetteer = Gazetteers.getCityGazetteer();
+        this.prefilter = new AddressPrefilter(zips);
+        this.zipHitRatio = metrics.gazetteer("zip");
+        this.cityHitRatio = metrics.gazetteer("city");
     }
 
     /**
@@ -88,8 +149,8 @@ public class AddressFinderMe extends BaseModel<AddressSpan> implements AddressFi
      */
     public AddressFinderMe(TrainConfigData trainConfigData) {
         super(trainConfigData);
-        this.csvAddressDataList = Collections.emptyList();
-        this.countries = Collections.emptySet();
+        this.addressSpanBuilder = new AddressSpanBuilder();
+        this.zips = Collections.emptySet();
         setDefaultTrainingParametersIfNull();
     }
 
@@ -121,12 +182,43 @@ public class AddressFinderMe extends BaseModel<AddressSpan> implements AddressFi
      */
     @Override
     public AdaptiveFeatureGenerator createDefaultFeatureGenerator() {
+        return createFeatureGenerator(new FirstCapitalLetterFeature());
+    }
+
+    private AdaptiveFeatureGenerator createFeatureGenerator(AdaptiveFeatureGenerator firstCapitalLetterFeature) {
         AdaptiveFeatureGenerator[] defaultFeatures =
-                new AdaptiveFeatureGenerator[]{new FirstCapitalLetterFeature(), new StreetNumberFeature(),
+                new AdaptiveFeatureGenerator[]{firstCapitalLetterFeature, new StreetNumberFeature(),
                         new NumberFeature(), new AddressFeature()};
         return new CachedFeatureGenerator(defaultFeatures);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getFeatureVersion() {
+        return FEATURE_VERSION;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BeamTagger createTagger() {
+        NameContextGenerator contextGenerator =
+                new DefaultNameContextGenerator(createFeatureGenerator(firstCapitalLetterFeature));
+        SequenceValidator<String> sequenceValidator = new AddressFinderSequenceValidator();
+        return new BeamTagger(contextGenerator, nameFinderModel, sequenceValidator, findConfigData);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getFinderName() {
+        return FINDER_NAME;
+    }
+
     public TokenNameFinderModel train() throws IOException {
         return super.train();
     }
@@ -141,11 +233,9 @@ public class AddressFinderMe extends BaseModel<AddressSpan> implements AddressFi
      */
     @Override
     public List<AddressSpan> find(String text) {
-        try (InputStream tokenizerModelInputStream = Thread.currentThread().getContextClassLoader()
-                .getResourceAsStream(ModelPath.DE_TOKEN_BIN)) {
-            TokenizerModel modelToken = new TokenizerModel(tokenizerModelInputStream);
-            return find(text, modelToken);
-        } catch (Exception e) {
+        try {
+            return find(text, ModelFactory.getTokenizerModel());
+        } catch (ModelLoadException e) {
             LOG.error("Tokenizer Models can not be loaded successfully!", e);
         }
 
@@ -157,9 +247,7 @@ public class AddressFinderMe extends BaseModel<AddressSpan> implements AddressFi
      */
     @Override
     public List<AddressSpan> find(String text, TokenizerModel tokenizerModel) {
-        Tokenizer tokenizer = new TokenizerME(tokenizerModel);
-        String[] tokens = tokenizer.tokenize(text);
-        return find(tokens);
+        return find(tokenize(text, tokenizerModel));
     }
 
     /**
@@ -167,50 +255,89 @@ public class AddressFinderMe extends BaseModel<AddressSpan> implements AddressFi
      */
     @Override
     public List<AddressSpan> find(String[] tokens) {
-        Span[] spans = this.find(tokens, EMPTY);
+        return find(new String[][]{tokens});
+    }
+
+    private List<AddressSpan> find(String[][] sentences) {
+        if (!findConfigData.isPrefilter()) {
+            return search(sentences);
+        }
+
+        if (!prefilter.hasAddressSignal(sentences)) {
+            // no zip and no street, neither beam search nor zip search can find an address.
+            return Collections.emptyList();
+        }
+
+        long start = System.nanoTime();
+        List<AddressSpan> addressSpans = search(sentences);
+        prefilter.addSearchTime(System.nanoTime() - start);
+        return addressSpans;
+    }
+
+    /**
+     * Returns prefilter with skip counters, null if finder is initialized for training.
+     */
+    public AddressPrefilter getPrefilter() {
+        return prefilter;
+    }
+
+    private List<AddressSpan> search(String[][] sentences) {
+        Span[] spans = findSpans(sentences);
+        String[] tokens = join(sentences);
+        List<AddressSpan> addressSpans;
         if (spans.length == 0) {
             // try to find address with zip code.
-            return tryToFindAddressByZip(tokens);
+            Timer timer = metrics.getPatternFallback();
+            long start = timer.start();
+            addressSpans = tryToFindAddressByZip(tokens);
+            timer.stop(start);
         } else {
-            List<Span> fullAddressSpans = new ArrayList<>();
-            for (Span span : spans) {
-                String spanType = span.getType();
-                if (spanType.contains(AddressSpan.PREFIX_TYPE_ADDRESS)) {
-                    fullAddressSpans.add(span);
-                }
-            }
+            Timer timer = metrics.getSpanBuilding();
+            long start = timer.start();
+            addressSpans = buildAddressSpans(spans, tokens);
+            timer.stop(start);
+        }
 
-            //find probabilities for address
-            double[] addressSpanProbs = this.probs(fullAddressSpans);
-
-            //3. add founded contact persons to the result list
-            List<AddressSpan> addressSpans = new ArrayList<>();
-            for (int i = 0; i < fullAddressSpans.size(); i++) {
-                Span fullAddressSpan = fullAddressSpans.get(i);
-                double probability = addressSpanProbs[i];
-                AddressSpan addressSpan =
-                        new AddressSpanBuilder(fullAddressSpan, probability, tokens).setCountries(countries)
-                                .setCsvAddressData(csvAddressDataList).build();
-                if (addressSpan.isValid()) {
-                    addressSpans.add(addressSpan);
-                }
+        metrics.countSpans(addressSpans);
+        return addressSpans;
+    }
+
+    private List<AddressSpan> buildAddressSpans(Span[] spans, String[] tokens) {
+        List<Span> fullAddressSpans = new ArrayList<>();
+        for (Span span : spans) {
+            String spanType = span.getType();
+            if (spanType.contains(AddressSpan.PREFIX_TYPE_ADDRESS)) {
+                fullAddressSpans.add(span);
             }
+        }
 
-            return removeDuplicated(addressSpans);
+        //find probabilities for address
+        double[] addressSpanProbs = this.probs(fullAddressSpans);
+
+        //3. add founded contact persons to the result list
+        List<AddressSpan> addressSpans = new ArrayList<>();
+        for (int i = 0; i < fullAddressSpans.size(); i++) {
+            Span fullAddressSpan = fullAddressSpans.get(i);
+            double probability = addressSpanProbs[i];
+            AddressSpan addressSpan = addressSpanBuilder.reset(fullAddressSpan, probability, tokens).build();
+            if (addressSpan.isValid()) {
+                addressSpans.add(addressSpan);
+            }
         }
+
+        return removeDuplicated(addressSpans);
     }
 
     private List<AddressSpan> tryToFindAddressByZip(String[] tokens) {
         tokens = removeAllSpecialChars(tokens);
         AddressSpan addressSpan = new AddressSpan(FindType.PATTERN);
-        Set<String> zipSet = extractZips();
-        String zip = findSetValueInToken(tokens, zipSet);
+        String zip = findSetValueInToken(tokens, zips);
+        zipHitRatio.record(zip != null);
         addressSpan.setZip(zip);
         addressSpan.setCountry(Constants.DEFAULT_COUNTRY);
         if (StringUtils.isNotBlank(zip)) {
-            zipSet.clear();
-            Set<String> citySet = extractCitiesByZip(zip);
-            String city = findSetValueInToken(tokens, citySet);
+            String city = findCityByZip(tokens, zip);
+            cityHitRatio.record(city != null);
             addressSpan.setCity(city);
             if (StringUtils.isNotBlank(city)) {
                 int zipIndex = tokenAt(tokens, zip);
@@ -261,7 +388,7 @@ public class AddressFinderMe extends BaseModel<AddressSpan> implements AddressFi
     private String[] removeAllSpecialChars(String[] tokens) {
         List<String> clearTokens = new ArrayList<>();
         for (String token : tokens) {
-            String clearToken = token.replaceAll("[+.^:,]", "");
+            String clearToken = AddressSpanBuilder.removeSpecialChars(token);
             if (StringUtils.isNotBlank(clearToken)) {
                 clearTokens.add(clearToken);
             }
@@ -287,56 +414,26 @@ public class AddressFinderMe extends BaseModel<AddressSpan> implements AddressFi
         return null;
     }
 
-    private Set<String> extractZips() {
-        return csvAddressDataList.stream().map(CSVAddressData::getZip).collect(Collectors.toSet());
-    }
-
-    private Set<String> extractCitiesByZip(String zip) {
-        return csvAddressDataList.stream().filter(addressData -> addressData.getZip().equals(zip))
-                .map(CSVAddressData::getCity).collect(Collectors.toSet());
-    }
-
-
-    private Span[] find(String[] tokens, String[][] additionalContext) {
-        this.additionalContextFeatureGenerator.setCurrentContext(additionalContext);
-        this.bestSequence = this.beam.bestSequence(tokens, additionalContext);
-        List<String> c = this.bestSequence.getOutcomes();
-        this.contextGenerator.updateAdaptiveData(tokens, c.toArray(new String[c.size()]));
-        int start = -1;
-        int end = -1;
-        ArrayList<Span> spans = new ArrayList<>(tokens.length);
-        for (int li = 0; li < c.size(); ++li) {
-            String chunkTag = c.get(li);
-            if (chunkTag.endsWith("start")) {
-                if (start != -1) {
-                    spans.add(new Span(start, end, c.get(li - 1)));
+    /**
+     * Returns the first city in tokens, which has the given zip. Cities can have more than one token.
+     */
+    private String findCityByZip(String[] tokens, String zip) {
+        for (TokenGazetteer.Match<List<CSVAddressData>> cityMatch : cityGazetteer.findAll(tokens)) {
+            for (CSVAddressData csvAddressData : cityMatch.getValue()) {
+                if (csvAddressData.getZip().equals(zip)) {
+                    return csvAddressData.getCity();
                 }
-
-                start = li;
-                end = li + 1;
-            } else if (chunkTag.endsWith("cont")) {
-                end = li + 1;
-            } else if (chunkTag.endsWith("other") && start != -1) {
-                spans.add(new Span(start, end, c.get(li - 1)));
-                start = -1;
-                end = -1;
             }
         }
-
-        if (start != -1) {
-            spans.add(new Span(start, end, c.get(c.size() - 1)));
-        }
-
-        return spans.toArray(new Span[spans.size()]);
+        return null;
     }
 
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void clearAdaptiveData() {
-        contextGenerator.clearAdaptiveData();
-        csvAddressDataList.clear();
-        countries.clear();
+        tagger.clearAdaptiveData();
     }
 }
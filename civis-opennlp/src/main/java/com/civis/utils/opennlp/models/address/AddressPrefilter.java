@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models.address;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cheap pre scan of the tokens to skip documents without address signals.
+ * <p/>
+ * Address signal is a 5-digit token, which is a known zip, or a token ending with a street suffix.
+ * <p/>
+ * Counters are thread safe. Saved time is estimated with average search time of not skipped documents.
+ */
+public class AddressPrefilter {
+
+    public static final List<String> STREET_SUFFIXES = Arrays.asList("str", "str.", "straße", "strasse", "weg", "platz");
+
+    private static final int ZIP_LENGTH = 5;
+
+    private final Set<String> zips;
+    private final LongAdder checkedCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder searchedCount = new LongAdder();
+    private final LongAdder searchedNanos = new LongAdder();
+
+    public AddressPrefilter(Set<String> zips) {
+        this.zips = zips;
+    }
+
+    /**
+     * Returns true, if one of the tokens is a known zip or ends with a street suffix.
+     */
+    public boolean hasAddressSignal(String[][] sentences) {
+        checkedCount.increment();
+        for (String[] tokens : sentences) {
+            for (String token : tokens) {
+                if (isZip(token) || hasStreetSuffix(token)) {
+                    return true;
+                }
+            }
+        }
+
+        skippedCount.increment();
+        return false;
+    }
+
+    private boolean isZip(String token) {
+        int length = token.length();
+        // allow one trailing char like 10719,
+        if (length < ZIP_LENGTH || length > ZIP_LENGTH + 1) {
+            return false;
+        }
+
+        for (int i = 0; i < ZIP_LENGTH; i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return zips.contains(length == ZIP_LENGTH ? token : token.substring(0, ZIP_LENGTH));
+    }
+
+    private boolean hasStreetSuffix(String token) {
+        String lowerCaseToken = token.toLowerCase();
+        for (String suffix : STREET_SUFFIXES) {
+            if (lowerCaseToken.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record search time of a not skipped document.
+     */
+    public void addSearchTime(long nanos) {
+        searchedCount.increment();
+        searchedNanos.add(nanos);
+    }
+
+    /**
+     * Returns count of checked documents.
+     */
+    public long getCheckedCount() {
+        return checkedCount.sum();
+    }
+
+    /**
+     * Returns count of skipped documents.
+     */
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+
+    /**
+     * Returns skipped documents / checked documents.
+     */
+    public double getSkipRate() {
+        long checked = getCheckedCount();
+        return checked == 0 ? 0 : (double) getSkippedCount() / checked;
+    }
+
+    /**
+     * Returns estimated saved time: count of skipped documents * average search time.
+     */
+    public long getSavedNanos() {
+        long searched = searchedCount.sum();
+        return searched == 0 ? 0 : getSkippedCount() * (searchedNanos.sum() / searched);
+    }
+}
@@ -17,51 +17,105 @@
 package com.civis.utils.opennlp.models.address;
 
 import com.civis.utils.csv.address.CSVAddressData;
+import com.civis.utils.gazetteer.SuffixTrie;
 import com.civis.utils.opennlp.features.StreetNumberFeature;
 import opennlp.tools.util.Span;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Utility class to build a address span.
+ * <p/>
+ * Builder can be reused for many spans, see <code>reset</code>. Gazetteers are shared and read only, building a span
+ * allocates only the result.
  */
 public class AddressSpanBuilder {
 
-    private final double probability;
-    private final Span originalSpan;
-    private final String[] tokens;
+    private static final String SPECIAL_CHARS = "+.^:,";
+
+    private final StringBuilder buffer;
+    private double probability;
+    private Span originalSpan;
+    private String[] tokens;
     private String street;
     private String streetNumber;
     private String city;
     private String zip;
     private String country;
-    private Set<String> countries;
-    private List<CSVAddressData> csvAddressDataList;
+    private SuffixTrie countryTrie;
+    private Map<String, CSVAddressData> addressDataByZip;
+
+    /**
+     * Reusable builder, call <code>reset</code> before build.
+     */
+    public AddressSpanBuilder() {
+        this.buffer = new StringBuilder();
+        this.addressDataByZip = Collections.emptyMap();
+    }
 
     public AddressSpanBuilder(Span span, double probability, String[] tokens) {
+        this();
+        reset(span, probability, tokens);
+    }
+
+    /**
+     * Prepare builder for the next span, gazetteers are kept.
+     */
+    public AddressSpanBuilder reset(Span span, double probability, String[] tokens) {
         this.originalSpan = span;
         this.probability = probability;
         this.tokens = tokens;
-        this.countries = new HashSet<>();
-        this.csvAddressDataList = new ArrayList<>();
+        this.street = null;
+        this.streetNumber = null;
+        this.city = null;
+        this.zip = null;
+        this.country = null;
+        return this;
     }
 
+    /**
+     * Build a country trie of the countries. Use <code>setCountryTrie</code> to share a trie between spans.
+     */
     public AddressSpanBuilder setCountries(Set<String> countries) {
-        this.countries.addAll(countries);
+        this.countryTrie = SuffixTrie.of(countries);
         return this;
     }
 
+    /**
+     * Shared read only trie of countries.
+     */
+    public AddressSpanBuilder setCountryTrie(SuffixTrie countryTrie) {
+        this.countryTrie = countryTrie;
+        return this;
+    }
+
+    /**
+     * Build a zip index of the address data. Use <code>setAddressDataByZip</code> to share an index between spans.
+     */
     public AddressSpanBuilder setCsvAddressData(List<CSVAddressData> csvAddressDataList) {
-        this.csvAddressDataList.addAll(csvAddressDataList);
+        Map<String, CSVAddressData> addressDataByZip = new HashMap<>();
+        for (CSVAddressData csvAddressData : csvAddressDataList) {
+            addressDataByZip.putIfAbsent(csvAddressData.getZip(), csvAddressData);
+        }
+        this.addressDataByZip = addressDataByZip;
+        return this;
+    }
+
+    /**
+     * Shared read only address data, Map-Key is zip, Map-Value is the first address data with this zip.
+     */
+    public AddressSpanBuilder setAddressDataByZip(Map<String, CSVAddressData> addressDataByZip) {
+        this.addressDataByZip = addressDataByZip;
         return this;
     }
 
     public AddressSpan build() {
-        parse(tokens);
+        parse();
         AddressSpan addressSpan = new AddressSpan();
         addressSpan.setProbability(probability);
         addressSpan.setStreet(street);
@@ -72,84 +126,94 @@ public class AddressSpanBuilder {
         return addressSpan;
     }
 
-    private void parse(String[] tokens) {
-        Span streetSpan = createStreetSpan(originalSpan.getStart(), originalSpan.getEnd(), tokens);
-        street = buildString(streetSpan, tokens);
-        Span streetNumberSpan = new Span(streetSpan.getEnd(), streetSpan.getEnd() + 1);
-        streetNumber = buildString(streetNumberSpan, tokens);
-        Span zipSpan = new Span(streetNumberSpan.getEnd(), streetNumberSpan.getEnd() + 1);
-        zip = buildString(zipSpan, tokens);
-        zip = zip.replaceAll("[+.^:,]", "");
+    private void parse() {
+        int streetEnd = findStreetEnd(originalSpan.getStart(), originalSpan.getEnd());
+        street = buildString(originalSpan.getStart(), streetEnd);
+        int streetNumberEnd = streetEnd + 1;
+        streetNumber = buildString(streetEnd, streetNumberEnd);
+        int zipStart = streetNumberEnd;
+        zip = removeSpecialChars(buildString(zipStart, zipStart + 1));
         if (StringUtils.isBlank(zip)) {
             // token include only special chars like , or .
             //try next zip token
             // use case Lindenstr. 19 , 12207 Berlin
-            zipSpan = new Span(zipSpan.getStart() + 1, zipSpan.getEnd() + 1);
-            zip = buildString(zipSpan, tokens);
+            zipStart++;
+            zip = buildString(zipStart, zipStart + 1);
         }
 
-        CSVAddressData csvAddressData = findAddressDataByZip(zip);
+        CSVAddressData csvAddressData = addressDataByZip.get(zip);
         if (csvAddressData != null) {
             city = csvAddressData.getCity();
             country = "Deutschland";
         } else {
-            String cityAndMaybeCountry = buildString(zipSpan.getEnd(), originalSpan.getEnd(), tokens);
+            String cityAndMaybeCountry = buildString(zipStart + 1, originalSpan.getEnd());
             country = tryToFindCountry(cityAndMaybeCountry);
             if (country == null) {
                 // no country found, means rest string is a city string
                 city = cityAndMaybeCountry;
             } else {
-                city = cityAndMaybeCountry.replace(country, "").trim();
+                city = cityAndMaybeCountry.substring(0, cityAndMaybeCountry.length() - country.length()).trim();
             }
         }
     }
 
     private String tryToFindCountry(String value) {
-        if (StringUtils.isBlank(value)) {
+        if (StringUtils.isBlank(value) || countryTrie == null) {
             return null;
         }
 
-        for (String country : countries) {
-            if (value.endsWith(country)) {
-                return country;
-            }
-        }
-        return null;
+        return countryTrie.longestSuffix(value);
     }
 
-    private CSVAddressData findAddressDataByZip(String zip) {
-        for (CSVAddressData csvAddressData : csvAddressDataList) {
-            if (csvAddressData.getZip().equals(zip)) {
-                return csvAddressData;
+    /**
+     * Remove chars <code>+.^:,</code> without regex, returns the same string if it has no special char.
+     */
+    static String removeSpecialChars(String value) {
+        int i = 0;
+        while (i < value.length() && SPECIAL_CHARS.indexOf(value.charAt(i)) < 0) {
+            i++;
+        }
+        if (i == value.length()) {
+            return value;
+        }
+
+        StringBuilder sb = new StringBuilder(value.length());
+        sb.append(value, 0, i);
+        for (; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (SPECIAL_CHARS.indexOf(c) < 0) {
+                sb.append(c);
             }
         }
-        return null;
+        return sb.toString();
     }
 
-    private String buildString(Span span, String[] tokens) {
-        return buildString(span.getStart(), span.getEnd(), tokens);
-    }
+    private String buildString(int start, int end) {
+        end = Math.min(end, tokens.length);
+        if (start >= end) {
+            return "";
+        }
+        if (end - start == 1) {
+            return tokens[start];
+        }
 
-    private String buildString(int start, int end, String[] tokens) {
-        StringBuilder sb = new StringBuilder();
+        buffer.setLength(0);
         for (int i = start; i < end; i++) {
-            sb.append(tokens[i]);
-            sb.append(" ");
-        }
-        if (sb.length() > 1) {
-            sb.setLength(sb.length() - 1);
+            buffer.append(tokens[i]);
+            buffer.append(" ");
         }
-        return sb.toString();
+        buffer.setLength(buffer.length() - 1);
+        return buffer.toString();
     }
 
-    private Span createStreetSpan(int start, int end, String[] tokens) {
+    private int findStreetEnd(int start, int end) {
         for (int i = start; i < end; i++) {
             if (StreetNumberFeature.STREET_NUMBER_PATTERN.matcher(tokens[i]).matches()) {
-                return new Span(start, i);
+                return i;
             }
         }
 
-        return new Span(start, end);
+        return end;
     }
 
 }
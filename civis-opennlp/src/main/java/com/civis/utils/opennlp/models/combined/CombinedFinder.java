@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models.combined;
+
+import opennlp.tools.tokenize.TokenizerModel;
+
+/**
+ * This interface include methods to find address and contact persons in one pass.
+ */
+public interface CombinedFinder {
+
+    /**
+     * Find all addresses and contact persons in text.
+     *
+     * @param tokens tokenized text.
+     *
+     * @return founded addresses and contact persons.
+     */
+    CombinedResult find(String[] tokens);
+
+    /**
+     * Find all addresses and contact persons in text.
+     *
+     * @param text           plain text.
+     * @param tokenizerModel model to tokenize the given text.
+     *
+     * @return founded addresses and contact persons.
+     */
+    CombinedResult find(String text, TokenizerModel tokenizerModel);
+
+    /**
+     * Find all addresses and contact persons in text.
+     * <p/>
+     * Default tokenizerModel <code>ModelPath.DE_TOKEN_BIN</code>
+     *
+     * @param text plain text.
+     *
+     * @return founded addresses and contact persons.
+     */
+    CombinedResult find(String text);
+
+    /**
+     * Clear adaptive data, should be called after each document.
+     */
+    void clearAdaptiveData();
+}
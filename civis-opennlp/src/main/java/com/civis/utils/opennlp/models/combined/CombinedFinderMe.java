@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models.combined;
+
+import com.civis.utils.opennlp.features.FirstCapitalLetterFeature;
+import com.civis.utils.opennlp.features.SharedTokenFeatureGenerator;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.ModelLoadException;
+import com.civis.utils.opennlp.models.address.AddressFinder;
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinder;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinderMe;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.tokenize.Tokenizer;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * This is a combined address and contact person finder.
+ * <p/>
+ * The text is tokenized once and the first capital letter feature, used by both models, is computed once.
+ * Both beam searches run over the same token array, in parallel if a pool is given.
+ */
+public class CombinedFinderMe implements CombinedFinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CombinedFinderMe.class);
+
+    private final SharedTokenFeatureGenerator firstCapitalLetterFeature;
+    private final AddressFinder addressFinder;
+    private final ContactPersonFinder contactPersonFinder;
+    private final ForkJoinPool pool;
+
+    /**
+     * Combined finder, both models run one after another in the current thread.
+     */
+    public CombinedFinderMe(TokenNameFinderModel addressModel, TokenNameFinderModel contactPersonModel) {
+        this(addressModel, contactPersonModel, null);
+    }
+
+    /**
+     * Combined finder, the address model runs in the given pool while contact person model runs in the current
+     * thread.
+     *
+     * @param pool pool to run the address model, if null both models run in the current thread.
+     */
+    public CombinedFinderMe(TokenNameFinderModel addressModel, TokenNameFinderModel contactPersonModel,
+                            ForkJoinPool pool) {
+        this.firstCapitalLetterFeature = new SharedTokenFeatureGenerator(new FirstCapitalLetterFeature());
+        this.addressFinder = new AddressFinderMe(addressModel, firstCapitalLetterFeature);
+        this.contactPersonFinder = new ContactPersonFinderMe(contactPersonModel, firstCapitalLetterFeature);
+        this.pool = pool;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CombinedResult find(String[] tokens) {
+        firstCapitalLetterFeature.prepare(tokens);
+        if (pool == null) {
+            List<AddressSpan> addressSpans = addressFinder.find(tokens);
+            List<ContactPersonSpan> contactPersonSpans = contactPersonFinder.find(tokens);
+            return new CombinedResult(addressSpans, contactPersonSpans);
+        } else {
+            ForkJoinTask<List<AddressSpan>> addressTask = pool.submit(() -> addressFinder.find(tokens));
+            List<ContactPersonSpan> contactPersonSpans = contactPersonFinder.find(tokens);
+            return new CombinedResult(addressTask.join(), contactPersonSpans);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CombinedResult find(String text, TokenizerModel tokenizerModel) {
+        Tokenizer tokenizer = new TokenizerME(tokenizerModel);
+        String[] tokens = tokenizer.tokenize(text);
+        return find(tokens);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CombinedResult find(String text) {
+        try {
+            return find(text, ModelFactory.getTokenizerModel());
+        } catch (ModelLoadException e) {
+            LOG.error("Tokenizer Models can not be loaded successfully!", e);
+        }
+
+        return new CombinedResult(Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clearAdaptiveData() {
+        addressFinder.clearAdaptiveData();
+        contactPersonFinder.clearAdaptiveData();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models.combined;
+
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+
+import java.util.List;
+
+/**
+ * Result of combined finder with founded addresses and contact persons of one text.
+ */
+public class CombinedResult {
+
+    private final List<AddressSpan> addressSpans;
+    private final List<ContactPersonSpan> contactPersonSpans;
+
+    public CombinedResult(List<AddressSpan> addressSpans, List<ContactPersonSpan> contactPersonSpans) {
+        this.addressSpans = addressSpans;
+        this.contactPersonSpans = contactPersonSpans;
+    }
+
+    public List<AddressSpan> getAddressSpans() {
+        return addressSpans;
+    }
+
+    public List<ContactPersonSpan> getContactPersonSpans() {
+        return contactPersonSpans;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CombinedResult)) {
+            return false;
+        }
+
+        CombinedResult that = (CombinedResult) o;
+
+        return getAddressSpans().equals(that.getAddressSpans()) &&
+                getContactPersonSpans().equals(that.getContactPersonSpans());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = getAddressSpans().hashCode();
+        result = 31 * result + getContactPersonSpans().hashCode();
+        return result;
+    }
+}
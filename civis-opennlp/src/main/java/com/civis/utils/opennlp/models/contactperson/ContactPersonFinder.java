@@ -22,9 +22,4 @@ import com.civis.utils.opennlp.models.DefaultFinder;
  * This interface include methods to find contact person.
  */
 public interface ContactPersonFinder extends DefaultFinder<ContactPersonSpan> {
-
-    /**
-     * Clear Data.
-     */
-    void clearAdaptiveData();
 }
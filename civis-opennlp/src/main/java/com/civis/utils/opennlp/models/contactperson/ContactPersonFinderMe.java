@@ -16,35 +16,37 @@
 
 package com.civis.utils.opennlp.models.contactperson;
 
-import com.civis.utils.csv.names.CSVNameData;
-import com.civis.utils.csv.names.CSVNamesReader;
+import com.civis.utils.csv.names.NameDictionary;
+import com.civis.utils.metrics.HitRatio;
+import com.civis.utils.metrics.Timer;
 import com.civis.utils.opennlp.features.ContactPersonFeatureGenerator;
 import com.civis.utils.opennlp.features.FirstCapitalLetterFeature;
 import com.civis.utils.opennlp.features.FirstNameFeatureGenerator;
 import com.civis.utils.opennlp.models.BaseModel;
+import com.civis.utils.opennlp.models.BeamTagger;
+import com.civis.utils.opennlp.models.FindConfigData;
 import com.civis.utils.opennlp.models.FindType;
-import com.civis.utils.opennlp.models.ModelPath;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.ModelLoadException;
 import com.civis.utils.opennlp.models.TrainConfigData;
 import com.civis.utils.opennlp.models.TrainModel;
 import com.civis.utils.opennlp.utils.Constants;
+import com.civis.utils.opennlp.utils.Gazetteers;
 import com.civis.utils.opennlp.validators.ContactPersonFinderSequenceValidator;
+import opennlp.model.MaxentModel;
 import opennlp.tools.namefind.DefaultNameContextGenerator;
 import opennlp.tools.namefind.NameContextGenerator;
 import opennlp.tools.namefind.TokenNameFinderModel;
-import opennlp.tools.tokenize.Tokenizer;
-import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
-import opennlp.tools.util.BeamSearch;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
-import opennlp.tools.util.featuregen.AdditionalContextFeatureGenerator;
 import opennlp.tools.util.featuregen.CachedFeatureGenerator;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -62,28 +64,81 @@ import java.util.regex.Pattern;
  */
 public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implements ContactPersonFinder, TrainModel {
 
+    public static final String FINDER_NAME = "contactPerson";
+
+    /**
+     * Version of default features, increment it whenever default features change to reject old event cache files.
+     */
+    public static final int FEATURE_VERSION = 1;
+
     private final static Logger LOG = LoggerFactory.getLogger(ContactPersonFinderMe.class);
     private static final Pattern typedOutcomePattern = Pattern.compile("(.+)-\\w+");
-    private static String[][] EMPTY = new String[0][0];
-    protected NameContextGenerator contextGenerator;
-    private AdditionalContextFeatureGenerator additionalContextFeatureGenerator;
+    private static final int TRIGRAM_LENGTH = 3;
+    private AdaptiveFeatureGenerator firstCapitalLetterFeature;
     private FirstNameFeatureGenerator firstNameFeatureGenerator;
-    private Map<String, String> mapNamesGender;
+    private final NameDictionary nameDictionary;
+    private HitRatio firstNameHitRatio;
 
     public ContactPersonFinderMe(TokenNameFinderModel model) {
-        super(model.getNameFinderModel());
-        initMapNamesGender();
+        this(model, new FirstCapitalLetterFeature());
+    }
 
-        Set<String> excludeNames = generateExcludeNames();
-        firstNameFeatureGenerator = new FirstNameFeatureGenerator(this.mapNamesGender.keySet(), excludeNames);
-        additionalContextFeatureGenerator = new AdditionalContextFeatureGenerator();
-        AdaptiveFeatureGenerator featureGenerator = createDefaultFeatureGenerator();
-        contextGenerator = new DefaultNameContextGenerator(featureGenerator);
-        contextGenerator.addFeatureGenerator(firstNameFeatureGenerator);
+    /**
+     * Constructor to share the first capital letter feature with other finders.
+     *
+     * @param model                     contact person model.
+     * @param firstCapitalLetterFeature generator, which creates the same features as
+     *                                  <code>FirstCapitalLetterFeature</code>.
+     */
+    public ContactPersonFinderMe(TokenNameFinderModel model, AdaptiveFeatureGenerator firstCapitalLetterFeature) {
+        this(model, firstCapitalLetterFeature, FindConfigData.defaultConfig());
+    }
 
-        SequenceValidator<String> sequenceValidator = new ContactPersonFinderSequenceValidator();
-        beam = new BeamSearch<>(DEFAULT_BEAM_SIZE, contextGenerator, nameFinderModel, sequenceValidator,
-                DEFAULT_BEAM_SIZE);
+    public ContactPersonFinderMe(TokenNameFinderModel model, FindConfigData findConfigData) {
+        this(model, new FirstCapitalLetterFeature(), findConfigData);
+    }
+
+    /**
+     * Constructor to share the first capital letter feature with other finders.
+     *
+     * @param model                     contact person model.
+     * @param firstCapitalLetterFeature generator, which creates the same features as
+     *                                  <code>FirstCapitalLetterFeature</code>.
+     * @param findConfigData            sentence model and pool to search sentences in parallel.
+     */
+    public ContactPersonFinderMe(TokenNameFinderModel model, AdaptiveFeatureGenerator firstCapitalLetterFeature,
+                                 FindConfigData findConfigData) {
+        this(model.getNameFinderModel(), firstCapitalLetterFeature, findConfigData);
+    }
+
+    /**
+     * Constructor for a model, which is not loaded as TokenNameFinderModel, like <code>MappedMaxentModel</code>.
+     *
+     * @param nameFinderModel contact person model.
+     * @param findConfigData  sentence model and pool to search sentences in parallel.
+     */
+    public ContactPersonFinderMe(MaxentModel nameFinderModel, FindConfigData findConfigData) {
+        this(nameFinderModel, new FirstCapitalLetterFeature(), findConfigData);
+    }
+
+    /**
+     * Constructor to share the first capital letter feature with other finders.
+     *
+     * @param nameFinderModel           contact person model.
+     * @param firstCapitalLetterFeature generator, which creates the same features as
+     *                                  <code>FirstCapitalLetterFeature</code>.
+     * @param findConfigData            sentence model and pool to search sentences in parallel.
+     */
+    public ContactPersonFinderMe(MaxentModel nameFinderModel, AdaptiveFeatureGenerator firstCapitalLetterFeature,
+                                 FindConfigData findConfigData) {
+        super(nameFinderModel, findConfigData);
+        this.nameDictionary = Gazetteers.getNameDictionary();
+        this.firstCapitalLetterFeature = firstCapitalLetterFeature;
+
+        Set<String> excludeNames = generateExcludeNames();
+        firstNameFeatureGenerator = new FirstNameFeatureGenerator(nameDictionary, excludeNames);
+        this.tagger = createTagger();
+        this.firstNameHitRatio = metrics.gazetteer("firstName");
     }
 
     /**
@@ -91,6 +146,7 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
      */
     public ContactPersonFinderMe(TrainConfigData trainConfigData) {
         super(trainConfigData);
+        this.nameDictionary = NameDictionary.of(Collections.emptyMap());
         setDefaultTrainingParametersIfNull();
     }
 
@@ -113,6 +169,14 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
         return new ContactPersonFinderMe(trainConfigData);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getSpanType(String outcome) {
+        return extractNameType(outcome);
+    }
+
     private String extractNameType(String outcome) {
         Matcher matcher = typedOutcomePattern.matcher(outcome);
         if (matcher.matches()) {
@@ -122,20 +186,6 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
         }
     }
 
-    /**
-     * Generate map with more than 18.000 names.
-     * Map-Key is name, Map-Value is gender.
-     * <p/>
-     * CsvNameReader read data from file names.csv in civis-csv module.
-     */
-    private void initMapNamesGender() {
-        this.mapNamesGender = new HashMap<>();
-        List<CSVNameData> nameDataList = CSVNamesReader.read();
-        for (CSVNameData csvNameData : nameDataList) {
-            mapNamesGender.put(csvNameData.getName(), csvNameData.getGender());
-        }
-    }
-
     private Set<String> generateExcludeNames() {
         Set<String> excludeNames = new HashSet<>();
         excludeNames.add("Land");
@@ -150,7 +200,7 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
      */
     @Override
     public void clearAdaptiveData() {
-        contextGenerator.clearAdaptiveData();
+        tagger.clearAdaptiveData();
     }
 
     //-------------------------------------------------------------------------------------------------------
@@ -162,11 +212,43 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
      */
     @Override
     public AdaptiveFeatureGenerator createDefaultFeatureGenerator() {
+        return createFeatureGenerator(new FirstCapitalLetterFeature());
+    }
+
+    private AdaptiveFeatureGenerator createFeatureGenerator(AdaptiveFeatureGenerator firstCapitalLetterFeature) {
         AdaptiveFeatureGenerator[] defaultFeatures =
-                new AdaptiveFeatureGenerator[]{new ContactPersonFeatureGenerator(), new FirstCapitalLetterFeature()};
+                new AdaptiveFeatureGenerator[]{new ContactPersonFeatureGenerator(), firstCapitalLetterFeature};
         return new CachedFeatureGenerator(defaultFeatures);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getFeatureVersion() {
+        return FEATURE_VERSION;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BeamTagger createTagger() {
+        NameContextGenerator contextGenerator =
+                new DefaultNameContextGenerator(createFeatureGenerator(firstCapitalLetterFeature));
+        contextGenerator.addFeatureGenerator(firstNameFeatureGenerator.copy());
+        SequenceValidator<String> sequenceValidator = new ContactPersonFinderSequenceValidator();
+        return new BeamTagger(contextGenerator, nameFinderModel, sequenceValidator, findConfigData);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getFinderName() {
+        return FINDER_NAME;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -184,9 +266,7 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
      */
     @Override
     public List<ContactPersonSpan> find(String text, TokenizerModel tokenizerModel) {
-        Tokenizer tokenizer = new TokenizerME(tokenizerModel);
-        String[] tokens = tokenizer.tokenize(text);
-        return find(tokens);
+        return find(tokenize(text, tokenizerModel));
     }
 
     /**
@@ -194,56 +274,50 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
      */
     @Override
     public List<ContactPersonSpan> find(String text) {
-        try (InputStream tokenizerModelInputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(
-                ModelPath.DE_TOKEN_BIN)) {
-            TokenizerModel modelToken = new TokenizerModel(tokenizerModelInputStream);
-            return find(text, modelToken);
-        } catch (Exception e) {
+        try {
+            return find(text, ModelFactory.getTokenizerModel());
+        } catch (ModelLoadException e) {
             LOG.error("Tokenizer Models can not be loaded successfully!", e);
         }
 
         return Collections.emptyList();
     }
 
-    private Span[] find(String[] tokens, String[][] additionalContext) {
-        this.additionalContextFeatureGenerator.setCurrentContext(additionalContext);
-        this.bestSequence = this.beam.bestSequence(tokens, additionalContext);
-        List<String> c = this.bestSequence.getOutcomes();
-        this.contextGenerator.updateAdaptiveData(tokens, c.toArray(new String[c.size()]));
-        int start = -1;
-        int end = -1;
-        ArrayList<Span> spans = new ArrayList<>(tokens.length);
-        for (int li = 0; li < c.size(); ++li) {
-            String chunkTag = c.get(li);
-            if (chunkTag.endsWith("start")) {
-                if (start != -1) {
-                    spans.add(new Span(start, end, extractNameType(c.get(li - 1))));
-                }
-
-                start = li;
-                end = li + 1;
-            } else if (chunkTag.endsWith("cont")) {
-                end = li + 1;
-            } else if (start != -1 && chunkTag.endsWith("other")) {
-                spans.add(new Span(start, end, extractNameType(c.get(li - 1))));
-                start = -1;
-                end = -1;
-            }
-        }
-
-        if (start != -1) {
-            spans.add(new Span(start, end, extractNameType(c.get(c.size() - 1))));
-        }
-
-        return spans.toArray(new Span[spans.size()]);
-    }
-
     /**
      * {@inheritDoc}
      */
     @Override
     public List<ContactPersonSpan> find(String[] tokens) {
-        Span[] spans = this.find(tokens, EMPTY);
+        return find(new String[][]{tokens});
+    }
+
+    private List<ContactPersonSpan> find(String[][] sentences) {
+        Span[] spans = findSpans(sentences);
+        String[] tokens = join(sentences);
+        Timer timer = metrics.getSpanBuilding();
+        long start = timer.start();
+        Set<ContactPersonSpan> contactSpans = buildContactPersonSpans(spans, tokens);
+        List<ContactPersonSpan> contactPersonSpans;
+        if (!contactSpans.isEmpty()) {
+            //contact persons found
+            //TODO it should be a better solution to remove similarity items.
+            // like Rene Mono and Rene.
+            contactPersonSpans = removeSimilarity(contactSpans);
+            timer.stop(start);
+        } else {
+            timer.stop(start);
+            //contact persons not found, than check in firstNameFeatureGenerator
+            timer = metrics.getPatternFallback();
+            start = timer.start();
+            contactPersonSpans = getContactPersonsFromFirstNameFeature(tokens);
+            timer.stop(start);
+        }
+
+        metrics.countSpans(contactPersonSpans);
+        return contactPersonSpans;
+    }
+
+    private Set<ContactPersonSpan> buildContactPersonSpans(Span[] spans, String[] tokens) {
         List<Span> personSpans = new ArrayList<>();
         List<Span> salutationSpans = new ArrayList<>();
         for (Span span : spans) {
@@ -264,6 +338,9 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
         for (int i = 0; i < personSpans.size(); i++) {
             Span personSpan = personSpans.get(i);
             String firstName = tokens[personSpan.getStart()];
+            if (metrics.isEnabled()) {
+                firstNameHitRatio.record(nameDictionary.contains(firstName));
+            }
             String sexPrefix = findSex(firstName, salutationSpans, tokens);
             double probability = personSpanProbs[i];
 
@@ -283,31 +360,39 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
             }
         }
 
-        if (!contactSpans.isEmpty()) {
-            //contact persons found
-            //TODO it should be a better solution to remove similarity items.
-            // like Rene Mono and Rene.
-            return removeSimilarity(contactSpans);
-        } else {
-            //contact persons not found, than check in firstNameFeatureGenerator
-            return getContactPersonsFromFirstNameFeature(tokens);
-        }
+        return contactSpans;
     }
 
     /**
      * Remove similarity contact persons items.
      * <p/>
-     * Similarity contact person items are two items, that are not equal, but their first or second name are equal.
-     * If a similarity contact person found return contact with better probability value!
+     * Similarity contact person items are two items, that are not equal, but the full name of one contains the full
+     * name of the other, white spaces removed. If a similarity contact person found return contact with better
+     * probability value!
+     * <p/>
+     * Contacts are indexed by the trigrams of their full names. A full name containing another one contains all its
+     * trigrams, so only contacts sharing the rarest trigram of a name are compared, with the same result as comparing
+     * all pairs.
      */
-    private List<ContactPersonSpan> removeSimilarity(Set<ContactPersonSpan> contactPersonSpans) {
-        Set<ContactPersonSpan> result = new HashSet<>();
-        if (contactPersonSpans.size() < 1) {
+    static List<ContactPersonSpan> removeSimilarity(Set<ContactPersonSpan> contactPersonSpans) {
+        if (contactPersonSpans.size() < 2) {
             return toList(contactPersonSpans);
         }
 
-        for (ContactPersonSpan contactPersonSpan : contactPersonSpans) {
-            ContactPersonSpan similarityContact = findSimilarityItem(contactPersonSpans, contactPersonSpan);
+        List<ContactPersonSpan> contacts = toList(contactPersonSpans);
+        String[] fullNames = new String[contacts.size()];
+        Map<String, List<Integer>> trigramIndex = new HashMap<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            fullNames[i] = contacts.get(i).getFullNameWithoutWhiteSpace();
+            for (String trigram : getTrigrams(fullNames[i])) {
+                trigramIndex.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Set<ContactPersonSpan> result = new HashSet<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            ContactPersonSpan contactPersonSpan = contacts.get(i);
+            ContactPersonSpan similarityContact = findSimilarityItem(contacts, fullNames, trigramIndex, i);
             if (similarityContact != null && similarityContact.getProbability() > contactPersonSpan.getProbability()) {
                 //similarity contact has a better probability value.
                 result.add(similarityContact);
@@ -319,16 +404,45 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
         return toList(result);
     }
 
-    private List<ContactPersonSpan> toList(Set<ContactPersonSpan> contactPersonSpans) {
+    private static List<ContactPersonSpan> toList(Set<ContactPersonSpan> contactPersonSpans) {
         return new ArrayList<>(contactPersonSpans);
     }
 
-    private ContactPersonSpan findSimilarityItem(Set<ContactPersonSpan> contactPersonSpans, ContactPersonSpan check) {
-        for (ContactPersonSpan contactPersonSpan : contactPersonSpans) {
-            if (!contactPersonSpan.equals(check)) {
-                if (contactPersonSpan.contains(check.getFullNameWithoutWhiteSpace())) {
-                    return contactPersonSpan;
-                }
+    private static Set<String> getTrigrams(String fullName) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= fullName.length(); i++) {
+            trigrams.add(fullName.substring(i, i + TRIGRAM_LENGTH));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Returns the first contact (in list order), that contains the full name of the contact at check index.
+     * <p/>
+     * Names shorter than a trigram are compared with all contacts.
+     */
+    private static ContactPersonSpan findSimilarityItem(List<ContactPersonSpan> contacts, String[] fullNames,
+                                                        Map<String, List<Integer>> trigramIndex, int checkIndex) {
+        String checkFullName = fullNames[checkIndex];
+        if (StringUtils.isBlank(checkFullName)) {
+            return null;
+        }
+
+        List<Integer> candidates = null;
+        for (String trigram : getTrigrams(checkFullName)) {
+            List<Integer> trigramCandidates = trigramIndex.get(trigram);
+            if (candidates == null || trigramCandidates.size() < candidates.size()) {
+                candidates = trigramCandidates;
+            }
+        }
+
+        ContactPersonSpan check = contacts.get(checkIndex);
+        int candidateCount = candidates != null ? candidates.size() : contacts.size();
+        for (int i = 0; i < candidateCount; i++) {
+            // candidate indexes are sorted, so the first found is the first in list order.
+            int index = candidates != null ? candidates.get(i) : i;
+            if (!contacts.get(index).equals(check) && fullNames[index].contains(checkFullName)) {
+                return contacts.get(index);
             }
         }
 
@@ -337,16 +451,15 @@ public class ContactPersonFinderMe extends BaseModel<ContactPersonSpan> implemen
 
     private List<ContactPersonSpan> getContactPersonsFromFirstNameFeature(String[] tokens) {
         List<ContactPersonSpan> contactSpans = new ArrayList<>();
-        for (Integer firstNameIndex : firstNameFeatureGenerator.getIndexes()) {
+        for (Integer firstNameIndex : firstNameFeatureGenerator.findIndexes(tokens)) {
             String firstName = tokens[firstNameIndex];
             String secondName = tokens[firstNameIndex + 1];
-            String sexPrefix = mapNamesGender.get(firstName);
+            String sexPrefix = nameDictionary.getGender(firstName);
             ContactPersonSpan contactPersonSpan = new ContactPersonSpan(firstName, secondName, sexPrefix);
             contactPersonSpan.setFindType(FindType.PATTERN);
             contactSpans.add(contactPersonSpan);
         }
 
-        firstNameFeatureGenerator.clear();
         return contactSpans;
     }
 
@@ -31,20 +31,22 @@ import java.io.IOException;
 
 /**
  * Utility class to train a model.
+ * <p/>
+ * Arguments: count of training threads (default 1), glob of train files, gzip files included (default address-train.txt
+ * in classpath).
  */
 public class AddressModelTrainRunner {
 
     private final static Logger LOG = LoggerFactory.getLogger(AddressModelTrainRunner.class);
 
     public static void main(String[] args) {
-
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : TrainConfigData.DEFAULT_THREADS;
         ObjectStream<NameSample> sampleStream = null;
         try {
-            sampleStream = IOTrain.readData("address-train.txt");
+            sampleStream = args.length > 1 ? IOTrain.readFiles(args[1]) : IOTrain.readData("address-train.txt");
             TrainConfigData trainConfigData =
                     new TrainConfigDataBuilder().setLanguageCode("de").setType("address").setSamples(sampleStream)
-                            .putCutoffIntoTrainingParameters(
-                                    "1").build();
+                            .putCutoffIntoTrainingParameters("1").setThreads(threads).build();
 
             TokenNameFinderModel model = AddressFinderMe.initializeTrainModel(trainConfigData).train();
             IOTrain.writeData(model, "de-address.bin");
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.runners;
+
+import com.civis.utils.opennlp.evaluation.ModelType;
+import com.civis.utils.opennlp.models.FindConfigData;
+import com.civis.utils.opennlp.models.TokenNameFinderAdapter;
+import com.civis.utils.opennlp.utils.CompactModel;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderEvaluator;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.CollectionObjectStream;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Utility class to write a trained model in compact format.
+ * <p/>
+ * Logs size, load time and F1 of train samples of the bin model and of the compact model.
+ * <p/>
+ * Arguments: model type address or contact-person (default contact-person), precision FLOAT or BYTE (default BYTE),
+ * prune threshold (default 0.01), output file (default model file name with '.compact' suffix).
+ */
+public class CompactModelRunner {
+
+    private final static Logger LOG = LoggerFactory.getLogger(CompactModelRunner.class);
+    private static final int LOADS = 20;
+
+    public static void main(String[] args) {
+        ModelType modelType = ModelType.of(args.length > 0 ? args[0] : ModelType.CONTACT_PERSON.getType());
+        CompactModel.Precision precision = CompactModel.Precision.valueOf(args.length > 1 ? args[1] : "BYTE");
+        double pruneThreshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.01;
+        String modelFileName = Paths.get(modelType.getModelPath()).getFileName().toString();
+        Path outputFile = Paths.get(args.length > 3 ? args[3] : modelFileName.replace(".bin", ".compact"));
+        try (InputStream modelInputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(modelType.getModelPath())) {
+            byte[] binModel = IOUtils.toByteArray(modelInputStream);
+            TokenNameFinderModel model = new TokenNameFinderModel(new ByteArrayInputStream(binModel));
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            int paramCount = CompactModel.write(model, precision, pruneThreshold, output);
+            byte[] compactModel = output.toByteArray();
+            Files.write(outputFile, compactModel);
+            TokenNameFinderModel loadedModel = CompactModel.read(new ByteArrayInputStream(compactModel));
+
+            List<NameSample> samples = IOTrain.readSamples(modelType.getTrainFileName());
+            double f1 = evaluate(modelType, model, samples);
+            double compactF1 = evaluate(modelType, loadedModel, samples);
+            LOG.info("{} parameters, precision {}, prune threshold {}", paramCount, precision, pruneThreshold);
+            LOG.info(String.format("bin    : %7d bytes, load %6.2f ms, F1 %.4f", binModel.length,
+                    loadMillis(binModel, false), f1));
+            LOG.info(String.format("compact: %7d bytes, load %6.2f ms, F1 %.4f (delta %+.4f), written to %s",
+                    compactModel.length, loadMillis(compactModel, true), compactF1, compactF1 - f1, outputFile));
+        } catch (Exception e) {
+            LOG.error("Exception occurred in model compact process", e);
+        }
+    }
+
+    private static double evaluate(ModelType modelType, TokenNameFinderModel model, List<NameSample> samples)
+            throws IOException {
+        TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(
+                new TokenNameFinderAdapter(modelType.createFinder(model, FindConfigData.defaultConfig())));
+        evaluator.evaluate(new CollectionObjectStream<>(samples));
+        return evaluator.getFMeasure().getFMeasure();
+    }
+
+    /**
+     * Returns average load time of the model from memory, first loads are warm-up.
+     */
+    private static double loadMillis(byte[] model, boolean compact) throws IOException {
+        for (int i = 0; i < LOADS; i++) {
+            load(model, compact);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOADS; i++) {
+            load(model, compact);
+        }
+        return (System.nanoTime() - start) / 1000000.0 / LOADS;
+    }
+
+    private static TokenNameFinderModel load(byte[] model, boolean compact) throws IOException {
+        InputStream inputStream = new ByteArrayInputStream(model);
+        return compact ? CompactModel.read(inputStream) : new TokenNameFinderModel(inputStream);
+    }
+}
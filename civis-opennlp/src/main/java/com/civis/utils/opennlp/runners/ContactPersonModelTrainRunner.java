@@ -31,19 +31,23 @@ import java.io.IOException;
 
 /**
  * Utility class to train a model.
+ * <p/>
+ * Arguments: count of training threads (default 1), glob of train files, gzip files included (default contact-train.txt
+ * in classpath).
  */
 public class ContactPersonModelTrainRunner {
 
     private final static Logger LOG = LoggerFactory.getLogger(ContactPersonModelTrainRunner.class);
 
     public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : TrainConfigData.DEFAULT_THREADS;
         ObjectStream<NameSample> sampleStream = null;
         try {
-            sampleStream = IOTrain.readData("contact-train.txt");
+            sampleStream = args.length > 1 ? IOTrain.readFiles(args[1]) : IOTrain.readData("contact-train.txt");
             TrainConfigData trainConfigData =
                     new TrainConfigDataBuilder().setLanguageCode("de").setType("contact-person")
                             .setSamples(sampleStream)
-                            .putCutoffIntoTrainingParameters("1").build();
+                            .putCutoffIntoTrainingParameters("1").setThreads(threads).build();
 
             TokenNameFinderModel model = ContactPersonFinderMe.initializeTrainModel(trainConfigData).train();
             IOTrain.writeData(model, "de-contact-person.bin");
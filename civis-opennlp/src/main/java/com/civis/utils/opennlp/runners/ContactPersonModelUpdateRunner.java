@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.runners;
+
+
+import com.civis.utils.opennlp.models.ModelPath;
+import com.civis.utils.opennlp.models.TrainConfigData;
+import com.civis.utils.opennlp.models.TrainConfigDataBuilder;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinderMe;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.ObjectStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Utility class to update the trained contact person model with new annotated samples.
+ * <p/>
+ * Arguments: glob of new train files, gzip files included (required), iterations (default 10), cutoff (default 1).
+ */
+public class ContactPersonModelUpdateRunner {
+
+    private final static Logger LOG = LoggerFactory.getLogger(ContactPersonModelUpdateRunner.class);
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            LOG.error("Glob of new train files is required!");
+            return;
+        }
+
+        String iterations = args.length > 1 ? args[1] : "10";
+        String cutoff = args.length > 2 ? args[2] : "1";
+        ObjectStream<NameSample> sampleStream = null;
+        try (InputStream modelInputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(ModelPath.DE_CONTACT_PERSON_BIN)) {
+            TokenNameFinderModel model = new TokenNameFinderModel(modelInputStream);
+            sampleStream = IOTrain.readFiles(args[0]);
+            TrainConfigData trainConfigData =
+                    new TrainConfigDataBuilder().setLanguageCode("de").setType("contact-person")
+                            .setSamples(sampleStream).putCutoffIntoTrainingParameters(cutoff)
+                            .putIterationsIntoTrainingParameters(iterations).build();
+
+            long start = System.currentTimeMillis();
+            TokenNameFinderModel updatedModel = ContactPersonFinderMe.initializeTrainModel(trainConfigData)
+                    .update(model);
+            LOG.info("Model updated in {} ms", System.currentTimeMillis() - start);
+            IOTrain.writeData(updatedModel, "de-contact-person.bin");
+        } catch (Exception e) {
+            LOG.error("Exception occurred in model update process", e);
+        } finally {
+            if (sampleStream != null) {
+                try {
+                    sampleStream.close();
+                } catch (IOException e) {
+                    LOG.error(e.getMessage());
+                }
+            }
+        }
+    }
+}
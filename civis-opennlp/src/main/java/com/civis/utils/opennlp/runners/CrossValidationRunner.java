@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.runners;
+
+import com.civis.utils.opennlp.evaluation.CrossValidator;
+import com.civis.utils.opennlp.evaluation.FoldResult;
+import com.civis.utils.opennlp.evaluation.ModelType;
+import com.civis.utils.opennlp.models.FindConfigData;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.eval.FMeasure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Utility class to evaluate a model with k-fold cross validation.
+ * <p/>
+ * Folds are trained in parallel, precision, recall, F1 and training time are logged per fold and for all folds.
+ * <p/>
+ * Arguments: model type address or contact-person (default contact-person), folds (default 10),
+ * threads (default available processors), cutoff (default 1), iterations (default 100).
+ */
+public class CrossValidationRunner {
+
+    private final static Logger LOG = LoggerFactory.getLogger(CrossValidationRunner.class);
+
+    public static void main(String[] args) {
+        ModelType modelType = ModelType.of(args.length > 0 ? args[0] : ModelType.CONTACT_PERSON.getType());
+        int folds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        String cutoff = args.length > 3 ? args[3] : "1";
+        String iterations = args.length > 4 ? args[4] : "100";
+        try {
+            TrainingParameters trainingParameters = TrainingParameters.defaultParams();
+            trainingParameters.put(TrainingParameters.CUTOFF_PARAM, cutoff);
+            trainingParameters.put(TrainingParameters.ITERATIONS_PARAM, iterations);
+
+            List<NameSample> samples = IOTrain.readSamples(modelType.getTrainFileName());
+            LOG.info("{}: {} samples, {} folds, {} threads, cutoff {}, iterations {}", modelType.getType(),
+                    samples.size(), folds, threads, cutoff, iterations);
+            CrossValidator crossValidator =
+                    new CrossValidator(modelType, trainingParameters, FindConfigData.defaultConfig(), folds);
+            List<FoldResult> foldResults = crossValidator.evaluate(samples, threads);
+
+            FMeasure total = new FMeasure();
+            long trainMillis = 0;
+            for (FoldResult foldResult : foldResults) {
+                LOG.info(String.format("fold %2d: precision %.3f, recall %.3f, F1 %.3f, training %6d ms",
+                        foldResult.getFold(), foldResult.getPrecision(), foldResult.getRecall(),
+                        foldResult.getF1(), foldResult.getTrainMillis()));
+                total.mergeInto(foldResult.getFMeasure());
+                trainMillis += foldResult.getTrainMillis();
+            }
+            LOG.info(String.format("total  : precision %.3f, recall %.3f, F1 %.3f, training %6d ms per fold",
+                    total.getPrecisionScore(), total.getRecallScore(), total.getFMeasure(),
+                    trainMillis / foldResults.size()));
+        } catch (Exception e) {
+            LOG.error("Exception occurred in cross validation process", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.runners;
+
+import com.civis.utils.opennlp.extraction.DocumentSource;
+import com.civis.utils.opennlp.extraction.ExtractionPipeline;
+import com.civis.utils.opennlp.extraction.ExtractionStats;
+import com.civis.utils.opennlp.extraction.JsonLinesWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runner to extract addresses and contact persons of a document corpus.
+ * <p/>
+ * Arguments: input (directory or newline delimited json file), output json lines file,
+ * worker threads (default count of processors).
+ */
+public class ExtractionRunner {
+
+    private final static Logger LOG = LoggerFactory.getLogger(ExtractionRunner.class);
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            LOG.error("Usage: ExtractionRunner <input directory or ndjson file> <output jsonl file> [threads]");
+            return;
+        }
+
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        try (DocumentSource documents = DocumentSource.open(input);
+             Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+             JsonLinesWriter jsonLinesWriter = new JsonLinesWriter(writer)) {
+            ExtractionStats stats = new ExtractionPipeline(threads).run(documents, jsonLinesWriter);
+            stats.log();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Extraction was interrupted!", e);
+        } catch (Exception e) {
+            LOG.error("Exception occurred in extraction process", e);
+        }
+    }
+}
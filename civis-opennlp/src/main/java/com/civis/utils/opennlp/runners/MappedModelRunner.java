@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.runners;
+
+import com.civis.utils.opennlp.evaluation.ModelType;
+import com.civis.utils.opennlp.models.FindConfigData;
+import com.civis.utils.opennlp.models.MappedMaxentModel;
+import com.civis.utils.opennlp.models.TokenNameFinderAdapter;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.model.MaxentModel;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderEvaluator;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.CollectionObjectStream;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Utility class to write a trained model as memory mapped model.
+ * <p/>
+ * Logs size and load time of the bin model and of the mapped model and F1 and search time of train samples.
+ * <p/>
+ * Arguments: model type address or contact-person (default contact-person), output file (default model file name
+ * with '.mapped' suffix).
+ */
+public class MappedModelRunner {
+
+    private final static Logger LOG = LoggerFactory.getLogger(MappedModelRunner.class);
+    private static final int LOADS = 20;
+
+    public static void main(String[] args) {
+        ModelType modelType = ModelType.of(args.length > 0 ? args[0] : ModelType.CONTACT_PERSON.getType());
+        String modelFileName = Paths.get(modelType.getModelPath()).getFileName().toString();
+        Path outputFile = Paths.get(args.length > 1 ? args[1] : modelFileName.replace(".bin", ".mapped"));
+        try (InputStream modelInputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(modelType.getModelPath())) {
+            byte[] binModel = IOUtils.toByteArray(modelInputStream);
+            TokenNameFinderModel model = new TokenNameFinderModel(new ByteArrayInputStream(binModel));
+            MappedMaxentModel.write(model.getNameFinderModel(), outputFile);
+            MappedMaxentModel mappedModel = MappedMaxentModel.open(outputFile);
+
+            double binLoadMillis = loadMillis(() -> new TokenNameFinderModel(new ByteArrayInputStream(binModel)));
+            double mappedLoadMillis = loadMillis(() -> MappedMaxentModel.open(outputFile));
+            List<NameSample> samples = IOTrain.readSamples(modelType.getTrainFileName());
+            // warm-up of both models.
+            evaluate(modelType, model.getNameFinderModel(), samples);
+            evaluate(modelType, mappedModel, samples);
+            LOG.info(String.format("bin   : %8d bytes, load %7.3f ms, %s", binModel.length, binLoadMillis,
+                    evaluate(modelType, model.getNameFinderModel(), samples)));
+            LOG.info(String.format("mapped: %8d bytes, load %7.3f ms, %s, written to %s", Files.size(outputFile),
+                    mappedLoadMillis, evaluate(modelType, mappedModel, samples), outputFile));
+        } catch (Exception e) {
+            LOG.error("Exception occurred in model mapping process", e);
+        }
+    }
+
+    private static String evaluate(ModelType modelType, MaxentModel model, List<NameSample> samples)
+            throws IOException {
+        TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(
+                new TokenNameFinderAdapter(modelType.createFinder(model, FindConfigData.defaultConfig())));
+        long start = System.nanoTime();
+        evaluator.evaluate(new CollectionObjectStream<>(samples));
+        long searchMillis = (System.nanoTime() - start) / 1000000;
+        return String.format("F1 %.4f, search %5d ms", evaluator.getFMeasure().getFMeasure(), searchMillis);
+    }
+
+    /**
+     * Returns average load time of the model, first loads are warm-up.
+     */
+    private static double loadMillis(ModelLoader loader) throws IOException {
+        for (int i = 0; i < LOADS; i++) {
+            loader.load();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOADS; i++) {
+            loader.load();
+        }
+        return (System.nanoTime() - start) / 1000000.0 / LOADS;
+    }
+
+    private interface ModelLoader {
+
+        Object load() throws IOException;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.runners;
+
+import com.civis.utils.opennlp.evaluation.ModelType;
+import com.civis.utils.opennlp.evaluation.ParameterSweep;
+import com.civis.utils.opennlp.evaluation.SweepResult;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.tools.namefind.NameSample;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utility class to sweep training parameters and beam size.
+ * <p/>
+ * Logs a table of all combinations ranked by F1. Combinations marked with * are pareto optimal, no other
+ * combination is more accurate and faster, pick one of them for latency sensitive deployments.
+ * <p/>
+ * Arguments: model type address or contact-person (default contact-person), algorithms (default MAXENT,PERCEPTRON),
+ * cutoffs (default 1,3,5), iterations (default 50,100), beam sizes (default 1,3,5),
+ * threads (default available processors), test folds (default 5, every 5th sample is a test sample).
+ */
+public class ParameterSweepRunner {
+
+    private final static Logger LOG = LoggerFactory.getLogger(ParameterSweepRunner.class);
+
+    public static void main(String[] args) {
+        ModelType modelType = ModelType.of(args.length > 0 ? args[0] : ModelType.CONTACT_PERSON.getType());
+        List<String> algorithms = Arrays.asList((args.length > 1 ? args[1] : "MAXENT,PERCEPTRON").split(","));
+        List<Integer> cutoffs = toIntegers(args.length > 2 ? args[2] : "1,3,5");
+        List<Integer> iterations = toIntegers(args.length > 3 ? args[3] : "50,100");
+        List<Integer> beamSizes = toIntegers(args.length > 4 ? args[4] : "1,3,5");
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        int testFolds = args.length > 6 ? Integer.parseInt(args[6]) : 5;
+        try {
+            List<NameSample> samples = IOTrain.readSamples(modelType.getTrainFileName());
+            LOG.info("{}: {} samples, {} threads", modelType.getType(), samples.size(), threads);
+            ParameterSweep parameterSweep =
+                    new ParameterSweep(modelType, algorithms, cutoffs, iterations, beamSizes, testFolds);
+            List<SweepResult> results = parameterSweep.run(samples, threads);
+
+            LOG.info(String.format("  %-10s %6s %10s %4s %9s %9s %7s %10s %11s", "algorithm", "cutoff", "iterations",
+                    "beam", "precision", "recall", "F1", "tokens/s", "training ms"));
+            for (SweepResult result : results) {
+                LOG.info(String.format("%s %-10s %6d %10d %4d %9.3f %9.3f %7.3f %10.0f %11d",
+                        result.isParetoOptimal() ? "*" : " ", result.getAlgorithm(), result.getCutoff(),
+                        result.getIterations(), result.getBeamSize(), result.getFMeasure().getPrecisionScore(),
+                        result.getFMeasure().getRecallScore(), result.getF1(), result.getTokensPerSecond(),
+                        result.getTrainMillis()));
+            }
+        } catch (Exception e) {
+            LOG.error("Exception occurred in parameter sweep process", e);
+        }
+    }
+
+    private static List<Integer> toIntegers(String values) {
+        List<Integer> integers = new ArrayList<>();
+        for (String value : values.split(",")) {
+            integers.add(Integer.parseInt(value.trim()));
+        }
+        return integers;
+    }
+}
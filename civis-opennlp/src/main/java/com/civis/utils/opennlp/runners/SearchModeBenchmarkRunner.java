@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.runners;
+
+import com.civis.utils.opennlp.models.DefaultFinder;
+import com.civis.utils.opennlp.models.FindConfigData;
+import com.civis.utils.opennlp.models.FindConfigDataBuilder;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.SearchMode;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Utility class to compare search modes.
+ * <p/>
+ * Every search mode is measured for latency per document. Precision and recall are computed against the results of
+ * the reference beam search (default beam size 3, the mode used in the tests).
+ * <p/>
+ * Arguments: directory with text files (default civis-opennlp/src/test/resources/text), iterations (default 10).
+ */
+public class SearchModeBenchmarkRunner {
+
+    private final static Logger LOG = LoggerFactory.getLogger(SearchModeBenchmarkRunner.class);
+
+    private static final String DEFAULT_TEXT_DIR = "civis-opennlp/src/test/resources/text";
+
+    public static void main(String[] args) {
+        File textDir = new File(args.length > 0 ? args[0] : DEFAULT_TEXT_DIR);
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        try {
+            List<String> texts = readTexts(textDir);
+            Map<String, FindConfigData> configs = createConfigs();
+            FindConfigData reference = new FindConfigData();
+            LOG.info("{} texts, {} iterations", texts.size(), iterations);
+            run("address", texts, iterations, reference, configs, ModelFactory::getAddressFinder);
+            run("contact person", texts, iterations, reference, configs, ModelFactory::getContactPersonFinder);
+        } catch (Exception e) {
+            LOG.error("Exception occurred in benchmark process", e);
+        }
+    }
+
+    private static Map<String, FindConfigData> createConfigs() {
+        Map<String, FindConfigData> configs = new LinkedHashMap<>();
+        for (int beamSize : Arrays.asList(1, 3, 5, 10)) {
+            configs.put("beam " + beamSize, new FindConfigDataBuilder().setBeamSize(beamSize).build());
+        }
+        configs.put("greedy", new FindConfigDataBuilder().setSearchMode(SearchMode.GREEDY).build());
+        for (double minProbability : Arrays.asList(0.6, 0.8, 0.95)) {
+            configs.put("adaptive " + minProbability,
+                    new FindConfigDataBuilder().setSearchMode(SearchMode.ADAPTIVE).setMinProbability(minProbability)
+                            .build());
+        }
+        return configs;
+    }
+
+    private static <T> void run(String name, List<String> texts, int iterations, FindConfigData reference,
+                                Map<String, FindConfigData> configs,
+                                Function<FindConfigData, ? extends DefaultFinder<T>> finderFactory) {
+        List<List<T>> expected = finderFactory.apply(reference).findAll(texts);
+        for (Map.Entry<String, FindConfigData> config : configs.entrySet()) {
+            DefaultFinder<T> finder = finderFactory.apply(config.getValue());
+            // warm up
+            List<List<T>> result = finder.findAll(texts);
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                finder.findAll(texts);
+            }
+            double millisPerText = (System.nanoTime() - start) / 1e6 / iterations / texts.size();
+            double[] precisionRecall = precisionRecall(expected, result);
+            LOG.info(String.format("%s, %-15s: %8.3f ms/text, precision %.3f, recall %.3f", name, config.getKey(),
+                    millisPerText, precisionRecall[0], precisionRecall[1]));
+        }
+    }
+
+    private static <T> double[] precisionRecall(List<List<T>> expected, List<List<T>> result) {
+        int truePositives = 0;
+        int expectedCount = 0;
+        int resultCount = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            Set<T> expectedSpans = new HashSet<>(expected.get(i));
+            Set<T> resultSpans = new HashSet<>(result.get(i));
+            expectedCount += expectedSpans.size();
+            resultCount += resultSpans.size();
+            resultSpans.retainAll(expectedSpans);
+            truePositives += resultSpans.size();
+        }
+
+        double precision = resultCount == 0 ? 1.0 : (double) truePositives / resultCount;
+        double recall = expectedCount == 0 ? 1.0 : (double) truePositives / expectedCount;
+        return new double[]{precision, recall};
+    }
+
+    private static List<String> readTexts(File textDir) throws IOException {
+        File[] files = textDir.listFiles((dir, fileName) -> fileName.endsWith(".txt"));
+        if (files == null) {
+            throw new IOException("Directory " + textDir + " can not be read!");
+        }
+
+        Arrays.sort(files);
+        List<String> texts = new ArrayList<>();
+        for (File file : files) {
+            texts.add(FileUtils.readFileToString(file, "UTF-8"));
+        }
+        return texts;
+    }
+}
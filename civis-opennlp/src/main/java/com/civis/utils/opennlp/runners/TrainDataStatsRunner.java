@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.civis.utils.opennlp.runners;
+
+import com.civis.utils.opennlp.evaluation.ModelType;
+import com.civis.utils.opennlp.models.TrainConfigData;
+import com.civis.utils.opennlp.models.TrainConfigDataBuilder;
+import com.civis.utils.opennlp.models.TrainDataStats;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.util.ObjectStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Utility class to report statistics of training data before training.
+ * <p/>
+ * Logs samples, spans per type, tokens per sample and span, unique features per feature prefix and the estimated
+ * size of the trained model. Training time grows with trained features per iteration times iterations.
+ * <p/>
+ * Arguments: model types address and/or contact-person (default address,contact-person),
+ * threads (default available processors), cutoff (default 1), iterations (default 100), glob of train files of one
+ * model type, gzip files included (default train file of model type in classpath).
+ */
+public class TrainDataStatsRunner {
+
+    private final static Logger LOG = LoggerFactory.getLogger(TrainDataStatsRunner.class);
+
+    public static void main(String[] args) {
+        String[] modelTypes = (args.length > 0 ? args[0] : "address,contact-person").split(",");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int cutoff = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        long iterations = args.length > 3 ? Long.parseLong(args[3]) : 100;
+        String glob = args.length > 4 ? args[4] : null;
+        for (String type : modelTypes) {
+            ModelType modelType = ModelType.of(type.trim());
+            ObjectStream<NameSample> sampleStream = null;
+            try {
+                sampleStream = glob != null ? IOTrain.readFiles(glob) : IOTrain.readData(modelType.getTrainFileName());
+                TrainConfigData trainConfigData =
+                        new TrainConfigDataBuilder().setLanguageCode("de").setType(modelType.getType())
+                                .setSamples(sampleStream).setThreads(threads).build();
+
+                long start = System.currentTimeMillis();
+                TrainDataStats stats = modelType.createTrainModel(trainConfigData).collectStats();
+                log(modelType, stats, cutoff, iterations, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                LOG.error("Exception occurred in train data stats process", e);
+            } finally {
+                if (sampleStream != null) {
+                    try {
+                        sampleStream.close();
+                    } catch (IOException e) {
+                        LOG.error(e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void log(ModelType modelType, TrainDataStats stats, int cutoff, long iterations, long millis) {
+        LOG.info("{}: {} samples, {} documents, {} events, {} outcomes, scanned in {} ms", modelType.getType(),
+                stats.getSamples(), stats.getDocuments(), stats.getEvents(), stats.getOutcomes().size(), millis);
+        for (Map.Entry<String, Integer> entry : stats.getSpansPerType().entrySet()) {
+            LOG.info("  spans {}: {}", entry.getKey(), entry.getValue());
+        }
+        LOG.info("  tokens per sample: median {}, p90 {}, p99 {}, max {}", stats.getTokensPerSample(50),
+                stats.getTokensPerSample(90), stats.getTokensPerSample(99), stats.getTokensPerSample(100));
+        LOG.info("  tokens per span  : median {}, p90 {}, p99 {}, max {}", stats.getTokensPerSpan(50),
+                stats.getTokensPerSpan(90), stats.getTokensPerSpan(99), stats.getTokensPerSpan(100));
+        LOG.info("  unique features: {} of {} features", stats.getUniqueFeatures(), stats.getFeatures());
+        for (Map.Entry<String, Integer> entry : stats.getUniqueFeaturesPerPrefix().entrySet()) {
+            LOG.info(String.format("    %-12s %8d", entry.getKey(), entry.getValue()));
+        }
+        long trainedFeatures = stats.getTrainedFeatures(cutoff);
+        LOG.info("  cutoff {}: {} predicates, {} parameters, {} trained features per iteration, {} in {} iterations",
+                cutoff, stats.getPredicates(cutoff), stats.getParameters(cutoff), trainedFeatures,
+                trainedFeatures * iterations, iterations);
+        LOG.info("  estimated model: {} KB heap, {} KB file before zip", stats.estimateModelBytes(cutoff) / 1024,
+                stats.estimateFileBytes(cutoff) / 1024);
+    }
+}
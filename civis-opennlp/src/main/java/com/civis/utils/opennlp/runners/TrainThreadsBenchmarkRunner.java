@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.runners;
+
+import com.civis.utils.opennlp.models.TrainConfigData;
+import com.civis.utils.opennlp.models.TrainConfigDataBuilder;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinderMe;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.CollectionObjectStream;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class to compare training time of the contact person model with different count of threads.
+ * <p/>
+ * Training data <code>contact-train.txt</code> is repeated to simulate a larger corpus.
+ * <p/>
+ * Arguments: scale factor of training data (default 10), max. count of threads (default available processors).
+ */
+public class TrainThreadsBenchmarkRunner {
+
+    private final static Logger LOG = LoggerFactory.getLogger(TrainThreadsBenchmarkRunner.class);
+
+    public static void main(String[] args) {
+        int scale = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        try {
+            List<String> lines = readScaledLines("contact-train.txt", scale);
+            LOG.info("{} training sentences", lines.size());
+            // warm up
+            train(lines, 1);
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                long start = System.nanoTime();
+                TokenNameFinderModel model = train(lines, threads);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                LOG.info(String.format("%2d threads: %8.2f s, %d outcomes", threads, seconds,
+                        model.getNameFinderModel().getNumOutcomes()));
+            }
+        } catch (Exception e) {
+            LOG.error("Exception occurred in benchmark process", e);
+        }
+    }
+
+    private static TokenNameFinderModel train(List<String> lines, int threads) throws IOException {
+        NameSampleDataStream sampleStream = new NameSampleDataStream(new CollectionObjectStream<>(lines));
+        TrainConfigData trainConfigData =
+                new TrainConfigDataBuilder().setLanguageCode("de").setType("contact-person").setSamples(sampleStream)
+                        .putCutoffIntoTrainingParameters("1").setThreads(threads).build();
+        return ContactPersonFinderMe.initializeTrainModel(trainConfigData).train();
+    }
+
+    private static List<String> readScaledLines(String trainFileName, int scale) throws IOException {
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(IOTrain.TRAIN_FOLDER + "/" + trainFileName)) {
+            if (inputStream == null) {
+                throw new IOException("Training data " + trainFileName + " not found!");
+            }
+
+            List<String> lines = IOUtils.readLines(inputStream, IOTrain.CHARSET);
+            List<String> scaledLines = new ArrayList<>(lines.size() * scale);
+            for (int i = 0; i < scale; i++) {
+                scaledLines.addAll(lines);
+            }
+            return scaledLines;
+        }
+    }
+}
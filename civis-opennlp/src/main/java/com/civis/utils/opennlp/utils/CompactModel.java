@@ -0,0 +1,329 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.utils;
+
+import com.civis.utils.opennlp.models.ModelParameters;
+import opennlp.maxent.GISModel;
+import opennlp.model.AbstractModel;
+import opennlp.model.Context;
+import opennlp.perceptron.PerceptronModel;
+import opennlp.tools.namefind.TokenNameFinderModel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact serialisation of name finder models with pruned and quantised parameters.
+ * <p/>
+ * Parameters with absolute value lower than prune threshold are dropped, features without parameters are dropped
+ * too. Remaining parameters are stored as float or as 8 bit index into a table of 256 values. Table values are means
+ * of 256 quantiles of all parameters, so more values are there, where most parameters are. Features are sorted and
+ * written into one string table, every feature shares the prefix with the previous one. The file is deflated.
+ * <p/>
+ * The loaded model is a usual maxent or perceptron model, finders use it like a model of a bin file.
+ */
+public final class CompactModel {
+
+    private static final int MAGIC = 0x434D444C;
+    private static final int VERSION = 1;
+    private static final int CODEBOOK_SIZE = 256;
+
+    /**
+     * Manifest entries copied into the compact model.
+     */
+    private static final String[] MANIFEST_KEYS = {"Algorithm", "Training-Eventhash"};
+
+    /**
+     * Manifest entry with precision of compact model.
+     */
+    public static final String PRECISION_PROPERTY = "Compact-Precision";
+
+    /**
+     * Storage of a parameter.
+     */
+    public enum Precision {
+        FLOAT, BYTE
+    }
+
+    private CompactModel() {
+        // private constructor.
+    }
+
+    /**
+     * Write model in compact format.
+     *
+     * @param pruneThreshold parameters with lower absolute value are dropped, 0 keeps all parameters.
+     * @return count of written parameters.
+     * @throws IllegalArgumentException if model is neither maxent nor perceptron model.
+     */
+    public static int write(TokenNameFinderModel model, Precision precision, double pruneThreshold,
+                            OutputStream outputStream) throws IOException {
+        ModelParameters parameters = ModelParameters.of(model.getNameFinderModel());
+        Context[] params = parameters.getContexts();
+        String[] predicates = parameters.getPredicates();
+        String[] outcomes = parameters.getOutcomes();
+
+        Map<String, Context> prunedParams = prune(predicates, params, pruneThreshold);
+        float[] codebook = precision == Precision.BYTE ? createCodebook(prunedParams) : new float[0];
+        String[] sortedPredicates = prunedParams.keySet().toArray(new String[prunedParams.size()]);
+        Arrays.sort(sortedPredicates);
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(outputStream, deflater);
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(deflaterOutput));
+        try {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            BinaryIO.writeString(output, model.getLanguage());
+            BinaryIO.writeString(output, parameters.getModelType().name());
+            output.writeInt(parameters.getCorrectionConstant());
+            output.writeDouble(parameters.getCorrectionParam());
+            output.writeByte(precision.ordinal());
+            writeManifest(output, model);
+
+            BinaryIO.writeVarInt(output, outcomes.length);
+            for (String outcome : outcomes) {
+                BinaryIO.writeString(output, outcome);
+            }
+            writePredicates(output, sortedPredicates);
+
+            BinaryIO.writeVarInt(output, codebook.length);
+            for (float value : codebook) {
+                output.writeFloat(value);
+            }
+            int paramCount = 0;
+            for (String predicate : sortedPredicates) {
+                Context context = prunedParams.get(predicate);
+                int[] activeOutcomes = context.getOutcomes();
+                double[] activeParams = context.getParameters();
+                BinaryIO.writeVarInt(output, activeOutcomes.length);
+                for (int a = 0; a < activeOutcomes.length; a++) {
+                    BinaryIO.writeVarInt(output, activeOutcomes[a]);
+                    if (precision == Precision.BYTE) {
+                        output.writeByte(indexOfNearest(codebook, activeParams[a]));
+                    } else {
+                        output.writeFloat((float) activeParams[a]);
+                    }
+                }
+                paramCount += activeOutcomes.length;
+            }
+            // output stream is not closed, it belongs to the caller.
+            output.flush();
+            deflaterOutput.finish();
+            return paramCount;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Read model of compact format.
+     *
+     * @throws IOException if stream is not a compact model.
+     */
+    public static TokenNameFinderModel read(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new InflaterInputStream(inputStream)));
+        if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+            throw new IOException("Stream is not a compact model!");
+        }
+
+        String language = BinaryIO.readString(input);
+        AbstractModel.ModelType modelType = AbstractModel.ModelType.valueOf(BinaryIO.readString(input));
+        int correctionConstant = input.readInt();
+        double correctionParam = input.readDouble();
+        Precision precision = Precision.values()[input.readByte()];
+        Map<String, String> manifestInfoEntries = readManifest(input);
+        manifestInfoEntries.put(PRECISION_PROPERTY, precision.name());
+
+        String[] outcomes = new String[BinaryIO.readVarInt(input)];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = BinaryIO.readString(input);
+        }
+        String[] predicates = readPredicates(input);
+
+        float[] codebook = new float[BinaryIO.readVarInt(input)];
+        for (int i = 0; i < codebook.length; i++) {
+            codebook[i] = input.readFloat();
+        }
+        Map<String, int[]> outcomePatterns = new HashMap<>();
+        Context[] params = new Context[predicates.length];
+        for (int p = 0; p < params.length; p++) {
+            int[] activeOutcomes = new int[BinaryIO.readVarInt(input)];
+            double[] activeParams = new double[activeOutcomes.length];
+            for (int a = 0; a < activeOutcomes.length; a++) {
+                activeOutcomes[a] = BinaryIO.readVarInt(input);
+                activeParams[a] = precision == Precision.BYTE ?
+                        codebook[input.readUnsignedByte()] : input.readFloat();
+            }
+            // most features share few outcome patterns.
+            params[p] = new Context(outcomePatterns.computeIfAbsent(Arrays.toString(activeOutcomes),
+                    key -> activeOutcomes), activeParams);
+        }
+
+        AbstractModel model;
+        if (modelType == AbstractModel.ModelType.Perceptron) {
+            model = new PerceptronModel(params, predicates, outcomes);
+        } else {
+            model = new GISModel(params, predicates, outcomes, correctionConstant, correctionParam);
+        }
+        return new TokenNameFinderModel(language, model, Collections.emptyMap(), manifestInfoEntries);
+    }
+
+    private static Map<String, Context> prune(String[] predicates, Context[] params, double pruneThreshold) {
+        Map<String, Context> prunedParams = new HashMap<>();
+        for (int p = 0; p < params.length; p++) {
+            int[] activeOutcomes = params[p].getOutcomes();
+            double[] activeParams = params[p].getParameters();
+            int[] keptOutcomes = new int[activeOutcomes.length];
+            double[] keptParams = new double[activeOutcomes.length];
+            int kept = 0;
+            for (int a = 0; a < activeOutcomes.length; a++) {
+                if (Math.abs(activeParams[a]) >= pruneThreshold && activeParams[a] != 0) {
+                    keptOutcomes[kept] = activeOutcomes[a];
+                    keptParams[kept] = activeParams[a];
+                    kept++;
+                }
+            }
+            if (kept > 0) {
+                prunedParams.put(predicates[p],
+                        new Context(Arrays.copyOf(keptOutcomes, kept), Arrays.copyOf(keptParams, kept)));
+            }
+        }
+        return prunedParams;
+    }
+
+    /**
+     * Returns means of 256 quantiles of all parameters, sorted ascending.
+     */
+    private static float[] createCodebook(Map<String, Context> params) {
+        int count = 0;
+        for (Context context : params.values()) {
+            count += context.getParameters().length;
+        }
+        double[] values = new double[count];
+        int index = 0;
+        for (Context context : params.values()) {
+            for (double param : context.getParameters()) {
+                values[index++] = param;
+            }
+        }
+        Arrays.sort(values);
+
+        int size = Math.min(CODEBOOK_SIZE, values.length);
+        float[] codebook = new float[size];
+        for (int i = 0; i < size; i++) {
+            int from = (int) ((long) i * values.length / size);
+            int to = (int) ((long) (i + 1) * values.length / size);
+            double sum = 0;
+            for (int v = from; v < to; v++) {
+                sum += values[v];
+            }
+            codebook[i] = (float) (sum / (to - from));
+        }
+        return codebook;
+    }
+
+    private static int indexOfNearest(float[] codebook, double value) {
+        int index = Arrays.binarySearch(codebook, (float) value);
+        if (index >= 0) {
+            return index;
+        }
+
+        int insertion = -index - 1;
+        if (insertion == 0) {
+            return 0;
+        }
+        if (insertion == codebook.length) {
+            return codebook.length - 1;
+        }
+        return value - codebook[insertion - 1] <= codebook[insertion] - value ? insertion - 1 : insertion;
+    }
+
+    private static void writeManifest(DataOutput output, TokenNameFinderModel model) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (String key : MANIFEST_KEYS) {
+            String value = model.getManifestProperty(key);
+            if (value != null) {
+                entries.put(key, value);
+            }
+        }
+
+        BinaryIO.writeVarInt(output, entries.size());
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            BinaryIO.writeString(output, entry.getKey());
+            BinaryIO.writeString(output, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readManifest(DataInput input) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        int count = BinaryIO.readVarInt(input);
+        for (int i = 0; i < count; i++) {
+            entries.put(BinaryIO.readString(input), BinaryIO.readString(input));
+        }
+        return entries;
+    }
+
+    /**
+     * Sorted predicates are front coded: length of prefix shared with previous predicate and remaining bytes.
+     */
+    private static void writePredicates(DataOutput output, String[] sortedPredicates) throws IOException {
+        BinaryIO.writeVarInt(output, sortedPredicates.length);
+        byte[] previous = new byte[0];
+        for (String predicate : sortedPredicates) {
+            byte[] bytes = predicate.getBytes(StandardCharsets.UTF_8);
+            int shared = 0;
+            int maxShared = Math.min(previous.length, bytes.length);
+            while (shared < maxShared && previous[shared] == bytes[shared]) {
+                shared++;
+            }
+            BinaryIO.writeVarInt(output, shared);
+            BinaryIO.writeVarInt(output, bytes.length - shared);
+            output.write(bytes, shared, bytes.length - shared);
+            previous = bytes;
+        }
+    }
+
+    private static String[] readPredicates(DataInput input) throws IOException {
+        String[] predicates = new String[BinaryIO.readVarInt(input)];
+        byte[] previous = new byte[0];
+        for (int i = 0; i < predicates.length; i++) {
+            int shared = BinaryIO.readVarInt(input);
+            byte[] bytes = Arrays.copyOf(previous, shared + BinaryIO.readVarInt(input));
+            input.readFully(bytes, shared, bytes.length - shared);
+            predicates[i] = new String(bytes, StandardCharsets.UTF_8);
+            previous = bytes;
+        }
+        return predicates;
+    }
+}
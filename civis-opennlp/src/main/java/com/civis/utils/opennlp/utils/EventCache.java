@@ -0,0 +1,266 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.utils;
+
+import opennlp.model.Event;
+import opennlp.model.EventStream;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Binary file of training events, to train a model without tokenization and feature generation.
+ * <p/>
+ * Format: header (magic, version, model type), events, string table, fingerprint, offset of string table (8 bytes).
+ * An event is outcome index, count of features, feature indexes and optional feature values. Indexes and counts are
+ * var ints, outcomes and features are written once in the string table at the end of the file.
+ * <p/>
+ * Events depend on training data and feature generators. The writer passes a fingerprint of both, a file with another
+ * fingerprint is rejected on read, delete it to create a new one. The fingerprint is written after the events, so it
+ * can be computed while samples are read for the events.
+ */
+public final class EventCache {
+
+    private static final int MAGIC = 0x43455654;
+    private static final int VERSION = 3;
+
+    private EventCache() {
+        // private constructor.
+    }
+
+    /**
+     * Write all events of the stream into the file.
+     * <p/>
+     * Events are written into a temporary file, which is moved to the file at the end, so the file is never
+     * incomplete.
+     *
+     * @param type        model type, it is checked on read.
+     * @param fingerprint fingerprint of samples and features of the events, it is checked on read. It is called after
+     *                    all events are read from the stream.
+     * @return count of written events.
+     */
+    public static int write(EventStream events, String type, Supplier<String> fingerprint, Path file)
+            throws IOException {
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            int eventCount = writeEvents(events, type, fingerprint, tmpFile);
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+            return eventCount;
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    private static int writeEvents(EventStream events, String type, Supplier<String> fingerprint, Path file)
+            throws IOException {
+        Map<String, Integer> outcomes = new HashMap<>();
+        Map<String, Integer> features = new HashMap<>();
+        List<String> outcomeTable = new ArrayList<>();
+        List<String> featureTable = new ArrayList<>();
+        int eventCount = 0;
+        try (CountingOutputStream countingOutput =
+                     new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            DataOutputStream output = new DataOutputStream(countingOutput);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            BinaryIO.writeString(output, type);
+            while (events.hasNext()) {
+                Event event = events.next();
+                BinaryIO.writeVarInt(output, indexOf(event.getOutcome(), outcomes, outcomeTable));
+                String[] context = event.getContext();
+                BinaryIO.writeVarInt(output, context.length);
+                for (String feature : context) {
+                    BinaryIO.writeVarInt(output, indexOf(feature, features, featureTable));
+                }
+                float[] values = event.getValues();
+                output.writeBoolean(values != null);
+                if (values != null) {
+                    for (float value : values) {
+                        output.writeFloat(value);
+                    }
+                }
+                eventCount++;
+            }
+
+            output.flush();
+            long tableOffset = countingOutput.getByteCount();
+            BinaryIO.writeVarInt(output, eventCount);
+            writeTable(output, outcomeTable);
+            writeTable(output, featureTable);
+            BinaryIO.writeString(output, fingerprint.get());
+            output.writeLong(tableOffset);
+            output.flush();
+        }
+        return eventCount;
+    }
+
+    /**
+     * Open event stream of the file, without checking the fingerprint, for example to inspect events.
+     *
+     * @param type expected model type.
+     * @throws IOException if file is not an event cache or model type is different.
+     */
+    public static Stream read(Path file, String type) throws IOException {
+        return read(file, type, null);
+    }
+
+    /**
+     * Open event stream of the file to train a model.
+     *
+     * @param type        expected model type.
+     * @param fingerprint expected fingerprint of samples and features, null to skip the check.
+     * @throws IOException if file is not an event cache, model type or fingerprint is different.
+     */
+    public static Stream read(Path file, String type, String fingerprint) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        try {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException(file + " is not an event cache file!");
+            }
+            String fileType = BinaryIO.readString(input);
+            if (!fileType.equals(type)) {
+                throw new IOException(file + " contains events of model " + fileType + ", not " + type + "!");
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+                channel.read(trailer, channel.size() - Long.BYTES);
+                trailer.flip();
+                channel.position(trailer.getLong());
+                DataInputStream tableInput =
+                        new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                int eventCount = BinaryIO.readVarInt(tableInput);
+                String[] outcomeTable = readTable(tableInput);
+                String[] featureTable = readTable(tableInput);
+                String fileFingerprint = BinaryIO.readString(tableInput);
+                if (fingerprint != null && !fileFingerprint.equals(fingerprint)) {
+                    throw new IOException(file + " contains events of other samples or features, delete it to "
+                            + "write a new one!");
+                }
+                return new Stream(input, eventCount, outcomeTable, featureTable);
+            }
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    private static int indexOf(String value, Map<String, Integer> indexes, List<String> table) {
+        Integer index = indexes.get(value);
+        if (index == null) {
+            index = table.size();
+            indexes.put(value, index);
+            table.add(value);
+        }
+        return index;
+    }
+
+    private static void writeTable(DataOutput output, List<String> table) throws IOException {
+        BinaryIO.writeVarInt(output, table.size());
+        for (String value : table) {
+            BinaryIO.writeString(output, value);
+        }
+    }
+
+    private static String[] readTable(DataInput input) throws IOException {
+        String[] table = new String[BinaryIO.readVarInt(input)];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = BinaryIO.readString(input);
+        }
+        return table;
+    }
+
+    /**
+     * Event stream of an event cache file.
+     * <p/>
+     * Outcomes and features are the same string instances in all events.
+     */
+    public static class Stream implements EventStream, Closeable {
+
+        private final DataInputStream input;
+        private final int eventCount;
+        private final String[] outcomeTable;
+        private final String[] featureTable;
+        private int readCount;
+
+        private Stream(DataInputStream input, int eventCount, String[] outcomeTable, String[] featureTable) {
+            this.input = input;
+            this.eventCount = eventCount;
+            this.outcomeTable = outcomeTable;
+            this.featureTable = featureTable;
+        }
+
+        /**
+         * Returns count of events in the file.
+         */
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        @Override
+        public Event next() throws IOException {
+            if (!hasNext()) {
+                throw new EOFException("No more events!");
+            }
+
+            String outcome = outcomeTable[BinaryIO.readVarInt(input)];
+            String[] context = new String[BinaryIO.readVarInt(input)];
+            for (int i = 0; i < context.length; i++) {
+                context[i] = featureTable[BinaryIO.readVarInt(input)];
+            }
+            float[] values = null;
+            if (input.readBoolean()) {
+                values = new float[context.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = input.readFloat();
+                }
+            }
+            readCount++;
+            return new Event(outcome, context, values);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return readCount < eventCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.utils;
+
+import com.civis.utils.csv.address.CSVAddressData;
+import com.civis.utils.csv.address.CSVAddressReader;
+import com.civis.utils.csv.address.CountryReader;
+import com.civis.utils.csv.names.NameDictionary;
+import com.civis.utils.gazetteer.SuffixTrie;
+import com.civis.utils.gazetteer.TokenGazetteer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Shared read only gazetteers used by all finders.
+ * <p/>
+ * Every gazetteer is read lazily on first access and only once per class loader.
+ */
+public final class Gazetteers {
+
+    private Gazetteers() {
+        // private constructor.
+    }
+
+    /**
+     * Returns germany address data: city, zip, region.
+     */
+    public static List<CSVAddressData> getAddressData() {
+        return AddressDataHolder.ADDRESS_DATA;
+    }
+
+    /**
+     * Returns germany address data by zip, Map-Value is the first address data with this zip.
+     */
+    public static Map<String, CSVAddressData> getAddressDataByZip() {
+        return AddressDataByZipHolder.ADDRESS_DATA_BY_ZIP;
+    }
+
+    /**
+     * Returns all germany zip codes.
+     */
+    public static Set<String> getZips() {
+        return ZipsHolder.ZIPS;
+    }
+
+    /**
+     * Returns gazetteer of germany city names split by whitespace, value is address data of the city.
+     * <p/>
+     * Multi token cities, like "Frankfurt am Main", are matched in one pass.
+     */
+    public static TokenGazetteer<List<CSVAddressData>> getCityGazetteer() {
+        return CityGazetteerHolder.CITY_GAZETTEER;
+    }
+
+    /**
+     * Returns all country names.
+     */
+    public static Set<String> getCountries() {
+        return CountriesHolder.COUNTRIES;
+    }
+
+    /**
+     * Returns reversed string trie of all country names to find the country at the end of a value.
+     */
+    public static SuffixTrie getCountryTrie() {
+        return CountryTrieHolder.COUNTRY_TRIE;
+    }
+
+    /**
+     * Returns dictionary with more than 18.000 names and their gender.
+     */
+    public static NameDictionary getNameDictionary() {
+        return NameDictionaryHolder.NAME_DICTIONARY;
+    }
+
+    private static final class AddressDataHolder {
+
+        private static final List<CSVAddressData> ADDRESS_DATA =
+                Collections.unmodifiableList(CSVAddressReader.read());
+    }
+
+    private static final class AddressDataByZipHolder {
+
+        private static final Map<String, CSVAddressData> ADDRESS_DATA_BY_ZIP = createAddressDataByZip();
+
+        private static Map<String, CSVAddressData> createAddressDataByZip() {
+            Map<String, CSVAddressData> addressDataByZip = new HashMap<>();
+            for (CSVAddressData csvAddressData : getAddressData()) {
+                addressDataByZip.putIfAbsent(csvAddressData.getZip(), csvAddressData);
+            }
+            return Collections.unmodifiableMap(addressDataByZip);
+        }
+    }
+
+    private static final class ZipsHolder {
+
+        private static final Set<String> ZIPS = getAddressDataByZip().keySet();
+    }
+
+    private static final class CityGazetteerHolder {
+
+        private static final TokenGazetteer<List<CSVAddressData>> CITY_GAZETTEER = createCityGazetteer();
+
+        private static TokenGazetteer<List<CSVAddressData>> createCityGazetteer() {
+            Map<String, List<CSVAddressData>> addressDataByCity = getAddressData().stream()
+                    .collect(Collectors.groupingBy(CSVAddressData::getCity));
+            TokenGazetteer.Builder<List<CSVAddressData>> builder = TokenGazetteer.builder();
+            for (Map.Entry<String, List<CSVAddressData>> cityAddressData : addressDataByCity.entrySet()) {
+                // split by whitespace like the document tokenizer, which keeps "Castrop-Rauxel" as one token
+                builder.add(cityAddressData.getKey(), Collections.unmodifiableList(cityAddressData.getValue()));
+            }
+            return builder.build();
+        }
+    }
+
+    private static final class CountriesHolder {
+
+        private static final Set<String> COUNTRIES = Collections.unmodifiableSet(CountryReader.read());
+    }
+
+    private static final class CountryTrieHolder {
+
+        private static final SuffixTrie COUNTRY_TRIE = SuffixTrie.of(getCountries());
+    }
+
+    private static final class NameDictionaryHolder {
+
+        private static final NameDictionary NAME_DICTIONARY = NameDictionary.read();
+    }
+}
@@ -25,14 +25,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedOutputStream;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Utility to read training data from text file.
@@ -47,15 +49,50 @@ public class IOTrain {
     private final static Logger LOG = LoggerFactory.getLogger(IOTrain.class);
 
     /**
-     * Read train data from text file in default 'train' folder;
+     * Read train data from text file in default 'train' folder of the classpath, it can be inside a jar.
      */
     public static ObjectStream<NameSample> readData(String trainFileName) throws FileNotFoundException {
-        URL resourceTrainUrl = Thread.currentThread().getContextClassLoader().getResource(TRAIN_FOLDER);
-        String trainInputPath = resourceTrainUrl.getPath() + "/" + trainFileName;
-        ObjectStream<String> lineStream = new PlainTextByLineStream(new FileInputStream(trainInputPath), CHARSET);
+        String resourceName = TRAIN_FOLDER + "/" + trainFileName;
+        InputStream input = Thread.currentThread().getContextClassLoader().getResourceAsStream(resourceName);
+        if (input == null) {
+            throw new FileNotFoundException("Train file " + resourceName + " not found in classpath!");
+        }
+        ObjectStream<String> lineStream = new PlainTextByLineStream(input, CHARSET);
         return new NameSampleDataStream(lineStream);
     }
 
+    /**
+     * Read train data lazily from files in file system matching the glob, gzip files included.
+     *
+     * @see NameSampleFileStream#of(String)
+     */
+    public static NameSampleFileStream readFiles(String glob) throws IOException {
+        return NameSampleFileStream.of(glob);
+    }
+
+    /**
+     * Read all samples of train data in default 'train' folder.
+     */
+    public static List<NameSample> readSamples(String trainFileName) throws IOException {
+        return readSamples(readData(trainFileName));
+    }
+
+    /**
+     * Read all samples of the stream and close it.
+     */
+    public static List<NameSample> readSamples(ObjectStream<NameSample> sampleStream) throws IOException {
+        try {
+            List<NameSample> samples = new ArrayList<>();
+            NameSample sample;
+            while ((sample = sampleStream.read()) != null) {
+                samples.add(sample);
+            }
+            return samples;
+        } finally {
+            sampleStream.close();
+        }
+    }
+
     /**
      * Write trained model into bin file.
      */
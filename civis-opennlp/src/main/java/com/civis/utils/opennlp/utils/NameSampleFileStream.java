@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.utils;
+
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.util.ObjectStream;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Stream of name samples of train files in file system.
+ * <p/>
+ * Files are read lazily one after another, only one file is open at a time. Files ending with '.gz' are unzipped
+ * while reading. Reset does not read any file, the first file is opened again by next read.
+ * <p/>
+ * Format is the same as of {@link opennlp.tools.namefind.NameSampleDataStream}: one sentence per line, an empty line
+ * starts a new document. Every file starts a new document.
+ */
+public class NameSampleFileStream implements ObjectStream<NameSample> {
+
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String GLOB_CHARS = "*?[{";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final List<Path> files;
+    private int fileIndex;
+    private BufferedReader reader;
+    private boolean newDocument;
+
+    /**
+     * Stream of samples of the files in given order.
+     */
+    public NameSampleFileStream(List<Path> files) {
+        this.files = Collections.unmodifiableList(new ArrayList<>(files));
+    }
+
+    /**
+     * Stream of samples of all files matching the glob, for example '/data/train/**&#47;*.txt.gz'.
+     * <p/>
+     * If pattern has no glob chars, it is a file or a directory, all files of the directory are read.
+     */
+    public static NameSampleFileStream of(String glob) throws IOException {
+        return new NameSampleFileStream(resolve(glob));
+    }
+
+    /**
+     * Returns files matching the glob, sorted by path to read them always in the same order.
+     *
+     * @throws FileNotFoundException if no file matches.
+     */
+    public static List<Path> resolve(String glob) throws IOException {
+        Path path = Paths.get(glob);
+        Path baseDir = path.isAbsolute() ? path.getRoot() : Paths.get("");
+        int globIndex = 0;
+        while (globIndex < path.getNameCount() && !isGlob(path.getName(globIndex).toString())) {
+            baseDir = baseDir.resolve(path.getName(globIndex));
+            globIndex++;
+        }
+
+        List<Path> files;
+        if (globIndex == path.getNameCount()) {
+            files = Files.isDirectory(baseDir) ? listFiles(baseDir, file -> true) : listExisting(baseDir);
+        } else {
+            String pattern = path.subpath(globIndex, path.getNameCount()).toString();
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+            Path dir = baseDir;
+            files = listFiles(baseDir, file -> matcher.matches(dir.relativize(file)));
+        }
+
+        if (files.isEmpty()) {
+            throw new FileNotFoundException("No train file matches " + glob + "!");
+        }
+        return files;
+    }
+
+    private static boolean isGlob(String name) {
+        for (char globChar : GLOB_CHARS.toCharArray()) {
+            if (name.indexOf(globChar) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Path> listExisting(Path file) {
+        return Files.isRegularFile(file) ? Collections.singletonList(file) : Collections.emptyList();
+    }
+
+    private static List<Path> listFiles(Path dir, PathMatcher matcher) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return Collections.emptyList();
+        }
+
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile).filter(matcher::matches).sorted().collect(Collectors.toList());
+        }
+    }
+
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    @Override
+    public NameSample read() throws IOException {
+        boolean clearAdaptiveData = false;
+        while (true) {
+            if (reader == null) {
+                if (fileIndex == files.size()) {
+                    return null;
+                }
+                reader = open(files.get(fileIndex));
+                // first sample of the stream is not a new document, same as in NameSampleDataStream.
+                newDocument = fileIndex > 0;
+                fileIndex++;
+            }
+
+            String line = reader.readLine();
+            if (line == null) {
+                closeReader();
+            } else if (line.trim().isEmpty()) {
+                clearAdaptiveData = true;
+            } else {
+                clearAdaptiveData |= newDocument;
+                newDocument = false;
+                return NameSample.parse(line, clearAdaptiveData);
+            }
+        }
+    }
+
+    private static BufferedReader open(Path file) throws IOException {
+        InputStream input = Files.newInputStream(file);
+        try {
+            if (file.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+                input = new GZIPInputStream(input, BUFFER_SIZE);
+            }
+            return new BufferedReader(new InputStreamReader(input, IOTrain.CHARSET), BUFFER_SIZE);
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts reading with the first file again.
+     */
+    @Override
+    public void reset() throws IOException {
+        closeReader();
+        fileIndex = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeReader();
+        fileIndex = files.size();
+    }
+
+    private void closeReader() throws IOException {
+        if (reader != null) {
+            try {
+                reader.close();
+            } finally {
+                reader = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.evaluation;
+
+import com.civis.utils.opennlp.models.BaseModelTest;
+import com.civis.utils.opennlp.models.FindConfigData;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.TokenNameFinderAdapter;
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderEvaluator;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.TrainingParameters;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+
+public class CrossValidatorTest extends BaseModelTest {
+
+    @Test
+    public void testAdapterFindsTrainingSpans() throws IOException {
+        List<NameSample> samples = IOTrain.readSamples(ModelType.ADDRESS.getTrainFileName());
+        AddressFinderMe addressFinder = (AddressFinderMe) ModelFactory.getAddressFinder();
+        TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(new TokenNameFinderAdapter(addressFinder));
+        evaluator.evaluate(new CollectionObjectStream<>(samples));
+        double f1 = evaluator.getFMeasure().getFMeasure();
+        Assert.assertTrue("Model should find spans of its training data!", f1 > 0.9);
+    }
+
+    @Test
+    public void testFolds() throws IOException {
+        List<NameSample> samples = IOTrain.readSamples(ModelType.ADDRESS.getTrainFileName());
+        TrainingParameters trainingParameters = TrainingParameters.defaultParams();
+        trainingParameters.put(TrainingParameters.ITERATIONS_PARAM, "10");
+        trainingParameters.put(TrainingParameters.CUTOFF_PARAM, "1");
+        CrossValidator crossValidator =
+                new CrossValidator(ModelType.ADDRESS, trainingParameters, FindConfigData.defaultConfig(), 3);
+        List<FoldResult> foldResults = crossValidator.evaluate(samples, 2);
+
+        Assert.assertEquals(3, foldResults.size());
+        int testSampleCount = 0;
+        for (int fold = 0; fold < foldResults.size(); fold++) {
+            FoldResult foldResult = foldResults.get(fold);
+            Assert.assertEquals(fold, foldResult.getFold());
+            Assert.assertEquals(samples.size(), foldResult.getTrainSampleCount() + foldResult.getTestSampleCount());
+            testSampleCount += foldResult.getTestSampleCount();
+        }
+        Assert.assertEquals("Every sample should be tested once!", samples.size(), testSampleCount);
+    }
+}
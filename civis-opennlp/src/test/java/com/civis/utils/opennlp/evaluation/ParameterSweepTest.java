@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.evaluation;
+
+import com.civis.utils.opennlp.models.BaseModelTest;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.tools.namefind.NameSample;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+public class ParameterSweepTest extends BaseModelTest {
+
+    @Test
+    public void testRankedResults() throws IOException {
+        List<NameSample> samples = IOTrain.readSamples(ModelType.ADDRESS.getTrainFileName());
+        ParameterSweep parameterSweep = new ParameterSweep(ModelType.ADDRESS, Arrays.asList("MAXENT", "PERCEPTRON"),
+                Collections.singletonList(1), Collections.singletonList(10), Arrays.asList(1, 3), 5);
+        List<SweepResult> results = parameterSweep.run(samples, 2);
+
+        Assert.assertEquals("Every combination should be evaluated!", 4, results.size());
+        boolean paretoOptimal = false;
+        for (int i = 0; i < results.size(); i++) {
+            SweepResult result = results.get(i);
+            Assert.assertTrue(result.getTokensPerSecond() > 0);
+            if (i > 0) {
+                Assert.assertTrue("Results should be ranked by F1!", results.get(i - 1).getF1() >= result.getF1());
+            }
+            paretoOptimal |= result.isParetoOptimal();
+        }
+        Assert.assertTrue(paretoOptimal);
+    }
+}
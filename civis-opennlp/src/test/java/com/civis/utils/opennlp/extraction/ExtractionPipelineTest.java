@@ -0,0 +1,187 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.extraction;
+
+import com.civis.utils.opennlp.models.BaseModelTest;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.ModelLoadException;
+import com.civis.utils.opennlp.models.ModelPath;
+import com.civis.utils.opennlp.models.address.AddressFinder;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import opennlp.tools.tokenize.TokenizerModel;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+
+public class ExtractionPipelineTest extends BaseModelTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testExtractJsonLines() throws Exception {
+        File input = temporaryFolder.newFile("documents.ndjson");
+        String text = getTextExample("text/perlAmadeus.txt").replace("\\", "\\\\").replace("\"", "\\\"")
+                .replace("\r", "").replace("\n", "\\n");
+        Files.write(input.toPath(), Arrays.asList("{\"id\":\"perl\",\"text\":\"" + text + "\"}",
+                "{\"id\":\"html\",\"html\":\"<p>Kein Kontakt</p>\"}", "not json"), StandardCharsets.UTF_8);
+
+        StringWriter output = new StringWriter();
+        ExtractionStats stats;
+        try (DocumentSource documents = DocumentSource.open(input.toPath());
+             JsonLinesWriter writer = new JsonLinesWriter(output)) {
+            stats = new ExtractionPipeline(2).run(documents, writer);
+        }
+
+        String[] lines = output.toString().split("\n");
+        Assert.assertEquals(3, lines.length);
+        Assert.assertEquals(3, stats.getDocuments());
+        Assert.assertEquals(1, stats.getErrors(ExtractionStats.STAGE_READ));
+        Assert.assertEquals(2, stats.getLatency(ExtractionStats.STAGE_ADDRESS).getCount());
+        String perlLine = Arrays.stream(lines).filter(line -> line.contains("\"id\":\"perl\"")).findFirst().get();
+        Assert.assertTrue(perlLine.contains("\"street\":\"Kurfürstendamm\""));
+    }
+
+    @Test(timeout = 60000)
+    public void testFailedWorkerStopsRun() throws Exception {
+        List<ExtractionDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            documents.add(new ExtractionDocument(String.valueOf(i), "Musterweg 12, 10719 Berlin", false));
+        }
+
+        StringWriter output = new StringWriter();
+        ExtractionPipeline pipeline =
+                new ExtractionPipeline(2, FailingAddressFinder::new, ModelFactory::getContactPersonFinder);
+        try (JsonLinesWriter writer = new JsonLinesWriter(output)) {
+            pipeline.run(documents.iterator(), writer);
+            Assert.fail("Run should fail, if workers fail!");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof AssertionError);
+        }
+    }
+
+    @Test(expected = ModelLoadException.class, timeout = 60000)
+    public void testModelLoadFailureStopsRunBeforeReading() throws Exception {
+        Iterator<ExtractionDocument> documents = new Iterator<ExtractionDocument>() {
+            @Override
+            public boolean hasNext() {
+                throw new AssertionError("Documents should not be read!");
+            }
+
+            @Override
+            public ExtractionDocument next() {
+                throw new AssertionError("Documents should not be read!");
+            }
+        };
+        ExtractionPipeline pipeline = new ExtractionPipeline(2, () -> {
+            throw new ModelLoadException(ModelPath.DE_ADDRESS_BIN);
+        }, ModelFactory::getContactPersonFinder);
+        try (JsonLinesWriter writer = new JsonLinesWriter(new StringWriter())) {
+            pipeline.run(documents, writer);
+        }
+    }
+
+    @Test
+    public void testEveryRunHasOwnStats() throws Exception {
+        List<ExtractionDocument> documents = Arrays.asList(
+                new ExtractionDocument("1", "Musterweg 12, 10719 Berlin", false),
+                new ExtractionDocument("2", "<p>Kein Kontakt</p>", true));
+        ExtractionPipeline pipeline = new ExtractionPipeline(2);
+        try (JsonLinesWriter writer = new JsonLinesWriter(new StringWriter())) {
+            ExtractionStats firstStats = pipeline.run(documents.iterator(), writer);
+            ExtractionStats secondStats = pipeline.run(documents.iterator(), writer);
+            Assert.assertNotSame(firstStats, secondStats);
+            Assert.assertEquals(2, firstStats.getDocuments());
+            Assert.assertEquals(2, secondStats.getDocuments());
+            Assert.assertEquals(2, secondStats.getLatency(ExtractionStats.STAGE_DOCUMENT).getCount());
+        }
+    }
+
+    @Test(expected = UncheckedIOException.class, timeout = 60000)
+    public void testReadFailureStopsRun() throws Exception {
+        Iterator<ExtractionDocument> documents = new Iterator<ExtractionDocument>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                if (count == 3) {
+                    throw new UncheckedIOException(new IOException("broken file"));
+                }
+                return true;
+            }
+
+            @Override
+            public ExtractionDocument next() {
+                count++;
+                return new ExtractionDocument(String.valueOf(count), "Musterweg 12, 10719 Berlin", false);
+            }
+        };
+        try (JsonLinesWriter writer = new JsonLinesWriter(new StringWriter())) {
+            new ExtractionPipeline(2).run(documents, writer);
+        }
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000000L);
+        }
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(50e6, histogram.getPercentile(50), 50e6 * 0.05);
+        Assert.assertEquals(99e6, histogram.getPercentile(99), 99e6 * 0.05);
+    }
+
+    /**
+     * Address finder failing with an error, which is not caught by the pipeline.
+     */
+    private static class FailingAddressFinder implements AddressFinder {
+
+        @Override
+        public List<AddressSpan> find(String[] tokens) {
+            throw new AssertionError("broken finder");
+        }
+
+        @Override
+        public List<AddressSpan> find(String text, TokenizerModel tokenizerModel) {
+            throw new AssertionError("broken finder");
+        }
+
+        @Override
+        public List<AddressSpan> find(String text) {
+            throw new AssertionError("broken finder");
+        }
+
+        @Override
+        public void clearAdaptiveData() {
+        }
+    }
+}
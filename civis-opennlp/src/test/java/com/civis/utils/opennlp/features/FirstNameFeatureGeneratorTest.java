@@ -0,0 +1,72 @@
+package com.civis.utils.opennlp.features;
+
+import opennlp.tools.util.featuregen.FeatureGeneratorAdapter;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test feature first name.
+ */
+public class FirstNameFeatureGeneratorTest extends BaseFeatureTest {
+
+    public void testCreateFeatures() throws Exception {
+        FirstNameFeatureGenerator firstNameFeature = createFirstNameFeature();
+        List<String> features = createFeatures("Ihr Ansprechpartner ist Rene Malonn", firstNameFeature);
+        Assert.assertEquals(FirstNameFeatureGenerator.FIRSTNAME_PREFIX + "=rene", features.get(0));
+        Assert.assertEquals(Collections.singleton(3), firstNameFeature.getIndexes());
+    }
+
+    public void testExcludeNames() throws Exception {
+        FirstNameFeatureGenerator firstNameFeature = createFirstNameFeature();
+        List<String> features = createFeatures("Wir suchen Job Angebote", firstNameFeature);
+        Assert.assertTrue(features.isEmpty());
+    }
+
+    public void testNamesNotModified() throws Exception {
+        Set<String> names = new HashSet<>(Arrays.asList("Rene", "Job"));
+        new FirstNameFeatureGenerator(names, Collections.singleton("Job"));
+        Assert.assertEquals("Given names should not be changed!", 2, names.size());
+    }
+
+    public void testReuseAfterClearAdaptiveData() throws Exception {
+        FirstNameFeatureGenerator firstNameFeature = createFirstNameFeature();
+        createFeatures("Ihr Ansprechpartner ist Rene Malonn", firstNameFeature);
+        firstNameFeature.clearAdaptiveData();
+        Assert.assertTrue(firstNameFeature.getIndexes().isEmpty());
+
+        List<String> features = createFeatures("Kontakt Rene Malonn", firstNameFeature);
+        Assert.assertEquals("Names should be found in the next document!", 1, features.size());
+        Assert.assertEquals(Collections.singleton(1), firstNameFeature.getIndexes());
+    }
+
+    private FirstNameFeatureGenerator createFirstNameFeature() {
+        Set<String> names = new HashSet<>(Arrays.asList("Rene", "Sofia", "Job"));
+        return new FirstNameFeatureGenerator(names, Collections.singleton("Job"));
+    }
+
+    /**
+     * First name feature depends on contact person features of the same token.
+     */
+    @Override
+    protected List<String> createFeatures(String text, FeatureGeneratorAdapter generator) {
+        List<String> features = new ArrayList<>();
+        String[] previousOutcomes = {};
+        String[] tokens = text.split(" ");
+        ContactPersonFeatureGenerator contactPersonFeature = new ContactPersonFeatureGenerator();
+        for (int i = 0; i < tokens.length; i++) {
+            List<String> tokenFeatures = new ArrayList<>();
+            contactPersonFeature.createFeatures(tokenFeatures, tokens, i, previousOutcomes);
+            int contactPersonFeatureCount = tokenFeatures.size();
+            generator.createFeatures(tokenFeatures, tokens, i, previousOutcomes);
+            features.addAll(tokenFeatures.subList(contactPersonFeatureCount, tokenFeatures.size()));
+        }
+
+        return features;
+    }
+}
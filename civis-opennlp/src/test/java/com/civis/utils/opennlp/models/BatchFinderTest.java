@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.opennlp.models.address.AddressFinder;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinder;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+
+public class BatchFinderTest extends BaseModelTest {
+
+    private static final List<String> TEXTS =
+            Arrays.asList(getTextExample("text/perlAmadeus.txt"), getTextExample("text/mateco.txt"),
+                    getTextExample("text/qufox.txt"), getTextExample("text/ivu.txt"),
+                    getTextExample("text/dibag.txt"), getTextExample("text/adoJob.txt"));
+
+    @Test
+    public void testFindAllAddresses() {
+        AddressFinder addressFinder = ModelFactory.getAddressFinder();
+        List<List<AddressSpan>> expected = addressFinder.findAll(TEXTS);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            List<List<AddressSpan>> result = new BatchFinder<>(ModelFactory::getAddressFinder, pool).findAll(TEXTS);
+            Assert.assertEquals(expected, result);
+            Assert.assertEquals("Kurfürstendamm", result.get(0).get(0).getStreet());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFindAllContactPersons() {
+        ContactPersonFinder contactPersonFinder = ModelFactory.getContactPersonFinder();
+        List<List<ContactPersonSpan>> expected = contactPersonFinder.findAll(TEXTS);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            List<List<ContactPersonSpan>> result =
+                    new BatchFinder<>(ModelFactory::getContactPersonFinder, pool).findAll(TEXTS);
+            Assert.assertEquals(expected, result);
+            Assert.assertEquals("Sofia", result.get(3).get(0).getFirstName());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.opennlp.features.FirstCapitalLetterFeature;
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.utils.EventCache;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.model.Event;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+
+public class EventCacheTest extends BaseModelTest {
+
+    private static final String EVENT_HASH = "Training-Eventhash";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testTrainFromEventCache() throws IOException {
+        Path eventCacheFile = temporaryFolder.getRoot().toPath().resolve("address.events");
+        TokenNameFinderModel expected = train(null);
+        TokenNameFinderModel written = train(eventCacheFile);
+        Assert.assertTrue(Files.exists(eventCacheFile));
+        TokenNameFinderModel read = train(eventCacheFile);
+
+        String expectedHash = expected.getManifestProperty(EVENT_HASH);
+        Assert.assertEquals(expectedHash, written.getManifestProperty(EVENT_HASH));
+        Assert.assertEquals(expectedHash, read.getManifestProperty(EVENT_HASH));
+        String[] context = {"def", "w=Berlin"};
+        Assert.assertArrayEquals(expected.getNameFinderModel().eval(context), read.getNameFinderModel().eval(context),
+                0.0001);
+    }
+
+    @Test
+    public void testReadEvents() throws IOException {
+        Path eventCacheFile = temporaryFolder.getRoot().toPath().resolve("address.events");
+        ObjectStream<NameSample> sampleStream = IOTrain.readData("address-train.txt");
+        try {
+            TrainConfigData trainConfigData =
+                    new TrainConfigDataBuilder().setLanguageCode("de").setType("address").setSamples(sampleStream)
+                            .build();
+            AddressFinderMe.initializeTrainModel(trainConfigData).writeEvents(eventCacheFile);
+        } finally {
+            sampleStream.close();
+        }
+
+        EventCache.Stream events = EventCache.read(eventCacheFile, "address");
+        try {
+            int count = 0;
+            while (events.hasNext()) {
+                Event event = events.next();
+                Assert.assertNotNull(event.getOutcome());
+                Assert.assertTrue(event.getContext().length > 0);
+                count++;
+            }
+            Assert.assertTrue(count > 0);
+            Assert.assertEquals(events.getEventCount(), count);
+        } finally {
+            events.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherModelType() throws IOException {
+        Path eventCacheFile = temporaryFolder.getRoot().toPath().resolve("address.events");
+        train(eventCacheFile);
+        EventCache.read(eventCacheFile, "contactPerson");
+    }
+
+    @Test
+    public void testRejectChangedSamples() throws IOException {
+        Path eventCacheFile = temporaryFolder.getRoot().toPath().resolve("address.events");
+        List<NameSample> samples = IOTrain.readSamples("address-train.txt");
+        train(new CollectionObjectStream<>(samples), null, eventCacheFile);
+        try {
+            train(new CollectionObjectStream<>(samples.subList(1, samples.size())), null, eventCacheFile);
+            Assert.fail("Event cache of other samples should be rejected!");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("other samples or features"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectChangedFeatures() throws IOException {
+        Path eventCacheFile = temporaryFolder.getRoot().toPath().resolve("address.events");
+        List<NameSample> samples = IOTrain.readSamples("address-train.txt");
+        train(new CollectionObjectStream<>(samples), null, eventCacheFile);
+        train(new CollectionObjectStream<>(samples), new FirstCapitalLetterFeature(), eventCacheFile);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectChangedFeatureVersion() throws IOException {
+        Path eventCacheFile = temporaryFolder.getRoot().toPath().resolve("address.events");
+        List<NameSample> samples = IOTrain.readSamples("address-train.txt");
+        train(new CollectionObjectStream<>(samples), null, eventCacheFile);
+        new AddressFinderMe(createTrainConfigData(new CollectionObjectStream<>(samples), null, eventCacheFile, 1)) {
+            @Override
+            protected int getFeatureVersion() {
+                return FEATURE_VERSION + 1;
+            }
+        }.train();
+    }
+
+    @Test
+    public void testParallelWrittenCacheIsUsed() throws IOException {
+        Path eventCacheFile = temporaryFolder.getRoot().toPath().resolve("address.events");
+        List<NameSample> samples = IOTrain.readSamples("address-train.txt");
+        TokenNameFinderModel written = AddressFinderMe.initializeTrainModel(
+                createTrainConfigData(new CollectionObjectStream<>(samples), null, eventCacheFile, 3)).train();
+        TokenNameFinderModel read = train(new CollectionObjectStream<>(samples), null, eventCacheFile);
+        Assert.assertEquals(written.getManifestProperty(EVENT_HASH), read.getManifestProperty(EVENT_HASH));
+    }
+
+    private TokenNameFinderModel train(Path eventCacheFile) throws IOException {
+        ObjectStream<NameSample> sampleStream = IOTrain.readData("address-train.txt");
+        try {
+            return train(sampleStream, null, eventCacheFile);
+        } finally {
+            sampleStream.close();
+        }
+    }
+
+    private TokenNameFinderModel train(ObjectStream<NameSample> sampleStream, AdaptiveFeatureGenerator featureGenerator,
+                                       Path eventCacheFile) throws IOException {
+        return AddressFinderMe.initializeTrainModel(createTrainConfigData(sampleStream, featureGenerator,
+                eventCacheFile, 1)).train();
+    }
+
+    private static TrainConfigData createTrainConfigData(ObjectStream<NameSample> sampleStream,
+                                                         AdaptiveFeatureGenerator featureGenerator,
+                                                         Path eventCacheFile, int threads) {
+        TrainConfigData trainConfigData =
+                new TrainConfigDataBuilder().setLanguageCode("de").setType("address").setSamples(sampleStream)
+                        .putCutoffIntoTrainingParameters("1").setFeatureGenerator(featureGenerator)
+                        .setEventCacheFile(eventCacheFile).setThreads(threads).build();
+        trainConfigData.getTrainingParameters().put("Iterations", "10");
+        return trainConfigData;
+    }
+}
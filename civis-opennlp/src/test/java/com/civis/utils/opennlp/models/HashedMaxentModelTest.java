@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.utils.EventCache;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.model.AbstractModel;
+import opennlp.model.Context;
+import opennlp.model.Event;
+import opennlp.model.IndexHashTable;
+import opennlp.model.MaxentModel;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.ObjectStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+
+public class HashedMaxentModelTest extends BaseModelTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testMaxentModelEvaluatesSameProbabilities() throws IOException {
+        AbstractModel model = loadAddressModel().getNameFinderModel();
+        HashedMaxentModel hashedModel = HashedMaxentModel.of(model);
+        Assert.assertEquals(model.getNumOutcomes(), hashedModel.getNumOutcomes());
+        for (int i = 0; i < model.getNumOutcomes(); i++) {
+            Assert.assertEquals(model.getOutcome(i), hashedModel.getOutcome(i));
+        }
+
+        EventCache.Stream events = writeAddressEvents();
+        try {
+            while (events.hasNext()) {
+                Event event = events.next();
+                Assert.assertArrayEquals(model.eval(event.getContext()), hashedModel.eval(event.getContext()), 0.0);
+            }
+        } finally {
+            events.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUnknownPredicates() throws IOException {
+        HashedMaxentModel hashedModel = ModelFactory.getHashedModel(ModelPath.DE_ADDRESS_BIN);
+        AbstractModel model = loadAddressModel().getNameFinderModel();
+        IndexHashTable<String> predicateIndex = (IndexHashTable<String>) model.getDataStructures()[1];
+        String knownPredicate = predicateIndex.toArray(new String[predicateIndex.size()])[0];
+        String[] context = {"unknown", "w=unknown", knownPredicate};
+        int[] predicates = hashedModel.index(context);
+        Assert.assertEquals(-1, predicates[0]);
+        Assert.assertEquals(-1, predicates[1]);
+        Assert.assertTrue(predicates[2] >= 0);
+        Assert.assertArrayEquals(model.eval(context),
+                hashedModel.eval(predicates, null, new double[hashedModel.getNumOutcomes()]), 0.0);
+    }
+
+    @Test
+    public void testFindWithHashedModel() throws IOException {
+        String exampleText = getTextExample("text/perlAmadeus.txt");
+        List<AddressSpan> expected = new AddressFinderMe(loadAddressModel()).find(exampleText);
+        HashedMaxentModel hashedModel = ModelFactory.getHashedModel(ModelPath.DE_ADDRESS_BIN);
+        List<AddressSpan> actual =
+                new AddressFinderMe(hashedModel, FindConfigData.defaultConfig()).find(exampleText);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, actual);
+        Assert.assertSame(hashedModel, ModelFactory.getHashedModel(ModelPath.DE_ADDRESS_BIN));
+    }
+
+    @Test
+    public void testDataStructuresEqualModel() throws IOException {
+        AbstractModel model = loadAddressModel().getNameFinderModel();
+        assertSameDataStructures(model, HashedMaxentModel.of(model));
+    }
+
+    /**
+     * Compares data structures of the array model with the parameters of the original model.
+     */
+    @SuppressWarnings("unchecked")
+    static void assertSameDataStructures(AbstractModel model, MaxentModel arrayModel) {
+        ModelParameters expected = ModelParameters.of(model);
+        Object[] dataStructures = arrayModel.getDataStructures();
+        Context[] contexts = (Context[]) dataStructures[0];
+        IndexHashTable<String> predicateIndex = (IndexHashTable<String>) dataStructures[1];
+        Assert.assertEquals(expected.getContexts().length, contexts.length);
+        Assert.assertArrayEquals(expected.getPredicates(), predicateIndex.toArray(new String[contexts.length]));
+        for (int i = 0; i < contexts.length; i++) {
+            Assert.assertArrayEquals(expected.getContexts()[i].getOutcomes(), contexts[i].getOutcomes());
+            Assert.assertArrayEquals(expected.getContexts()[i].getParameters(), contexts[i].getParameters(), 0.0);
+            Assert.assertEquals(i, predicateIndex.get(expected.getPredicates()[i]));
+        }
+        Assert.assertArrayEquals(expected.getOutcomes(), (String[]) dataStructures[2]);
+        Assert.assertEquals(expected.getCorrectionConstant(), dataStructures[3]);
+        Assert.assertEquals(expected.getCorrectionParam(), dataStructures[4]);
+        Assert.assertNotSame(dataStructures[2], arrayModel.getDataStructures()[2]);
+    }
+
+    private static TokenNameFinderModel loadAddressModel() throws IOException {
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(ModelPath.DE_ADDRESS_BIN)) {
+            return new TokenNameFinderModel(inputStream);
+        }
+    }
+
+    private EventCache.Stream writeAddressEvents() throws IOException {
+        Path eventCacheFile = temporaryFolder.getRoot().toPath().resolve("address.events");
+        ObjectStream<NameSample> sampleStream = IOTrain.readData("address-train.txt");
+        try {
+            TrainConfigData trainConfigData = new TrainConfigDataBuilder().setLanguageCode("de").setType("address")
+                    .setSamples(sampleStream).build();
+            AddressFinderMe.initializeTrainModel(trainConfigData).writeEvents(eventCacheFile);
+        } finally {
+            sampleStream.close();
+        }
+        return EventCache.read(eventCacheFile, "address");
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.utils.EventCache;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.model.AbstractModel;
+import opennlp.model.Event;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.ObjectStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+
+public class MappedMaxentModelTest extends BaseModelTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testMaxentModelEvaluatesSameProbabilities() throws IOException {
+        TokenNameFinderModel model;
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(ModelPath.DE_ADDRESS_BIN)) {
+            model = new TokenNameFinderModel(inputStream);
+        }
+        assertSameProbabilities(model.getNameFinderModel());
+    }
+
+    @Test
+    public void testPerceptronModelEvaluatesSameProbabilities() throws IOException {
+        ObjectStream<NameSample> sampleStream = IOTrain.readData("address-train.txt");
+        try {
+            TrainConfigData trainConfigData =
+                    new TrainConfigDataBuilder().setLanguageCode("de").setType("address").setSamples(sampleStream)
+                            .putCutoffIntoTrainingParameters("1").putIterationsIntoTrainingParameters("10")
+                            .putAlgorithmIntoTrainingParameters("PERCEPTRON").build();
+            assertSameProbabilities(AddressFinderMe.initializeTrainModel(trainConfigData).train().getNameFinderModel());
+        } finally {
+            sampleStream.close();
+        }
+    }
+
+    @Test
+    public void testFindWithMappedModel() throws IOException {
+        TokenNameFinderModel model;
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(ModelPath.DE_ADDRESS_BIN)) {
+            model = new TokenNameFinderModel(inputStream);
+        }
+        Path modelFile = temporaryFolder.getRoot().toPath().resolve("de-address.mapped");
+        MappedMaxentModel.write(model.getNameFinderModel(), modelFile);
+
+        String exampleText = getTextExample("text/perlAmadeus.txt");
+        List<AddressSpan> expected = new AddressFinderMe(model).find(exampleText);
+        List<AddressSpan> actual =
+                ModelFactory.getAddressFinder(modelFile, FindConfigData.defaultConfig()).find(exampleText);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, actual);
+        Assert.assertSame(ModelFactory.getMappedModel(modelFile), ModelFactory.getMappedModel(modelFile));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenOtherFile() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("other.mapped");
+        Files.write(file, new byte[128]);
+        MappedMaxentModel.open(file);
+    }
+
+    /**
+     * Compares probabilities of all contexts of address train samples and of an unknown context.
+     */
+    private void assertSameProbabilities(AbstractModel model) throws IOException {
+        Path modelFile = temporaryFolder.getRoot().toPath().resolve("model.mapped");
+        MappedMaxentModel.write(model, modelFile);
+        MappedMaxentModel mappedModel = MappedMaxentModel.open(modelFile);
+        Assert.assertEquals(model.getNumOutcomes(), mappedModel.getNumOutcomes());
+        for (int i = 0; i < model.getNumOutcomes(); i++) {
+            Assert.assertEquals(model.getOutcome(i), mappedModel.getOutcome(i));
+            Assert.assertEquals(i, mappedModel.getIndex(model.getOutcome(i)));
+        }
+        HashedMaxentModelTest.assertSameDataStructures(model, mappedModel);
+
+        Path eventCacheFile = temporaryFolder.getRoot().toPath().resolve("address.events");
+        ObjectStream<NameSample> sampleStream = IOTrain.readData("address-train.txt");
+        try {
+            TrainConfigData trainConfigData = new TrainConfigDataBuilder().setLanguageCode("de").setType("address")
+                    .setSamples(sampleStream).build();
+            AddressFinderMe.initializeTrainModel(trainConfigData).writeEvents(eventCacheFile);
+        } finally {
+            sampleStream.close();
+        }
+
+        EventCache.Stream events = EventCache.read(eventCacheFile, "address");
+        try {
+            while (events.hasNext()) {
+                Event event = events.next();
+                Assert.assertArrayEquals(model.eval(event.getContext()), mappedModel.eval(event.getContext()), 0.0);
+            }
+        } finally {
+            events.close();
+        }
+        String[] unknownContext = {"unknown", "w=unknown"};
+        Assert.assertArrayEquals(model.eval(unknownContext), mappedModel.eval(unknownContext), 0.0);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderEvaluator;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.CollectionObjectStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+
+public class ModelUpdateTest extends BaseModelTest {
+
+    private static final String[] CONTEXT = {"def", "w=Berlin"};
+    private static final double FORGET_TOLERANCE = 0.1;
+
+    @Test
+    public void testUpdateMaxentModel() throws IOException {
+        assertUpdateLearnsNewSamples("MAXENT");
+    }
+
+    @Test
+    public void testUpdatePerceptronModel() throws IOException {
+        assertUpdateLearnsNewSamples("PERCEPTRON");
+    }
+
+    private void assertUpdateLearnsNewSamples(String algorithm) throws IOException {
+        List<NameSample> samples = IOTrain.readSamples("address-train.txt");
+        List<NameSample> trainedSamples = samples.subList(0, samples.size() / 2);
+        List<NameSample> newSamples = samples.subList(samples.size() / 2, samples.size());
+
+        TokenNameFinderModel model = createTrainModel(trainedSamples, algorithm).train();
+        double[] expected = model.getNameFinderModel().eval(CONTEXT);
+        TokenNameFinderModel updatedModel = createTrainModel(newSamples, algorithm).update(model);
+
+        Assert.assertArrayEquals("Trained model should not be changed!", expected,
+                model.getNameFinderModel().eval(CONTEXT), 0.0);
+        double f1 = evaluate(model, newSamples);
+        double updatedF1 = evaluate(updatedModel, newSamples);
+        Assert.assertTrue("F1 " + updatedF1 + " of new samples should be better than " + f1, updatedF1 > f1);
+        double trainedF1 = evaluate(model, trainedSamples);
+        Assert.assertEquals("Trained samples should not be forgotten!", trainedF1,
+                evaluate(updatedModel, trainedSamples), FORGET_TOLERANCE);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        updatedModel.serialize(output);
+        TokenNameFinderModel loadedModel = new TokenNameFinderModel(new ByteArrayInputStream(output.toByteArray()));
+        Assert.assertArrayEquals(updatedModel.getNameFinderModel().eval(CONTEXT),
+                loadedModel.getNameFinderModel().eval(CONTEXT), 0.0001);
+    }
+
+    private static TrainModel createTrainModel(List<NameSample> samples, String algorithm) {
+        TrainConfigData trainConfigData =
+                new TrainConfigDataBuilder().setLanguageCode("de").setType("address")
+                        .setSamples(new CollectionObjectStream<>(samples)).putCutoffIntoTrainingParameters("1")
+                        .putIterationsIntoTrainingParameters("20").putAlgorithmIntoTrainingParameters(algorithm)
+                        .build();
+        return AddressFinderMe.initializeTrainModel(trainConfigData);
+    }
+
+    private static double evaluate(TokenNameFinderModel model, List<NameSample> samples) throws IOException {
+        TokenNameFinderEvaluator evaluator =
+                new TokenNameFinderEvaluator(new TokenNameFinderAdapter(new AddressFinderMe(model)));
+        evaluator.evaluate(new CollectionObjectStream<>(samples));
+        return evaluator.getFMeasure().getFMeasure();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+
+public class SearchModeTest extends BaseModelTest {
+
+    private static final String TEXT = getTextExample("text/perlAmadeus.txt");
+
+    @Test
+    public void testGreedySearch() {
+        FindConfigData findConfigData = new FindConfigDataBuilder().setSearchMode(SearchMode.GREEDY).build();
+        List<AddressSpan> expected = ModelFactory.getAddressFinder().find(TEXT);
+        Assert.assertEquals(expected, ModelFactory.getAddressFinder(findConfigData).find(TEXT));
+    }
+
+    @Test
+    public void testAdaptiveSearch() {
+        FindConfigData findConfigData =
+                new FindConfigDataBuilder().setSearchMode(SearchMode.ADAPTIVE).setMinProbability(0.9).build();
+        List<ContactPersonSpan> expected = ModelFactory.getContactPersonFinder().find(TEXT);
+        Assert.assertEquals(expected, ModelFactory.getContactPersonFinder(findConfigData).find(TEXT));
+    }
+
+    @Test
+    public void testBeamSize() {
+        FindConfigData findConfigData = new FindConfigDataBuilder().setBeamSize(5).build();
+        List<AddressSpan> addressSpans = ModelFactory.getAddressFinder(findConfigData).find(TEXT);
+        Assert.assertEquals("Kurfürstendamm", addressSpans.get(0).getStreet());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.opennlp.models.address.AddressFinder;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonFinder;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+
+public class SentenceFinderTest extends BaseModelTest {
+
+    private static final String TEXT = getTextExample("text/perlAmadeus.txt");
+
+    @Test
+    public void testFindAddressInSentences() {
+        FindConfigData sequential =
+                new FindConfigDataBuilder().setSentenceModel(ModelFactory.getSentenceModel()).build();
+        List<AddressSpan> expected = ModelFactory.getAddressFinder(sequential).find(TEXT);
+        Assert.assertEquals("Kurfürstendamm", expected.get(0).getStreet());
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            AddressFinder addressFinder = ModelFactory.getAddressFinder(createParallelConfig(pool));
+            Assert.assertEquals(expected, addressFinder.find(TEXT));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFindContactPersonInSentences() {
+        FindConfigData sequential =
+                new FindConfigDataBuilder().setSentenceModel(ModelFactory.getSentenceModel()).build();
+        List<ContactPersonSpan> expected = ModelFactory.getContactPersonFinder(sequential).find(TEXT);
+        Assert.assertFalse(expected.isEmpty());
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ContactPersonFinder contactPersonFinder = ModelFactory.getContactPersonFinder(createParallelConfig(pool));
+            Assert.assertEquals(expected, contactPersonFinder.find(TEXT));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private FindConfigData createParallelConfig(ForkJoinPool pool) {
+        return new FindConfigDataBuilder().setSentenceModel(ModelFactory.getSentenceModel()).setPool(pool)
+                .setParallelThreshold(0).build();
+    }
+}
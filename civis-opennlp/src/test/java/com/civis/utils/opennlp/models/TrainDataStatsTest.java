@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.model.AbstractModel;
+import opennlp.model.Context;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.Span;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+
+public class TrainDataStatsTest extends BaseModelTest {
+
+    @Test
+    public void testStatsMatchTrainedModel() throws IOException {
+        List<NameSample> samples = IOTrain.readSamples("address-train.txt");
+        TrainDataStats stats = createTrainModel(samples, 1, 1).collectStats();
+
+        Assert.assertEquals(samples.size(), stats.getSamples());
+        // train file has no empty lines, all samples are one document.
+        Assert.assertEquals(1, stats.getDocuments());
+        Assert.assertEquals(40, stats.getSpansPerType().get("address").intValue());
+        for (int cutoff : new int[]{1, 5}) {
+            AbstractModel model = (AbstractModel) createTrainModel(samples, cutoff, 1).train().getNameFinderModel();
+            Context[] params = (Context[]) model.getDataStructures()[0];
+            long parameters = 0;
+            for (Context context : params) {
+                parameters += context.getOutcomes().length;
+            }
+            Assert.assertEquals(params.length, stats.getPredicates(cutoff));
+            Assert.assertEquals(parameters, stats.getParameters(cutoff));
+            Assert.assertEquals(model.getNumOutcomes(), stats.getOutcomes().size());
+        }
+    }
+
+    @Test
+    public void testParallelStatsEqualSequentialStats() throws IOException {
+        List<NameSample> samples = IOTrain.readSamples("address-train.txt");
+        TrainDataStats expected = createTrainModel(samples, 1, 1).collectStats();
+        TrainDataStats stats = createTrainModel(samples, 1, 3).collectStats();
+
+        Assert.assertEquals(expected.getSamples(), stats.getSamples());
+        Assert.assertEquals(expected.getDocuments(), stats.getDocuments());
+        Assert.assertEquals(expected.getEvents(), stats.getEvents());
+        Assert.assertEquals(expected.getFeatures(), stats.getFeatures());
+        Assert.assertEquals(expected.getSpansPerType(), stats.getSpansPerType());
+        Assert.assertEquals(expected.getTokensPerSample(90), stats.getTokensPerSample(90));
+        Assert.assertEquals(expected.getUniqueFeaturesPerPrefix(), stats.getUniqueFeaturesPerPrefix());
+        Assert.assertEquals(expected.getParameters(1), stats.getParameters(1));
+        Assert.assertEquals(expected.estimateModelBytes(5), stats.estimateModelBytes(5));
+    }
+
+    @Test
+    public void testDocumentsOfChunks() {
+        String[] tokens = {"Berlin"};
+        TrainDataStats stats = new TrainDataStats();
+        stats.addSample(new NameSample(tokens, new Span[0], false), "address");
+        stats.addSample(new NameSample(tokens, new Span[0], false), "address");
+        stats.addSample(new NameSample(tokens, new Span[0], true), "address");
+        Assert.assertEquals(2, stats.getDocuments());
+
+        TrainDataStats continuedStats = new TrainDataStats(true);
+        continuedStats.addSample(new NameSample(tokens, new Span[0], false), "address");
+        continuedStats.addSample(new NameSample(tokens, new Span[0], true), "address");
+        stats.merge(continuedStats);
+        Assert.assertEquals(5, stats.getSamples());
+        Assert.assertEquals(3, stats.getDocuments());
+    }
+
+    private static TrainModel createTrainModel(List<NameSample> samples, int cutoff, int threads) {
+        TrainConfigData trainConfigData =
+                new TrainConfigDataBuilder().setLanguageCode("de").setType("address")
+                        .setSamples(new CollectionObjectStream<>(samples))
+                        .putCutoffIntoTrainingParameters(String.valueOf(cutoff))
+                        .putIterationsIntoTrainingParameters("1").setThreads(threads).build();
+        return AddressFinderMe.initializeTrainModel(trainConfigData);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models;
+
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.utils.IOTrain;
+import opennlp.model.MaxentModel;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Span;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class TrainThreadsTest extends BaseModelTest {
+
+    private static final String EVENT_HASH = "Training-Eventhash";
+
+    @Test
+    public void testParallelTrainingUsesSameEvents() throws IOException {
+        TokenNameFinderModel expected = train(1);
+        TokenNameFinderModel actual = train(3);
+        Assert.assertEquals("Events should be collected in the same order!", expected.getManifestProperty(EVENT_HASH),
+                actual.getManifestProperty(EVENT_HASH));
+
+        MaxentModel expectedModel = expected.getNameFinderModel();
+        MaxentModel actualModel = actual.getNameFinderModel();
+        Assert.assertEquals(expectedModel.getNumOutcomes(), actualModel.getNumOutcomes());
+        String[] context = {"def", "w=Berlin"};
+        Assert.assertArrayEquals(expectedModel.eval(context), actualModel.eval(context), 0.0001);
+    }
+
+    @Test
+    public void testChunksKeepOrderAndReadAheadIsBounded() throws IOException {
+        int[] readCount = new int[1];
+        ObjectStream<NameSample> sampleStream = new ObjectStream<NameSample>() {
+            @Override
+            public NameSample read() {
+                return readCount[0] < 50 ?
+                        new NameSample(new String[]{String.valueOf(readCount[0]++)}, new Span[0], false) : null;
+            }
+
+            @Override
+            public void reset() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        List<String> firstTokens = new ArrayList<>();
+        try (ChunkedSampleProcessor<String> chunks = new ChunkedSampleProcessor<>(sampleStream, 2, 4,
+                (chunk, first) -> first + ":" + chunk.get(0).getSentence()[0])) {
+            Assert.assertTrue(chunks.hasNext());
+            Assert.assertEquals("Only two chunks per thread should be read ahead!", 16, readCount[0]);
+            while (chunks.hasNext()) {
+                firstTokens.add(chunks.next());
+            }
+        }
+        Assert.assertEquals(13, firstTokens.size());
+        Assert.assertEquals("true:0", firstTokens.get(0));
+        for (int i = 1; i < firstTokens.size(); i++) {
+            Assert.assertEquals("false:" + i * 4, firstTokens.get(i));
+        }
+    }
+
+    private TokenNameFinderModel train(int threads) throws IOException {
+        ObjectStream<NameSample> sampleStream = IOTrain.readData("address-train.txt");
+        try {
+            TrainConfigData trainConfigData =
+                    new TrainConfigDataBuilder().setLanguageCode("de").setType("address").setSamples(sampleStream)
+                            .putCutoffIntoTrainingParameters("1").setThreads(threads).build();
+            trainConfigData.getTrainingParameters().put("Iterations", "10");
+            return AddressFinderMe.initializeTrainModel(trainConfigData).train();
+        } finally {
+            sampleStream.close();
+        }
+    }
+}
@@ -17,7 +17,13 @@
 package com.civis.utils.opennlp.models.address;
 
 import com.civis.utils.html.parser.HtmlParser;
+import com.civis.utils.metrics.HitRatio;
+import com.civis.utils.metrics.InMemoryMetricsRegistry;
 import com.civis.utils.opennlp.models.BaseModelTest;
+import com.civis.utils.opennlp.models.FindConfigData;
+import com.civis.utils.opennlp.models.FindConfigDataBuilder;
+import com.civis.utils.opennlp.models.FindType;
+import com.civis.utils.opennlp.models.FinderMetrics;
 import com.civis.utils.opennlp.models.ModelFactory;
 import org.junit.Assert;
 import org.junit.Test;
@@ -91,4 +97,51 @@ public class AddressFinderMeTest extends BaseModelTest {
         Assert.assertEquals("Deutschland", addressSpan.getCountry());
         Assert.assertNull("Probability should ne null", addressSpan.getProbability());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testZipFallbackFindsHyphenatedCity() {
+        AddressFinder addressFinder = ModelFactory.getAddressFinder();
+        List<AddressSpan> addressSpans =
+                addressFinder.find("Firma GmbH, Musterweg 12, 44575 Castrop-Rauxel. Vielen Dank.");
+        Assert.assertEquals(1, addressSpans.size());
+        AddressSpan addressSpan = addressSpans.get(0);
+        Assert.assertEquals(FindType.PATTERN, addressSpan.getFindType());
+        Assert.assertEquals("Musterweg", addressSpan.getStreet());
+        Assert.assertEquals("12", addressSpan.getStreetNumber());
+        Assert.assertEquals("44575", addressSpan.getZip());
+        Assert.assertEquals("Castrop-Rauxel", addressSpan.getCity());
+    }
+
+    @Test
+    public void testPrefilterSkipsTextWithoutAddress() {
+        AddressFinderMe addressFinder = (AddressFinderMe) ModelFactory.getAddressFinder();
+        List<AddressSpan> addressSpans = addressFinder.find("Wir suchen einen Entwickler mit Java Kenntnissen.");
+        Assert.assertTrue(addressSpans.isEmpty());
+        addressFinder.find(getTextExample("text/perlAmadeus.txt"));
+
+        AddressPrefilter prefilter = addressFinder.getPrefilter();
+        Assert.assertEquals(2, prefilter.getCheckedCount());
+        Assert.assertEquals(1, prefilter.getSkippedCount());
+        Assert.assertEquals(0.5, prefilter.getSkipRate(), 0.001);
+        Assert.assertTrue(prefilter.getSavedNanos() > 0);
+    }
+
+    @Test
+    public void testMetrics() {
+        InMemoryMetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+        FindConfigData findConfigData = new FindConfigDataBuilder().setMetricsRegistry(metricsRegistry).build();
+        AddressFinder addressFinder = ModelFactory.getAddressFinder(findConfigData);
+        List<AddressSpan> addressSpans = addressFinder.find(getTextExample("text/perlAmadeus.txt"));
+        Assert.assertEquals(1, addressSpans.size());
+
+        String prefix = AddressFinderMe.FINDER_NAME;
+        Assert.assertEquals(1, metricsRegistry.timer(prefix + FinderMetrics.TOKENIZE).getCount());
+        Assert.assertEquals(1, metricsRegistry.timer(prefix + FinderMetrics.BEAM_SEARCH).getCount());
+        Assert.assertEquals(1, metricsRegistry.timer(prefix + FinderMetrics.SPAN_BUILDING).getCount());
+        Assert.assertEquals(0, metricsRegistry.timer(prefix + FinderMetrics.PATTERN_FALLBACK).getCount());
+        Assert.assertEquals(1, metricsRegistry.getCount(prefix + FinderMetrics.SPANS + "NLP"));
+        Assert.assertEquals(0, metricsRegistry.getCount(prefix + FinderMetrics.SPANS + "PATTERN"));
+        String zipLookups = prefix + FinderMetrics.GAZETTEER + "zip" + HitRatio.LOOKUPS_SUFFIX;
+        Assert.assertEquals("Zip is searched only in pattern fallback!", 0, metricsRegistry.getCount(zipLookups));
+    }
+}
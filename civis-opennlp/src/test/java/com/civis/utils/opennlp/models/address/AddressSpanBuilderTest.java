@@ -102,4 +102,23 @@ public class AddressSpanBuilderTest {
         Assert.assertEquals(city, addressSpan.getCity());
         Assert.assertEquals(country, addressSpan.getCountry());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReuseBuilder() throws Exception {
+        String[] tokens = new String[]{"Reamurstr.", "20", "12207,", "Berlin", "und", "Lindenstr.", "19", ",", "1234",
+                "Paris", "Frankreich"};
+        AddressSpanBuilder addressSpanBuilder = new AddressSpanBuilder().setCsvAddressData(CSVAddressReader.read())
+                .setCountries(CountryReader.read());
+        AddressSpan berlin = addressSpanBuilder.reset(new Span(0, 4, "address"), 0.6, tokens).build();
+        Assert.assertEquals("12207", berlin.getZip());
+        Assert.assertEquals("Berlin", berlin.getCity());
+        Assert.assertEquals("Deutschland", berlin.getCountry());
+
+        AddressSpan paris = addressSpanBuilder.reset(new Span(5, 11, "address"), 0.7, tokens).build();
+        Assert.assertEquals("Lindenstr.", paris.getStreet());
+        Assert.assertEquals("1234", paris.getZip());
+        Assert.assertEquals("Paris", paris.getCity());
+        Assert.assertEquals("Frankreich", paris.getCountry());
+        Assert.assertEquals(0.7, paris.getProbability(), 0.0001);
+    }
+}
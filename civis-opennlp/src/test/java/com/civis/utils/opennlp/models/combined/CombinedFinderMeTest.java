@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.models.combined;
+
+import com.civis.utils.opennlp.models.BaseModelTest;
+import com.civis.utils.opennlp.models.ModelFactory;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import com.civis.utils.opennlp.models.contactperson.ContactPersonSpan;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+
+public class CombinedFinderMeTest extends BaseModelTest {
+
+    private static final String[] FILE_PATHS =
+            {"text/perlAmadeus.txt", "text/mateco.txt", "text/qufox.txt", "text/ivu.txt", "text/dibag.txt",
+                    "text/bernerMattnerJob.txt"};
+
+    @Test
+    public void testSameResultAsSingleFinders() {
+        CombinedFinder combinedFinder = ModelFactory.getCombinedFinder();
+        for (String filePath : FILE_PATHS) {
+            String exampleText = getTextExample(filePath);
+            List<AddressSpan> addressSpans = ModelFactory.getAddressFinder().find(exampleText);
+            List<ContactPersonSpan> contactPersonSpans = ModelFactory.getContactPersonFinder().find(exampleText);
+            CombinedResult result = combinedFinder.find(exampleText);
+            combinedFinder.clearAdaptiveData();
+            Assert.assertEquals(filePath, addressSpans, result.getAddressSpans());
+            Assert.assertEquals(filePath, contactPersonSpans, result.getContactPersonSpans());
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            CombinedFinder combinedFinder = ModelFactory.getCombinedFinder(pool);
+            CombinedResult result = combinedFinder.find(getTextExample("text/ivu.txt"));
+            Assert.assertEquals("Sofia", result.getContactPersonSpans().get(0).getFirstName());
+            Assert.assertEquals(ModelFactory.getAddressFinder().find(getTextExample("text/ivu.txt")),
+                    result.getAddressSpans());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -21,7 +21,12 @@ import com.civis.utils.opennlp.models.ModelFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 
 public class ContactPersonFinderTest extends BaseModelTest {
@@ -87,4 +92,85 @@ public class ContactPersonFinderTest extends BaseModelTest {
         Assert.assertEquals("Arngold", contactSpan.getSecondName());
         Assert.assertEquals("W", contactSpan.getSex());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReuseFinder() {
+        ContactPersonFinder contactPersonFinder = ModelFactory.getContactPersonFinder();
+        List<ContactPersonSpan> matecoSpans = contactPersonFinder.find(getTextExample("text/mateco.txt"));
+        contactPersonFinder.clearAdaptiveData();
+        List<ContactPersonSpan> ivuSpans = contactPersonFinder.find(getTextExample("text/ivu.txt"));
+        contactPersonFinder.clearAdaptiveData();
+        List<ContactPersonSpan> matecoSpansAgain = contactPersonFinder.find(getTextExample("text/mateco.txt"));
+
+        Assert.assertEquals("Should be exact one contact person!", 1, ivuSpans.size());
+        Assert.assertEquals("Sofia", ivuSpans.get(0).getFirstName());
+        Assert.assertEquals("Same document should return same result!", matecoSpans, matecoSpansAgain);
+    }
+
+    @Test
+    public void testRandstadJob() {
+        String exampleText = getTextExample("text/randstad.txt");
+        ContactPersonFinder contactPersonFinder = ModelFactory.getContactPersonFinder();
+        List<ContactPersonSpan> contactPersonSpans = contactPersonFinder.find(exampleText);
+        Assert.assertTrue("Torsten Hebel should be found!",
+                contactPersonSpans.contains(new ContactPersonSpan("Torsten", "Hebel", "N")));
+    }
+
+    @Test
+    public void testRemoveSimilarityOfPartialNames() {
+        ContactPersonSpan peter = createContact("Peter", null, 0.5);
+        ContactPersonSpan hansPeter = createContact("Hans-Peter", "Müller", 0.9);
+        ContactPersonSpan mono = createContact(null, "Mono", 0.4);
+        ContactPersonSpan monoton = createContact("Rene", "Monoton", 0.8);
+        Set<ContactPersonSpan> contacts = new LinkedHashSet<>(Arrays.asList(peter, hansPeter, mono, monoton));
+
+        Set<ContactPersonSpan> result = new HashSet<>(ContactPersonFinderMe.removeSimilarity(contacts));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(hansPeter, monoton)), result);
+        Assert.assertEquals(removeSimilarityOfAllPairs(contacts), result);
+    }
+
+    @Test
+    public void testRemoveSimilarityEqualsAllPairs() {
+        String[] names = {"Peter", "Hans-Peter", "Müller", "Mono", "Rene", "Monoton", "Jo", "Jonas", "Anne",
+                "Marianne", "Ann", null};
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            Set<ContactPersonSpan> contacts = new LinkedHashSet<>();
+            int size = random.nextInt(8);
+            for (int i = 0; i < size; i++) {
+                contacts.add(createContact(names[random.nextInt(names.length)], names[random.nextInt(names.length)],
+                        random.nextDouble()));
+            }
+            Assert.assertEquals(removeSimilarityOfAllPairs(contacts),
+                    new HashSet<>(ContactPersonFinderMe.removeSimilarity(contacts)));
+        }
+    }
+
+    private static ContactPersonSpan createContact(String firstName, String secondName, double probability) {
+        ContactPersonSpan contactPersonSpan = new ContactPersonSpan(firstName, secondName, "N");
+        contactPersonSpan.setProbability(probability);
+        return contactPersonSpan;
+    }
+
+    /**
+     * Compare every contact with all others, like before contacts were indexed.
+     */
+    private static Set<ContactPersonSpan> removeSimilarityOfAllPairs(Set<ContactPersonSpan> contacts) {
+        Set<ContactPersonSpan> result = new HashSet<>();
+        for (ContactPersonSpan check : contacts) {
+            ContactPersonSpan similarityContact = null;
+            for (ContactPersonSpan contact : contacts) {
+                if (!contact.equals(check) && contact.contains(check.getFullNameWithoutWhiteSpace())) {
+                    similarityContact = contact;
+                    break;
+                }
+            }
+            if (similarityContact != null && similarityContact.getProbability() > check.getProbability()) {
+                result.add(similarityContact);
+            } else {
+                result.add(check);
+            }
+        }
+        return result;
+    }
+}
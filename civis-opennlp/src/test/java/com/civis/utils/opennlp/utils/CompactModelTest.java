@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.utils;
+
+import com.civis.utils.opennlp.models.BaseModelTest;
+import com.civis.utils.opennlp.models.ModelPath;
+import com.civis.utils.opennlp.models.address.AddressFinderMe;
+import com.civis.utils.opennlp.models.address.AddressSpan;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+
+public class CompactModelTest extends BaseModelTest {
+
+    private static final String[] CONTEXT = {"def", "w=Berlin"};
+
+    private static TokenNameFinderModel model;
+
+    @BeforeClass
+    public static void loadModel() throws IOException {
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(ModelPath.DE_ADDRESS_BIN)) {
+            model = new TokenNameFinderModel(inputStream);
+        }
+    }
+
+    @Test
+    public void testFloatModelFindsSameAddresses() throws IOException {
+        TokenNameFinderModel compactModel = writeAndRead(CompactModel.Precision.FLOAT, 0);
+        Assert.assertArrayEquals(model.getNameFinderModel().eval(CONTEXT),
+                compactModel.getNameFinderModel().eval(CONTEXT), 0.00001);
+        Assert.assertEquals(model.getManifestProperty("Training-Eventhash"),
+                compactModel.getManifestProperty("Training-Eventhash"));
+        Assert.assertEquals(CompactModel.Precision.FLOAT.name(),
+                compactModel.getManifestProperty(CompactModel.PRECISION_PROPERTY));
+
+        String exampleText = getTextExample("text/perlAmadeus.txt");
+        List<AddressSpan> expected = new AddressFinderMe(model).find(exampleText);
+        List<AddressSpan> actual = new AddressFinderMe(compactModel).find(exampleText);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testByteModel() throws IOException {
+        TokenNameFinderModel compactModel = writeAndRead(CompactModel.Precision.BYTE, 0);
+        Assert.assertArrayEquals(model.getNameFinderModel().eval(CONTEXT),
+                compactModel.getNameFinderModel().eval(CONTEXT), 0.05);
+    }
+
+    @Test
+    public void testPruneParameters() throws IOException {
+        int allParams = CompactModel.write(model, CompactModel.Precision.FLOAT, 0, new ByteArrayOutputStream());
+        int prunedParams = CompactModel.write(model, CompactModel.Precision.FLOAT, 0.5, new ByteArrayOutputStream());
+        Assert.assertTrue(prunedParams < allParams);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadBinModel() throws IOException {
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(ModelPath.DE_ADDRESS_BIN)) {
+            CompactModel.read(inputStream);
+        }
+    }
+
+    private static TokenNameFinderModel writeAndRead(CompactModel.Precision precision, double pruneThreshold)
+            throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CompactModel.write(model, precision, pruneThreshold, output);
+        return CompactModel.read(new ByteArrayInputStream(output.toByteArray()));
+    }
+}
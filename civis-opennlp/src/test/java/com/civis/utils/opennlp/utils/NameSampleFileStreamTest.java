@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.opennlp.utils;
+
+import opennlp.tools.namefind.NameSample;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+
+public class NameSampleFileStreamTest {
+
+    private static final String FIRST = "Wir sitzen in <START:address> Berlin <END> .";
+    private static final String SECOND = "Kontakt : <START:contactPerson> Max Mustermann <END>";
+    private static final String THIRD = "Keine Adresse .";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadGlobWithGzip() throws IOException {
+        Path dir = temporaryFolder.getRoot().toPath();
+        write(dir.resolve("a-train.txt"), FIRST + "\n\n" + SECOND + "\n", false);
+        write(dir.resolve("b-train.txt.gz"), THIRD + "\n", true);
+        write(dir.resolve("other.txt"), SECOND + "\n", false);
+
+        NameSampleFileStream sampleStream = IOTrain.readFiles(dir.resolve("*-train.txt*").toString());
+        try {
+            Assert.assertEquals(2, sampleStream.getFiles().size());
+            List<NameSample> samples = IOTrain.readSamples(sampleStream);
+            Assert.assertEquals(3, samples.size());
+            Assert.assertEquals(NameSample.parse(FIRST, false), samples.get(0));
+            Assert.assertFalse(samples.get(0).isClearAdaptiveDataSet());
+            Assert.assertTrue("Empty line starts a new document!", samples.get(1).isClearAdaptiveDataSet());
+            Assert.assertTrue("File starts a new document!", samples.get(2).isClearAdaptiveDataSet());
+            Assert.assertEquals(NameSample.parse(THIRD, true), samples.get(2));
+        } finally {
+            sampleStream.close();
+        }
+    }
+
+    @Test
+    public void testReset() throws IOException {
+        Path dir = temporaryFolder.getRoot().toPath();
+        write(dir.resolve("a.txt"), FIRST + "\n" + SECOND + "\n", false);
+        write(dir.resolve("b.txt.gz"), THIRD + "\n", true);
+
+        NameSampleFileStream sampleStream = IOTrain.readFiles(dir.toString());
+        try {
+            Assert.assertEquals(NameSample.parse(FIRST, false), sampleStream.read());
+            Assert.assertEquals(NameSample.parse(SECOND, false), sampleStream.read());
+            Assert.assertEquals(NameSample.parse(THIRD, true), sampleStream.read());
+            Assert.assertNull(sampleStream.read());
+
+            sampleStream.reset();
+            Assert.assertEquals(NameSample.parse(FIRST, false), sampleStream.read());
+        } finally {
+            sampleStream.close();
+        }
+    }
+
+    @Test
+    public void testSameSamplesAsClasspath() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("address-train.txt.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write(Files.readAllBytes(Paths.get("src/main/resources/train/address-train.txt")));
+        }
+
+        List<NameSample> expected = IOTrain.readSamples("address-train.txt");
+        List<NameSample> actual = IOTrain.readSamples(IOTrain.readFiles(file.toString()));
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testNoMatchingFile() throws IOException {
+        IOTrain.readFiles(temporaryFolder.getRoot().toPath().resolve("*.txt").toString());
+    }
+
+    private static void write(Path file, String text, boolean gzip) throws IOException {
+        OutputStream output = Files.newOutputStream(file);
+        if (gzip) {
+            output = new GZIPOutputStream(output);
+        }
+        try (Writer writer = new OutputStreamWriter(output, IOTrain.CHARSET)) {
+            writer.write(text);
+        }
+    }
+}
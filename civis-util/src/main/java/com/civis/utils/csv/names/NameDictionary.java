@@ -0,0 +1,197 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.csv.names;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compact read only dictionary of names and their gender.
+ * <p/>
+ * Names are sorted and stored as UTF-8 bytes in one array, gender is stored as byte index into a small table of
+ * gender values. Lookups use binary search and accept any CharSequence, so no substring has to be created.
+ */
+public final class NameDictionary {
+
+    private final byte[] names;
+    private final int[] offsets;
+    private final byte[] genderIndexes;
+    private final String[] genders;
+
+    private NameDictionary(byte[] names, int[] offsets, byte[] genderIndexes, String[] genders) {
+        this.names = names;
+        this.offsets = offsets;
+        this.genderIndexes = genderIndexes;
+        this.genders = genders;
+    }
+
+    /**
+     * Read default csv-file with names.
+     */
+    public static NameDictionary read() {
+        return of(CSVNamesReader.read());
+    }
+
+    /**
+     * Create dictionary of name data. If a name occurs more than once, the last gender is used.
+     */
+    public static NameDictionary of(List<CSVNameData> nameDataList) {
+        Map<String, String> namesGender = new TreeMap<>();
+        for (CSVNameData csvNameData : nameDataList) {
+            namesGender.put(csvNameData.getName(), csvNameData.getGender());
+        }
+        return of(namesGender);
+    }
+
+    /**
+     * Create dictionary of map, Map-Key is name, Map-Value is gender.
+     */
+    public static NameDictionary of(Map<String, String> namesGender) {
+        Map<String, String> sortedNamesGender =
+                namesGender instanceof TreeMap ? namesGender : new TreeMap<>(namesGender);
+        List<String> genders = new ArrayList<>();
+        byte[][] encodedNames = new byte[sortedNamesGender.size()][];
+        byte[] genderIndexes = new byte[sortedNamesGender.size()];
+        int[] offsets = new int[sortedNamesGender.size() + 1];
+        int i = 0;
+        for (Map.Entry<String, String> nameGender : sortedNamesGender.entrySet()) {
+            encodedNames[i] = nameGender.getKey().getBytes(StandardCharsets.UTF_8);
+            offsets[i + 1] = offsets[i] + encodedNames[i].length;
+            int genderIndex = genders.indexOf(nameGender.getValue());
+            if (genderIndex < 0) {
+                genderIndex = genders.size();
+                genders.add(nameGender.getValue());
+            }
+            if (genderIndex > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many different genders: " + genders.size());
+            }
+            genderIndexes[i] = (byte) genderIndex;
+            i++;
+        }
+
+        byte[] names = new byte[offsets[offsets.length - 1]];
+        for (int j = 0; j < encodedNames.length; j++) {
+            System.arraycopy(encodedNames[j], 0, names, offsets[j], encodedNames[j].length);
+        }
+        return new NameDictionary(names, offsets, genderIndexes, genders.toArray(new String[genders.size()]));
+    }
+
+    /**
+     * Returns count of names.
+     */
+    public int size() {
+        return genderIndexes.length;
+    }
+
+    public boolean contains(CharSequence name) {
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * Returns gender of the name or null, if name is unknown.
+     */
+    public String getGender(CharSequence name) {
+        int index = indexOf(name);
+        return index < 0 ? null : genders[genderIndexes[index]];
+    }
+
+    /**
+     * Returns name at index in sorted order.
+     */
+    public String getName(int index) {
+        return new String(names, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns index of the name or a negative value, if name is unknown.
+     */
+    public int indexOf(CharSequence name) {
+        if (name == null) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = compare(middle, name);
+            if (compare < 0) {
+                low = middle + 1;
+            } else if (compare > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Compare UTF-8 name at index with the char sequence in UTF-16 order, same order as String.compareTo.
+     */
+    private int compare(int index, CharSequence name) {
+        int position = offsets[index];
+        int end = offsets[index + 1];
+        int charIndex = 0;
+        int length = name.length();
+        while (position < end && charIndex < length) {
+            int b = names[position] & 0xFF;
+            int codePoint;
+            if (b < 0x80) {
+                codePoint = b;
+                position += 1;
+            } else if (b < 0xE0) {
+                codePoint = ((b & 0x1F) << 6) | (names[position + 1] & 0x3F);
+                position += 2;
+            } else if (b < 0xF0) {
+                codePoint = ((b & 0x0F) << 12) | ((names[position + 1] & 0x3F) << 6) | (names[position + 2] & 0x3F);
+                position += 3;
+            } else {
+                codePoint = ((b & 0x07) << 18) | ((names[position + 1] & 0x3F) << 12) |
+                        ((names[position + 2] & 0x3F) << 6) | (names[position + 3] & 0x3F);
+                position += 4;
+            }
+
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                int diff = codePoint - name.charAt(charIndex++);
+                if (diff != 0) {
+                    return diff;
+                }
+            } else {
+                int diff = Character.highSurrogate(codePoint) - name.charAt(charIndex++);
+                if (diff != 0) {
+                    return diff;
+                }
+                if (charIndex == length) {
+                    return 1;
+                }
+                diff = Character.lowSurrogate(codePoint) - name.charAt(charIndex++);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+        }
+
+        if (position < end) {
+            return 1;
+        }
+        return charIndex < length ? -1 : 0;
+    }
+}
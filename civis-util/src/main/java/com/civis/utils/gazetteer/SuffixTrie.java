@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.gazetteer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable trie of reversed strings to find the longest entry, which a value ends with.
+ * <p/>
+ * Lookup walks the value from the last char to the first, so it runs in O(length of value) independent of count
+ * of entries.
+ */
+public final class SuffixTrie {
+
+    private final Node root;
+    private final int size;
+
+    private SuffixTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Create trie of given entries, blank entries are ignored.
+     */
+    public static SuffixTrie of(Collection<String> entries) {
+        BuilderNode root = new BuilderNode();
+        int size = 0;
+        for (String entry : entries) {
+            if (entry == null || entry.trim().isEmpty()) {
+                continue;
+            }
+
+            BuilderNode node = root;
+            for (int i = entry.length() - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(entry.charAt(i), key -> new BuilderNode());
+            }
+            if (node.entry == null) {
+                size++;
+            }
+            node.entry = entry;
+        }
+        return new SuffixTrie(root.freeze(), size);
+    }
+
+    /**
+     * Returns count of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the longest entry, which the value ends with, or null.
+     */
+    public String longestSuffix(CharSequence value) {
+        if (value == null) {
+            return null;
+        }
+
+        String longest = null;
+        Node node = root;
+        for (int i = value.length() - 1; i >= 0; i--) {
+            node = node.next(value.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.entry != null) {
+                longest = node.entry;
+            }
+        }
+        return longest;
+    }
+
+    private static final class BuilderNode {
+
+        private final Map<Character, BuilderNode> children = new TreeMap<>();
+        private String entry;
+
+        private Node freeze() {
+            char[] labels = new char[children.size()];
+            Node[] targets = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, BuilderNode> child : children.entrySet()) {
+                labels[i] = child.getKey();
+                targets[i] = child.getValue().freeze();
+                i++;
+            }
+            return new Node(labels, targets, entry);
+        }
+    }
+
+    private static final class Node {
+
+        private final char[] labels;
+        private final Node[] targets;
+        private final String entry;
+
+        private Node(char[] labels, Node[] targets, String entry) {
+            this.labels = labels;
+            this.targets = targets;
+            this.entry = entry;
+        }
+
+        private Node next(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index < 0 ? null : targets[index];
+        }
+    }
+}
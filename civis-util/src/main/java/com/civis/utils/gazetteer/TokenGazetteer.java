@@ -0,0 +1,283 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.gazetteer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable gazetteer of token sequences, like "Frankfurt am Main" or "Vereinigte Staaten".
+ * <p/>
+ * Entries are stored in a deterministic automaton over tokens: every state has sorted token labels and is final,
+ * if an entry ends in the state. A second automaton over reversed entries supports suffix matches.
+ * So exact, longest prefix and longest suffix match run in one pass over the tokens.
+ *
+ * @param <V> value type of an entry.
+ */
+public final class TokenGazetteer<V> {
+
+    private final State<V> forward;
+    private final State<V> backward;
+    private final int size;
+
+    private TokenGazetteer(State<V> forward, State<V> backward, int size) {
+        this.forward = forward;
+        this.backward = backward;
+        this.size = size;
+    }
+
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns count of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns value of the entry, which is exact the given tokens, or null.
+     */
+    public V get(String... tokens) {
+        return get(tokens, 0, tokens.length);
+    }
+
+    /**
+     * Returns value of the entry, which is exact the tokens from start (inclusive) to end (exclusive), or null.
+     */
+    public V get(String[] tokens, int start, int end) {
+        State<V> state = forward;
+        for (int i = start; i < end && state != null; i++) {
+            state = state.next(tokens[i]);
+        }
+        return state == null ? null : state.value;
+    }
+
+    /**
+     * Returns true, if at least one entry starts with the tokens from start (inclusive) to end (exclusive).
+     */
+    public boolean hasPrefix(String[] tokens, int start, int end) {
+        State<V> state = forward;
+        for (int i = start; i < end && state != null; i++) {
+            state = state.next(tokens[i]);
+        }
+        return state != null;
+    }
+
+    /**
+     * Returns the longest entry, which starts at token index start, or null.
+     */
+    public Match<V> longestPrefixMatch(String[] tokens, int start) {
+        Match<V> match = null;
+        State<V> state = forward;
+        for (int i = start; i < tokens.length; i++) {
+            state = state.next(tokens[i]);
+            if (state == null) {
+                break;
+            }
+            if (state.value != null) {
+                match = new Match<>(start, i + 1, state.value);
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Returns the longest entry, which ends at token index end (exclusive), or null.
+     */
+    public Match<V> longestSuffixMatch(String[] tokens, int end) {
+        Match<V> match = null;
+        State<V> state = backward;
+        for (int i = end - 1; i >= 0; i--) {
+            state = state.next(tokens[i]);
+            if (state == null) {
+                break;
+            }
+            if (state.value != null) {
+                match = new Match<>(i, end, state.value);
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Returns all longest entries from left to right, matches do not overlap.
+     */
+    public List<Match<V>> findAll(String[] tokens) {
+        List<Match<V>> matches = new ArrayList<>();
+        int i = 0;
+        while (i < tokens.length) {
+            Match<V> match = longestPrefixMatch(tokens, i);
+            if (match == null) {
+                i++;
+            } else {
+                matches.add(match);
+                i = match.getEnd();
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Found entry, start (inclusive) and end (exclusive) are token indexes.
+     */
+    public static final class Match<V> {
+
+        private final int start;
+        private final int end;
+        private final V value;
+
+        public Match(int start, int end, V value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Returns matched tokens joined with space.
+         */
+        public String getText(String[] tokens) {
+            return String.join(" ", Arrays.asList(tokens).subList(start, end));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Match)) {
+                return false;
+            }
+
+            Match<?> that = (Match<?>) o;
+            return start == that.start && end == that.end && Objects.equals(value, that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = start;
+            result = 31 * result + end;
+            result = 31 * result + (value != null ? value.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Match{start=" + start + ", end=" + end + ", value=" + value + '}';
+        }
+    }
+
+    /**
+     * Helper to build a gazetteer. If the same tokens are added twice, the last value is used.
+     */
+    public static final class Builder<V> {
+
+        private final BuilderState<V> forward = new BuilderState<>();
+        private final BuilderState<V> backward = new BuilderState<>();
+        private int size;
+
+        /**
+         * Add entry, phrase is split by whitespace into tokens.
+         */
+        public Builder<V> add(String phrase, V value) {
+            return add(phrase.trim().split("\\s+"), value);
+        }
+
+        public Builder<V> add(String[] tokens, V value) {
+            Objects.requireNonNull(value, "value");
+            if (tokens.length == 0) {
+                return this;
+            }
+
+            BuilderState<V> state = forward;
+            for (String token : tokens) {
+                state = state.children.computeIfAbsent(token, key -> new BuilderState<>());
+            }
+            if (state.value == null) {
+                size++;
+            }
+            state.value = value;
+
+            state = backward;
+            for (int i = tokens.length - 1; i >= 0; i--) {
+                state = state.children.computeIfAbsent(tokens[i], key -> new BuilderState<>());
+            }
+            state.value = value;
+            return this;
+        }
+
+        public TokenGazetteer<V> build() {
+            return new TokenGazetteer<>(forward.freeze(), backward.freeze(), size);
+        }
+    }
+
+    private static final class BuilderState<V> {
+
+        private final Map<String, BuilderState<V>> children = new HashMap<>();
+        private V value;
+
+        private State<V> freeze() {
+            String[] labels = children.keySet().toArray(new String[children.size()]);
+            Arrays.sort(labels);
+            @SuppressWarnings("unchecked")
+            State<V>[] targets = new State[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                targets[i] = children.get(labels[i]).freeze();
+            }
+            return new State<>(labels, targets, value);
+        }
+    }
+
+    private static final class State<V> {
+
+        private final String[] labels;
+        private final State<V>[] targets;
+        private final V value;
+
+        private State(String[] labels, State<V>[] targets, V value) {
+            this.labels = labels;
+            this.targets = targets;
+            this.value = value;
+        }
+
+        private State<V> next(String token) {
+            if (labels.length == 0) {
+                return null;
+            }
+            int index = Arrays.binarySearch(labels, token);
+            return index < 0 ? null : targets[index];
+        }
+    }
+}
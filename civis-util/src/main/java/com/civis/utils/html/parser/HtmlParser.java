@@ -18,6 +18,9 @@ package com.civis.utils.html.parser;
 
 
 import com.civis.utils.html.models.HtmlLink;
+import com.civis.utils.metrics.MetricsRegistry;
+import com.civis.utils.metrics.NoopMetricsRegistry;
+import com.civis.utils.metrics.Timer;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -46,6 +49,11 @@ public class HtmlParser {
     public static final Pattern WEB_URL_PATTERN =
             Pattern.compile(HTTP_PATTERN + "|" + HTTPS_PATTERN + "|" + WWW_PATTERN);
 
+    //Metric names
+    public static final String FIND_FIRST_FRAME_TIMER = "htmlParser.findFirstFrame";
+    public static final String TO_PLAIN_TEXT_TIMER = "htmlParser.toPlainText";
+    public static final String PARSE_TIMER = "htmlParser.parse";
+
     /**
      * Is content a html or a plain text!
      * Default html content.
@@ -54,6 +62,7 @@ public class HtmlParser {
     private boolean useFilter;
     private String content;
     private HtmlParseFilter htmlParseFilter;
+    private MetricsRegistry metricsRegistry = NoopMetricsRegistry.INSTANCE;
 
     private List<HtmlLink> links;
     private List<String> urls;
@@ -89,6 +98,16 @@ public class HtmlParser {
         this.htmlParseFilter = htmlParseFilter;
     }
 
+    /**
+     * Record parse durations in the given registry, default nothing is recorded.
+     *
+     * @return the HtmlParser.
+     */
+    public HtmlParser withMetrics(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        return this;
+    }
+
     public static String removeTags(String string) {
         if (string == null || string.length() == 0) {
             return string;
@@ -115,11 +134,14 @@ public class HtmlParser {
      * @return the HtmlParser.
      */
     public HtmlParser findFirstFrame() {
+        Timer timer = metricsRegistry.timer(FIND_FIRST_FRAME_TIMER);
+        long start = timer.start();
         Elements elements = Jsoup.parse(content).select("iframe");
         if (elements != null && elements.size() > 0) {
             Element element = elements.first();
             content = element.html();
         }
+        timer.stop(start);
         return this;
     }
 
@@ -127,6 +149,8 @@ public class HtmlParser {
      * Parse html as plain text.
      */
     public HtmlParser toPlainText() {
+        Timer timer = metricsRegistry.timer(TO_PLAIN_TEXT_TIMER);
+        long start = timer.start();
         Document doc = Jsoup.parse(content);
         String plainTextWithHTags = doc.text();
         String text = removeTags(plainTextWithHTags);
@@ -149,6 +173,7 @@ public class HtmlParser {
 
         //replace all html entity unicode. like &aml etc.
         content = Jsoup.parse(stringBuilder.toString()).text();
+        timer.stop(start);
         return this;
     }
 
@@ -190,9 +215,12 @@ public class HtmlParser {
      * Parse href tags, parse urls.
      */
     public HtmlParser parse() {
+        Timer timer = metricsRegistry.timer(PARSE_TIMER);
+        long start = timer.start();
         parseLinks();
         parseUrl();
         parseEmail();
+        timer.stop(start);
 
         return this;
     }
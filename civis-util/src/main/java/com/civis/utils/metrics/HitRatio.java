@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.metrics;
+
+/**
+ * Counts lookups and hits of a gazetteer, hit ratio is <code>name.hits / name.lookups</code>.
+ */
+public class HitRatio {
+
+    public static final String LOOKUPS_SUFFIX = ".lookups";
+    public static final String HITS_SUFFIX = ".hits";
+
+    private final Counter lookups;
+    private final Counter hits;
+
+    public HitRatio(MetricsRegistry metricsRegistry, String name) {
+        this.lookups = metricsRegistry.counter(name + LOOKUPS_SUFFIX);
+        this.hits = metricsRegistry.counter(name + HITS_SUFFIX);
+    }
+
+    /**
+     * Record a lookup.
+     *
+     * @param hit true, if value is found.
+     */
+    public void record(boolean hit) {
+        lookups.increment();
+        if (hit) {
+            hits.increment();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry, which keeps all metrics in memory. Use it in tests or to log metrics of a run.
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+    private final Map<String, InMemoryTimer> timers = new ConcurrentHashMap<>();
+    private final Map<String, InMemoryCounter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public InMemoryTimer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new InMemoryTimer());
+    }
+
+    @Override
+    public InMemoryCounter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new InMemoryCounter());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Returns all timers by name.
+     */
+    public Map<String, InMemoryTimer> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    /**
+     * Returns all counters by name.
+     */
+    public Map<String, InMemoryCounter> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * Returns count of the counter with the given name, 0 if counter does not exist.
+     */
+    public long getCount(String counterName) {
+        InMemoryCounter counter = counters.get(counterName);
+        return counter == null ? 0 : counter.getCount();
+    }
+
+    /**
+     * Timer with count, total and max. duration.
+     */
+    public static class InMemoryTimer implements Timer {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        @Override
+        public long start() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void stop(long start) {
+            record(System.nanoTime() - start);
+        }
+
+        @Override
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+
+    /**
+     * Thread safe counter.
+     */
+    public static class InMemoryCounter implements Counter {
+
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public void increment() {
+            count.increment();
+        }
+
+        @Override
+        public void increment(long count) {
+            this.count.add(count);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.metrics;
+
+/**
+ * Minimal metrics SPI, implement it to bridge timers and counters to a metrics library.
+ * <p/>
+ * Metrics are looked up by name, the same name returns the same metric. Implementations must be thread safe.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Returns timer with the given name.
+     */
+    Timer timer(String name);
+
+    /**
+     * Returns counter with the given name.
+     */
+    Counter counter(String name);
+
+    /**
+     * Returns false, if metrics are not recorded. Use it to skip work, that is only needed for metrics.
+     */
+    boolean isEnabled();
+}
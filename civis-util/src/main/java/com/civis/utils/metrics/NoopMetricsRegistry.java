@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.metrics;
+
+/**
+ * Default registry, nothing is recorded.
+ * <p/>
+ * Timer does not read the clock, every method is empty, so disabled metrics cost nothing.
+ */
+public final class NoopMetricsRegistry implements MetricsRegistry {
+
+    public static final NoopMetricsRegistry INSTANCE = new NoopMetricsRegistry();
+
+    private static final Timer NOOP_TIMER = new Timer() {
+
+        @Override
+        public long start() {
+            return 0;
+        }
+
+        @Override
+        public void stop(long start) {
+            // nothing to record.
+        }
+
+        @Override
+        public void record(long nanos) {
+            // nothing to record.
+        }
+    };
+
+    private static final Counter NOOP_COUNTER = new Counter() {
+
+        @Override
+        public void increment() {
+            // nothing to count.
+        }
+
+        @Override
+        public void increment(long count) {
+            // nothing to count.
+        }
+    };
+
+    private NoopMetricsRegistry() {
+        // use INSTANCE.
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return NOOP_TIMER;
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return NOOP_COUNTER;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.metrics;
+
+/**
+ * Timer to record durations.
+ * <p/>
+ * <code>long start = timer.start(); ... timer.stop(start);</code>
+ */
+public interface Timer {
+
+    /**
+     * Returns start time to pass to <code>stop</code>.
+     */
+    long start();
+
+    /**
+     * Record duration since the given start time.
+     */
+    void stop(long start);
+
+    /**
+     * Record duration in nanoseconds.
+     */
+    void record(long nanos);
+}
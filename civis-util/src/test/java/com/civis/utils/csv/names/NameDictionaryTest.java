@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.csv.names;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for testing name dictionary.
+ */
+public class NameDictionaryTest extends TestCase {
+
+    public void testSameAsMap() {
+        List<CSVNameData> nameDataList = CSVNamesReader.read();
+        Map<String, String> namesGender = new HashMap<>();
+        for (CSVNameData csvNameData : nameDataList) {
+            namesGender.put(csvNameData.getName(), csvNameData.getGender());
+        }
+
+        NameDictionary nameDictionary = NameDictionary.of(nameDataList);
+        Assert.assertEquals(namesGender.size(), nameDictionary.size());
+        for (Map.Entry<String, String> nameGender : namesGender.entrySet()) {
+            Assert.assertEquals(nameGender.getValue(), nameDictionary.getGender(nameGender.getKey()));
+        }
+    }
+
+    public void testLookupCharSequence() {
+        NameDictionary nameDictionary = NameDictionary.of(Arrays.asList(new CSVNameData("Jürgen", "M"),
+                new CSVNameData("Jule", "W"), new CSVNameData("Jul", "N")));
+        StringBuilder text = new StringBuilder("Jürgen");
+        Assert.assertEquals("M", nameDictionary.getGender(text));
+        Assert.assertEquals("W", nameDictionary.getGender("Jule"));
+        Assert.assertEquals("N", nameDictionary.getGender("Jul"));
+        Assert.assertNull(nameDictionary.getGender("Ju"));
+        Assert.assertNull(nameDictionary.getGender("Julia"));
+        Assert.assertFalse(nameDictionary.contains("Jurgen"));
+        Assert.assertEquals("Jule", nameDictionary.getName(1));
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.gazetteer;
+
+import com.civis.utils.csv.address.CountryReader;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Test class for testing suffix trie.
+ */
+public class SuffixTrieTest extends TestCase {
+
+    public void testLongestSuffix() {
+        SuffixTrie suffixTrie = SuffixTrie.of(Arrays.asList("Staaten", "Vereinigte Staaten", "Oman", ""));
+        Assert.assertEquals(3, suffixTrie.size());
+        Assert.assertEquals("Vereinigte Staaten", suffixTrie.longestSuffix("Washington Vereinigte Staaten"));
+        Assert.assertEquals("Staaten", suffixTrie.longestSuffix("Baltische Staaten"));
+        Assert.assertNull(suffixTrie.longestSuffix("Staaten von Amerika"));
+        Assert.assertNull(suffixTrie.longestSuffix(""));
+    }
+
+    public void testCountries() {
+        Set<String> countries = CountryReader.read();
+        SuffixTrie suffixTrie = SuffixTrie.of(countries);
+        Assert.assertEquals(countries.size(), suffixTrie.size());
+        Assert.assertEquals("Deutschland", suffixTrie.longestSuffix("Frankfurt am Main Deutschland"));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.gazetteer;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+import java.util.Arrays;
+
+/**
+ * Test class for testing token gazetteer.
+ */
+public class TokenGazetteerTest extends TestCase {
+
+    private final TokenGazetteer<String> gazetteer =
+            TokenGazetteer.<String>builder().add("Frankfurt am Main", "city").add("Frankfurt", "city")
+                    .add("Vereinigte Staaten", "country").add("Staaten", "other").build();
+
+    public void testExactMatch() {
+        Assert.assertEquals(4, gazetteer.size());
+        Assert.assertEquals("city", gazetteer.get("Frankfurt", "am", "Main"));
+        Assert.assertNull(gazetteer.get("Frankfurt", "am"));
+        Assert.assertTrue(gazetteer.hasPrefix(new String[]{"Frankfurt", "am"}, 0, 2));
+        Assert.assertFalse(gazetteer.hasPrefix(new String[]{"am", "Main"}, 0, 2));
+    }
+
+    public void testLongestPrefixMatch() {
+        String[] tokens = "Sitz in Frankfurt am Main".split(" ");
+        TokenGazetteer.Match<String> match = gazetteer.longestPrefixMatch(tokens, 2);
+        Assert.assertEquals("Frankfurt am Main", match.getText(tokens));
+        Assert.assertNull(gazetteer.longestPrefixMatch(tokens, 1));
+
+        tokens = "Frankfurt am Rhein".split(" ");
+        Assert.assertEquals("Frankfurt", gazetteer.longestPrefixMatch(tokens, 0).getText(tokens));
+    }
+
+    public void testLongestSuffixMatch() {
+        String[] tokens = "10115 Berlin Vereinigte Staaten".split(" ");
+        TokenGazetteer.Match<String> match = gazetteer.longestSuffixMatch(tokens, tokens.length);
+        Assert.assertEquals(new TokenGazetteer.Match<>(2, 4, "country"), match);
+        Assert.assertNull(gazetteer.longestSuffixMatch(tokens, 2));
+    }
+
+    public void testFindAll() {
+        String[] tokens = "Frankfurt am Main und Vereinigte Staaten".split(" ");
+        Assert.assertEquals(Arrays.asList(new TokenGazetteer.Match<>(0, 3, "city"),
+                new TokenGazetteer.Match<>(4, 6, "country")), gazetteer.findAll(tokens));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 Sergej Meister
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.civis.utils.metrics;
+
+import com.civis.utils.html.parser.HtmlParser;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Test class for testing in memory metrics registry.
+ */
+public class InMemoryMetricsRegistryTest extends TestCase {
+
+    public void testTimerAndCounter() {
+        InMemoryMetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+        Timer timer = metricsRegistry.timer("stage");
+        Assert.assertSame(timer, metricsRegistry.timer("stage"));
+        timer.record(10);
+        timer.stop(timer.start());
+        InMemoryMetricsRegistry.InMemoryTimer inMemoryTimer = metricsRegistry.getTimers().get("stage");
+        Assert.assertEquals(2, inMemoryTimer.getCount());
+        Assert.assertTrue(inMemoryTimer.getTotalNanos() >= 10);
+        Assert.assertTrue(inMemoryTimer.getMaxNanos() >= 10);
+
+        metricsRegistry.counter("spans").increment();
+        metricsRegistry.counter("spans").increment(2);
+        Assert.assertEquals(3, metricsRegistry.getCount("spans"));
+        Assert.assertEquals(0, metricsRegistry.getCount("unknown"));
+    }
+
+    public void testHitRatio() {
+        InMemoryMetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+        HitRatio hitRatio = new HitRatio(metricsRegistry, "zip");
+        hitRatio.record(true);
+        hitRatio.record(false);
+        Assert.assertEquals(2, metricsRegistry.getCount("zip" + HitRatio.LOOKUPS_SUFFIX));
+        Assert.assertEquals(1, metricsRegistry.getCount("zip" + HitRatio.HITS_SUFFIX));
+    }
+
+    public void testNoopRecordsNothing() {
+        MetricsRegistry metricsRegistry = NoopMetricsRegistry.INSTANCE;
+        Assert.assertFalse(metricsRegistry.isEnabled());
+        Assert.assertEquals(0, metricsRegistry.timer("stage").start());
+        Assert.assertSame(metricsRegistry.counter("a"), metricsRegistry.counter("b"));
+    }
+
+    public void testHtmlParserMetrics() {
+        InMemoryMetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+        new HtmlParser("<html><body><a href=\"http://www.civis.com\">civis</a></body></html>")
+                .withMetrics(metricsRegistry).toPlainText().parse();
+        Assert.assertEquals(1, metricsRegistry.timer(HtmlParser.TO_PLAIN_TEXT_TIMER).getCount());
+        Assert.assertEquals(1, metricsRegistry.timer(HtmlParser.PARSE_TIMER).getCount());
+    }
+}